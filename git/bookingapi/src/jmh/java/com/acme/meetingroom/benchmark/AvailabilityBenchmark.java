@@ -0,0 +1,68 @@
+package com.acme.meetingroom.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.meetingroom.dto.RoomAvailability;
+import com.acme.meetingroom.service.BookingService;
+
+/**
+ * Latency of {@link BookingService#findAvailableRooms} across {@code rooms}
+ * rooms with {@link BenchmarkContext#SLOTS_PER_DAY} bookings each: once for a
+ * window in which every room is free and once for a long window searched for
+ * a shorter free stretch between bookings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AvailabilityBenchmark {
+
+	@Param({ "1000", "5000" })
+	private int rooms;
+
+	private ConfigurableApplicationContext context;
+
+	private BookingService bookingService;
+
+	private LocalDate date;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("availability-benchmark-" + rooms);
+		bookingService = context.getBean(BookingService.class);
+		BenchmarkContext.seed(bookingService, rooms, 1);
+		date = BenchmarkContext.firstDay();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<RoomAvailability> wholeWindow() {
+		return bookingService.findAvailableRooms(date, LocalTime.of(15, 0), LocalTime.of(16, 0), 60);
+	}
+
+	@Benchmark
+	public List<RoomAvailability> shorterStretch() {
+		return bookingService.findAvailableRooms(date, LocalTime.of(8, 0), LocalTime.of(18, 0), 45);
+	}
+}
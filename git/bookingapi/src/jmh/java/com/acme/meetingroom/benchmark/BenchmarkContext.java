@@ -0,0 +1,96 @@
+package com.acme.meetingroom.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.meetingroom.MeetingRoomApplication;
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.service.BookingService;
+
+/**
+ * Starts the application without a web server for benchmarks, on a private
+ * in-memory H2 database and with SQL and application logging switched off, and
+ * seeds benchmark datasets.
+ */
+final class BenchmarkContext {
+
+	/**
+	 * Number of seeded bookings per room and day.
+	 */
+	static final int SLOTS_PER_DAY = 5;
+
+	private static final int SEED_CHUNK = 1000;
+
+	private BenchmarkContext() {
+	}
+
+	/**
+	 * Seeds the given number of conflict-free bookings through the bulk service
+	 * path, spread over {@code rooms} rooms, consecutive days starting tomorrow
+	 * and {@link #SLOTS_PER_DAY} one-hour slots per day, so that the in-memory
+	 * schedule index is updated as well as the database.
+	 *
+	 * @param bookingService the service to insert through.
+	 * @param rooms          the number of rooms, named {@code Room-0} onwards.
+	 * @param days           the number of days per room.
+	 */
+	static void seed(BookingService bookingService, int rooms, int days) {
+		List<Booking> chunk = new ArrayList<>(SEED_CHUNK);
+		for (int room = 0; room < rooms; room++) {
+			for (int day = 0; day < days; day++) {
+				for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+					chunk.add(new Booking("Room-" + room, "seed@example.com", firstDay().plusDays(day),
+							slotStart(slot), slotStart(slot).plusHours(1)));
+					if (chunk.size() == SEED_CHUNK) {
+						bookingService.createBookings(chunk);
+						chunk.clear();
+					}
+				}
+			}
+		}
+		if (!chunk.isEmpty()) {
+			bookingService.createBookings(chunk);
+		}
+	}
+
+	/**
+	 * Returns the first day used by seeded data.
+	 */
+	static LocalDate firstDay() {
+		return LocalDate.now().plusDays(1);
+	}
+
+	/**
+	 * Returns the start of a seeded slot. Slots are two hours apart so that
+	 * neighbouring bookings never touch.
+	 */
+	static LocalTime slotStart(int slot) {
+		return LocalTime.of(8 + 2 * slot, 0);
+	}
+
+	/**
+	 * Starts a new application context.
+	 *
+	 * @param database   the name of the in-memory database to use.
+	 * @param properties additional {@code key=value} properties.
+	 * @return the started context; the caller must close it.
+	 */
+	static ConfigurableApplicationContext start(String database, String... properties) {
+		List<String> all = new ArrayList<>(List.of(
+				"spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+				"spring.jpa.show-sql=false",
+				"spring.h2.console.enabled=false",
+				"logging.level.root=WARN",
+				"logging.level.com.acme.meetingroom=OFF",
+				"booking.room-catalog.auto-create=true"));
+		all.addAll(List.of(properties));
+		return new SpringApplicationBuilder(MeetingRoomApplication.class).web(WebApplicationType.NONE)
+				.properties(all.toArray(String[]::new)).run();
+	}
+}
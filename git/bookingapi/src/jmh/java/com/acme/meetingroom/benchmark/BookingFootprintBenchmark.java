@@ -0,0 +1,174 @@
+package com.acme.meetingroom.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.entity.Room;
+import com.acme.meetingroom.service.BookingDictionary;
+import com.acme.meetingroom.service.RoomCatalog;
+import com.acme.meetingroom.service.RoomDate;
+import com.acme.meetingroom.service.RoomScheduleCache;
+import com.acme.meetingroom.service.RoomScheduleIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Heap retained per booking by the in-memory schedule structures, filled with
+ * {@code bookings} bookings over {@value #ROOMS} rooms,
+ * {@value #EMPLOYEES} employees and {@link BenchmarkContext#SLOTS_PER_DAY}
+ * bookings per room and day. Every booking is built with fresh strings, like
+ * an entity read from the database, and dropped once added. The heap used
+ * after a full collection is reported as the {@code bytesPerBooking} counter;
+ * the time of a shot is the time to fill the structure. JMH sums counters
+ * over the measured iterations, so there is a single one.
+ * <p>
+ * {@code entities} keeps the entities themselves, as a reference point. The
+ * rooms are created once in the {@link RoomCatalog} of an application context,
+ * whose ids the structures are keyed by.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingFootprintBenchmark {
+
+	private static final int ROOMS = 1000;
+
+	private static final int EMPLOYEES = 10_000;
+
+	@Param({ "1000000" })
+	private int bookings;
+
+	@Param({ "entities", "index", "cache" })
+	private String structure;
+
+	private Object retained;
+
+	private ConfigurableApplicationContext context;
+
+	private RoomCatalog roomCatalog;
+
+	/**
+	 * Heap retained by the structure built in the last shot.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		public long bytesPerBooking;
+	}
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("footprint-benchmark");
+		roomCatalog = context.getBean(RoomCatalog.class);
+		for (int room = 0; room < ROOMS; room++) {
+			roomCatalog.save("Room-" + room, new Room());
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Setup(Level.Invocation)
+	public void release() {
+		retained = null;
+	}
+
+	@Benchmark
+	public Object fill(Footprint footprint) {
+		long before = usedHeap();
+		retained = switch (structure) {
+		case "entities" -> entities();
+		case "index" -> index();
+		case "cache" -> cache();
+		default -> throw new IllegalArgumentException(structure);
+		};
+		footprint.bytesPerBooking = (usedHeap() - before) / bookings;
+		return retained;
+	}
+
+	private List<Booking> entities() {
+		List<Booking> entities = new ArrayList<>(bookings);
+		for (int i = 0; i < bookings; i++) {
+			entities.add(booking(i));
+		}
+		return entities;
+	}
+
+	private RoomScheduleIndex index() {
+		RoomScheduleIndex index = new RoomScheduleIndex(null, roomCatalog, Optional.empty());
+		for (int i = 0; i < bookings; i++) {
+			index.add(booking(i));
+		}
+		return index;
+	}
+
+	private RoomScheduleCache cache() {
+		RoomScheduleCache cache = new RoomScheduleCache(bookings, Duration.ofHours(1), new BookingDictionary(),
+				roomCatalog, new SimpleMeterRegistry());
+		int slots = BenchmarkContext.SLOTS_PER_DAY;
+		for (int first = 0; first < bookings; first += slots) {
+			Booking sample = booking(first);
+			int from = first;
+			cache.get(new RoomDate(sample.getRoom(), sample.getDate()), key -> {
+				List<Booking> schedule = new ArrayList<>(slots);
+				for (int i = from; i < Math.min(from + slots, bookings); i++) {
+					schedule.add(booking(i));
+				}
+				return schedule;
+			});
+		}
+		return cache;
+	}
+
+	/**
+	 * Returns the i-th booking: consecutive bookings share a room and date, so
+	 * every room/date schedule is complete.
+	 */
+	private static Booking booking(int i) {
+		int slot = i % BenchmarkContext.SLOTS_PER_DAY;
+		int schedule = i / BenchmarkContext.SLOTS_PER_DAY;
+		Booking booking = new Booking(new String("Room-" + schedule % ROOMS),
+				new String("employee" + i % EMPLOYEES + "@example.com"),
+				LocalDate.of(2030, 1, 1).plusDays(schedule / ROOMS),
+				BenchmarkContext.slotStart(slot), BenchmarkContext.slotStart(slot).plusHours(1));
+		booking.setId((long) i + 1);
+		return booking;
+	}
+
+	private static long usedHeap() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
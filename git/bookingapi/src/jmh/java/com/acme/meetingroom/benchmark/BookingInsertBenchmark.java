@@ -0,0 +1,86 @@
+package com.acme.meetingroom.benchmark;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.meetingroom.dto.BookingBatchResult;
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.repository.BookingRepository;
+import com.acme.meetingroom.service.BookingService;
+
+/**
+ * Insert throughput of the bulk creation path ({@link BookingService#createBookings})
+ * and of plain repository seeding ({@link BookingRepository#saveAll}), reported in
+ * bookings per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingInsertBenchmark {
+
+	private static final int BATCH = 500;
+
+	private ConfigurableApplicationContext context;
+
+	private BookingService bookingService;
+
+	private BookingRepository bookingRepository;
+
+	private int run;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("insert-benchmark");
+		bookingService = context.getBean(BookingService.class);
+		bookingRepository = context.getBean(BookingRepository.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public List<BookingBatchResult> bulkCreate() {
+		return bookingService.createBookings(nextBatch());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public List<Booking> seed() {
+		return bookingRepository.saveAll(nextBatch());
+	}
+
+	/**
+	 * Builds a conflict-free batch in a room that no earlier invocation used.
+	 */
+	private List<Booking> nextBatch() {
+		String room = "BenchRoom-" + run++;
+		List<Booking> batch = new ArrayList<>(BATCH);
+		for (int i = 0; i < BATCH; i++) {
+			LocalTime timeFrom = BenchmarkContext.slotStart(i % BenchmarkContext.SLOTS_PER_DAY);
+			batch.add(new Booking(room, "bench@example.com",
+					BenchmarkContext.firstDay().plusDays(i / BenchmarkContext.SLOTS_PER_DAY), timeFrom,
+					timeFrom.plusHours(1)));
+		}
+		return batch;
+	}
+}
@@ -0,0 +1,78 @@
+package com.acme.meetingroom.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.acme.meetingroom.entity.Booking;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Cost of serializing a {@code List<Booking>} response body with an object
+ * mapper configured like the one used by Spring MVC, as JSON or as CBOR, and of
+ * reading it back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookingSerializationBenchmark {
+
+	@Param({ "5", "100", "1000" })
+	private int size;
+
+	@Param({ "json", "cbor" })
+	private String format;
+
+	private ObjectMapper objectMapper;
+
+	private List<Booking> bookings;
+
+	private byte[] body;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		objectMapper = "cbor".equals(format) ? builder.factory(new CBORFactory()).build() : builder.build();
+		bookings = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Booking booking = new Booking("Room-" + (i % 10), "employee" + i + "@example.com",
+					LocalDate.now().plusDays(i / 10), LocalTime.of(8 + i % 10, 0), LocalTime.of(9 + i % 10, 0));
+			booking.setId((long) i);
+			bookings.add(booking);
+		}
+		body = objectMapper.writeValueAsBytes(bookings);
+	}
+
+	@Benchmark
+	public byte[] writeBookings() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(bookings);
+	}
+
+	@Benchmark
+	public List<Booking> readBookings() throws IOException {
+		return objectMapper.readValue(body, new TypeReference<List<Booking>>() {
+		});
+	}
+}
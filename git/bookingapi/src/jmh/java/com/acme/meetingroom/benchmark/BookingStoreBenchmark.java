@@ -0,0 +1,118 @@
+package com.acme.meetingroom.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.repository.BookingStore;
+import com.acme.meetingroom.service.BookingService;
+
+/**
+ * Throughput of the {@link BookingStore} engines side by side: batch inserts,
+ * schedule lookups of one room and day, keyset pages across rooms and overlap
+ * checks, against the same seeded dataset. Lookups run on four threads, so the
+ * lock-free reads of the in-memory engine and the connection pool of the JPA
+ * engine are both exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingStoreBenchmark {
+
+	private static final int ROOMS = 100;
+
+	private static final int DAYS = 60;
+
+	private static final int BATCH = 500;
+
+	@Param({ "jpa", "memory" })
+	private String engine;
+
+	private ConfigurableApplicationContext context;
+
+	private BookingStore store;
+
+	private int run;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("store-benchmark-" + engine, "booking.storage.engine=" + engine);
+		store = context.getBean(BookingStore.class);
+		BenchmarkContext.seed(context.getBean(BookingService.class), ROOMS, DAYS);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public List<Booking> saveAll() {
+		return store.saveAll(nextBatch());
+	}
+
+	@Benchmark
+	@Threads(4)
+	public List<Booking> findByRoomAndDate() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return store.findByRoomAndDate("Room-" + random.nextInt(ROOMS), randomDay(random));
+	}
+
+	@Benchmark
+	@Threads(4)
+	public List<Booking> findPageAfter() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return store.findPageAfter(randomDay(random), BenchmarkContext.slotStart(0), "Room-" + random.nextInt(ROOMS),
+				0, 50);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public boolean existsOverlapping() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		LocalTime timeFrom = LocalTime.of(8 + random.nextInt(10), 30);
+		return store.existsOverlapping("Room-" + random.nextInt(ROOMS), randomDay(random), timeFrom,
+				timeFrom.plusHours(1));
+	}
+
+	private static LocalDate randomDay(ThreadLocalRandom random) {
+		return BenchmarkContext.firstDay().plusDays(random.nextInt(DAYS));
+	}
+
+	/**
+	 * Builds a conflict-free batch in a room that no earlier invocation used.
+	 */
+	private List<Booking> nextBatch() {
+		String room = "StoreRoom-" + run++;
+		List<Booking> batch = new ArrayList<>(BATCH);
+		for (int i = 0; i < BATCH; i++) {
+			LocalTime timeFrom = BenchmarkContext.slotStart(i % BenchmarkContext.SLOTS_PER_DAY);
+			batch.add(new Booking(room, "bench@example.com",
+					BenchmarkContext.firstDay().plusDays(i / BenchmarkContext.SLOTS_PER_DAY), timeFrom,
+					timeFrom.plusHours(1)));
+		}
+		return batch;
+	}
+}
@@ -0,0 +1,60 @@
+package com.acme.meetingroom.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.service.RoomCatalog;
+import com.acme.meetingroom.utils.BookingValidator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cost of the request validation done for every booking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookingValidatorBenchmark {
+
+	// Rooms are created on their first booking, so the catalog is never consulted
+	private final BookingValidator bookingValidator = new BookingValidator(new SimpleMeterRegistry(),
+			new RoomCatalog(null, null, null, true, Duration.ofSeconds(5), Duration.ofSeconds(30), List.of()));
+
+	private final Booking validBooking = new Booking("Room-0", "bench@example.com", LocalDate.now().plusDays(1),
+			LocalTime.of(10, 0), LocalTime.of(11, 0));
+
+	private final Booking invalidBooking = new Booking("Room-0", "", null, null, null);
+
+	@Benchmark
+	public Map<String, String> validateBookingValid() {
+		return bookingValidator.validateBooking(validBooking);
+	}
+
+	@Benchmark
+	public Map<String, String> validateBookingInvalid() {
+		return bookingValidator.validateBooking(invalidBooking);
+	}
+
+	@Benchmark
+	public Booking validateBookingTimeFromTimeTo() {
+		bookingValidator.validateBookingTimeFromTimeTo(validBooking.getRoom(), validBooking.getDate(),
+				validBooking.getTimeFrom(), validBooking.getTimeTo());
+		return validBooking;
+	}
+}
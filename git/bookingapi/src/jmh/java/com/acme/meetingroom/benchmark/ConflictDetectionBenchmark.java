@@ -0,0 +1,83 @@
+package com.acme.meetingroom.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.service.BookingService;
+
+/**
+ * Latency of {@link BookingService#createBooking} against an H2 dataset of
+ * {@code bookings} rows: once for a request that conflicts with a stored
+ * booking and once for a request that is admitted and inserted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConflictDetectionBenchmark {
+
+	private static final int DAYS = 100;
+
+	@Param({ "10000", "100000" })
+	private int bookings;
+
+	private ConfigurableApplicationContext context;
+
+	private BookingService bookingService;
+
+	private int rooms;
+
+	private int admitted;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("conflict-benchmark-" + bookings);
+		bookingService = context.getBean(BookingService.class);
+		rooms = Math.max(1, bookings / (DAYS * BenchmarkContext.SLOTS_PER_DAY));
+		BenchmarkContext.seed(bookingService, rooms, DAYS);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public boolean conflicting() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		LocalTime timeFrom = BenchmarkContext.slotStart(random.nextInt(BenchmarkContext.SLOTS_PER_DAY));
+		try {
+			bookingService.createBooking("Room-" + random.nextInt(rooms), "bench@example.com",
+					BenchmarkContext.firstDay().plusDays(random.nextInt(DAYS)), timeFrom.plusMinutes(30),
+					timeFrom.plusMinutes(90));
+			return false;
+		} catch (IllegalStateException e) {
+			return true;
+		}
+	}
+
+	@Benchmark
+	public Booking admitted() {
+		// A fresh day per invocation never collides with seeded or earlier bookings
+		LocalDate date = BenchmarkContext.firstDay().plusDays(DAYS + admitted++);
+		return bookingService.createBooking("Room-0", "bench@example.com", date, LocalTime.of(10, 0),
+				LocalTime.of(11, 0));
+	}
+}
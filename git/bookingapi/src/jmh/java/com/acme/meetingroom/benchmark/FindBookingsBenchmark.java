@@ -0,0 +1,62 @@
+package com.acme.meetingroom.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.service.BookingService;
+
+/**
+ * Latency of {@link BookingService#findBookingsByRoomAndDate} for random
+ * rooms and days, at different rooms x days densities of the bookings table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FindBookingsBenchmark {
+
+	@Param({ "10", "200" })
+	private int rooms;
+
+	@Param({ "30", "365" })
+	private int days;
+
+	private ConfigurableApplicationContext context;
+
+	private BookingService bookingService;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("find-benchmark-" + rooms + "x" + days);
+		bookingService = context.getBean(BookingService.class);
+		BenchmarkContext.seed(bookingService, rooms, days);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Booking> findBookingsByRoomAndDate() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return bookingService.findBookingsByRoomAndDate("Room-" + random.nextInt(rooms),
+				BenchmarkContext.firstDay().plusDays(random.nextInt(days)));
+	}
+}
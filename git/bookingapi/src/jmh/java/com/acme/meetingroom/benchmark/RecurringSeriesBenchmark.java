@@ -0,0 +1,104 @@
+package com.acme.meetingroom.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.meetingroom.entity.RecurringSeries;
+import com.acme.meetingroom.entity.RecurringSeries.Frequency;
+import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.RecurringSeriesService;
+
+/**
+ * Cost of recurring bookings over {@value #ROOMS} rooms that already hold
+ * {@link BenchmarkContext#SLOTS_PER_DAY} bookings a day for {@value #DAYS}
+ * days: expanding, checking and inserting a 2-year weekly series in every room
+ * (one shot per iteration, each iteration in a fresh evening hour from 17:00), and
+ * rejecting a single 2-year weekly series whose last occurrence conflicts.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class RecurringSeriesBenchmark {
+
+	private static final int ROOMS = 500;
+
+	private static final int DAYS = 14;
+
+	private ConfigurableApplicationContext context;
+
+	private RecurringSeriesService seriesService;
+
+	private LocalTime hour = LocalTime.of(16, 0);
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("series-benchmark");
+		seriesService = context.getBean(RecurringSeriesService.class);
+		BookingService bookingService = context.getBean(BookingService.class);
+		BenchmarkContext.seed(bookingService, ROOMS, DAYS);
+		// Occupies the last week of the conflicting series in every room
+		for (int room = 0; room < ROOMS; room++) {
+			bookingService.createBooking("Room-" + room, "seed@example.com", lastWeek(), LocalTime.of(8, 0),
+					LocalTime.of(9, 0));
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void nextHour() {
+		hour = hour.plusHours(1);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public int expandAcrossRooms() {
+		int occurrences = 0;
+		for (int room = 0; room < ROOMS; room++) {
+			seriesService.createSeries(twoYearsWeekly("Room-" + room, hour));
+			occurrences += 105;
+		}
+		return occurrences;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public boolean rejectConflicting() {
+		try {
+			seriesService.createSeries(
+					twoYearsWeekly("Room-" + ThreadLocalRandom.current().nextInt(ROOMS), LocalTime.of(8, 0)));
+			return false;
+		} catch (IllegalStateException e) {
+			return true;
+		}
+	}
+
+	private static RecurringSeries twoYearsWeekly(String room, LocalTime timeFrom) {
+		return new RecurringSeries(room, "team@example.com", timeFrom, timeFrom.plusHours(1), Frequency.WEEKLY,
+				BenchmarkContext.firstDay(), lastWeek());
+	}
+
+	private static LocalDate lastWeek() {
+		return BenchmarkContext.firstDay().plusWeeks(104);
+	}
+}
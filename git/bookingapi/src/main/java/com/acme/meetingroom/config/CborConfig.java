@@ -0,0 +1,23 @@
+package com.acme.meetingroom.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Serves responses as CBOR ({@code application/cbor}) to clients that ask for
+ * it in their Accept header. The CBOR mapper is built from the same
+ * Spring Boot builder as the JSON one, so both formats carry the same fields
+ * with the same date and time representation.
+ */
+@Configuration
+public class CborConfig {
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+}
@@ -0,0 +1,42 @@
+package com.acme.meetingroom.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.acme.meetingroom.utils.ConcurrencyLimitingDataSource;
+
+/**
+ * Puts a {@link ConcurrencyLimitingDataSource} in front of the connection pool
+ * when {@code booking.datasource.max-concurrency} is set. This is enabled by
+ * the {@code virtual-threads} profile, where request concurrency is no longer
+ * bounded by the servlet container's thread pool.
+ */
+@Configuration
+@ConditionalOnProperty("booking.datasource.max-concurrency")
+public class DatabaseConcurrencyConfig {
+
+	@Bean
+	public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+					return new ConcurrencyLimitingDataSource(dataSource,
+							environment.getRequiredProperty("booking.datasource.max-concurrency", Integer.class),
+							environment.getProperty("booking.datasource.max-waiting", Integer.class, 1000),
+							environment.getProperty("booking.datasource.acquire-timeout", Duration.class,
+									Duration.ofSeconds(2)));
+				}
+				return bean;
+			}
+		};
+	}
+}
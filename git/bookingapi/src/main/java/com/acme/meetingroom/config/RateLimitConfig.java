@@ -0,0 +1,55 @@
+package com.acme.meetingroom.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.acme.meetingroom.controller.RateLimitInterceptor;
+import com.acme.meetingroom.controller.RoomRouter;
+import com.acme.meetingroom.utils.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Puts a {@link RateLimitInterceptor} in front of the booking endpoints when
+ * {@code booking.rate-limit.enabled} is true. Reads and writes have separate
+ * budgets under {@code booking.rate-limit.read.*} and
+ * {@code booking.rate-limit.write.*}, and the clients allowed to name
+ * themselves are listed in {@code booking.rate-limit.clients}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig implements WebMvcConfigurer {
+
+	private final RateLimitInterceptor interceptor;
+
+	public RateLimitConfig(Environment environment, RoomRouter roomRouter, MeterRegistry meterRegistry) {
+		this.interceptor = new RateLimitInterceptor(limiter(environment, "read", 50, 100),
+				limiter(environment, "write", 5, 20),
+				Set.copyOf(Arrays.asList(
+						environment.getProperty("booking.rate-limit.clients", String[].class, new String[0]))),
+				roomRouter, meterRegistry);
+	}
+
+	private static TokenBucketLimiter limiter(Environment environment, String budget, double permitsPerSecond,
+			int burst) {
+		return new TokenBucketLimiter(
+				environment.getProperty("booking.rate-limit." + budget + ".permits-per-second", Double.class,
+						permitsPerSecond),
+				environment.getProperty("booking.rate-limit." + budget + ".burst", Integer.class, burst),
+				environment.getProperty("booking.rate-limit.max-clients", Integer.class, 10000),
+				environment.getProperty("booking.rate-limit.stripes", Integer.class, 1024),
+				environment.getProperty("booking.rate-limit.sweep-interval", Duration.class, Duration.ofSeconds(10)));
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(interceptor).addPathPatterns("/api/bookings", "/api/bookings/**");
+	}
+}
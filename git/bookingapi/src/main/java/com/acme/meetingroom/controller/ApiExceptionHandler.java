@@ -0,0 +1,96 @@
+package com.acme.meetingroom.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.RestClientException;
+
+import com.acme.meetingroom.dto.ErrorResponse;
+import com.acme.meetingroom.exception.MisdirectedRequestException;
+import com.acme.meetingroom.exception.PeerAuthenticationException;
+import com.acme.meetingroom.exception.RequestThrottledException;
+
+/**
+ * Maps infrastructure failures shared by all controllers to HTTP responses.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+	/**
+	 * Status of a request sent to a server that cannot answer it, which has no
+	 * {@link HttpStatus} constant.
+	 */
+	private static final int MISDIRECTED_REQUEST = 421;
+
+	/**
+	 * Answers 503 when no database connection could be obtained, for example
+	 * because the database admission queue is full, so that clients back off
+	 * and retry instead of treating it as a server error.
+	 *
+	 * @param ex the failure to begin a transaction.
+	 * @return a 503 response with a Retry-After header.
+	 */
+	@ExceptionHandler(CannotCreateTransactionException.class)
+	public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(CannotCreateTransactionException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+				.body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Database is busy, retry later."));
+	}
+
+	/**
+	 * Answers 503 when a request could not be completed by another member of
+	 * the cluster, for example because the owner of the room is down.
+	 *
+	 * @param ex the failure of the request to the member.
+	 * @return a 503 response with a Retry-After header.
+	 */
+	@ExceptionHandler(RestClientException.class)
+	public ResponseEntity<ErrorResponse> handleMemberUnavailable(RestClientException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+				.body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+						"Another instance of the service is unavailable, retry later."));
+	}
+
+	/**
+	 * Answers 429 when a client has used up its rate limit, telling it when the
+	 * next request would be admitted.
+	 *
+	 * @param ex the rejection of the request.
+	 * @return a 429 response with a Retry-After header in whole seconds.
+	 */
+	@ExceptionHandler(RequestThrottledException.class)
+	public ResponseEntity<ErrorResponse> handleThrottled(RequestThrottledException ex) {
+		long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+				.body(new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage()));
+	}
+
+	/**
+	 * Answers 403 when a request claims to be forwarded by another member of
+	 * the cluster but is not signed by one.
+	 *
+	 * @param ex the rejection of the request.
+	 * @return a 403 response.
+	 */
+	@ExceptionHandler(PeerAuthenticationException.class)
+	public ResponseEntity<ErrorResponse> handlePeerNotAuthenticated(PeerAuthenticationException ex) {
+		return ResponseEntity.status(HttpStatus.FORBIDDEN)
+				.body(new ErrorResponse(HttpStatus.FORBIDDEN.value(), ex.getMessage()));
+	}
+
+	/**
+	 * Answers 421 Misdirected Request when another member forwarded a request
+	 * about a room this instance does not own, so that the room is never
+	 * changed by two members at once.
+	 *
+	 * @param ex the rejection of the request.
+	 * @return a 421 response.
+	 */
+	@ExceptionHandler(MisdirectedRequestException.class)
+	public ResponseEntity<ErrorResponse> handleMisdirected(MisdirectedRequestException ex) {
+		return ResponseEntity.status(MISDIRECTED_REQUEST).body(new ErrorResponse(MISDIRECTED_REQUEST, ex.getMessage()));
+	}
+}
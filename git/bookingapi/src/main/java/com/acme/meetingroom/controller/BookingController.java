@@ -1,12 +1,23 @@
 package com.acme.meetingroom.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,39 +28,98 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.acme.meetingroom.dto.BookingBatchResult;
+import com.acme.meetingroom.dto.BookingPage;
 import com.acme.meetingroom.dto.ErrorResponse;
 import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.exception.BookingConflictException;
 import com.acme.meetingroom.exception.BookingNotFoundException;
 import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.RoomCatalog;
+import com.acme.meetingroom.service.RoomDate;
+import com.acme.meetingroom.service.RoomOwnership;
+import com.acme.meetingroom.service.ScheduleStreamRegistry;
+import com.acme.meetingroom.service.ScheduleVersions;
 import com.acme.meetingroom.utils.BookingValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * REST controller for managing meeting room bookings. Handles client requests
- * and delegates business logic to the {@link BookingService}.
+ * and delegates business logic to the {@link BookingService}. In a cluster,
+ * requests about a room are passed to its owner through the
+ * {@link RoomRouter}.
  */
 @RestController
 @RequestMapping("/api/bookings")
 public class BookingController {
 
+	private static final ParameterizedTypeReference<List<BookingBatchResult>> BATCH_RESULTS = new ParameterizedTypeReference<>() {
+	};
+
+	private static final ParameterizedTypeReference<Map<String, Integer>> CANCELLED = new ParameterizedTypeReference<>() {
+	};
+
 	private final BookingService bookingService;
 
 	private final BookingValidator bookingValidator;
 
+	private final ScheduleVersions scheduleVersions;
+
+	private final ScheduleStreamRegistry streamRegistry;
+
+	private final int maxBatchSize;
+
+	private final int maxPageSize;
+
+	private final ObjectMapper objectMapper;
+
+	private final RoomOwnership ownership;
+
+	private final RoomRouter roomRouter;
+
+	private final RoomCatalog roomCatalog;
+
 	/**
 	 * Constructs a new instance of {@link BookingController}.
 	 *
-	 * @param bookingService the service used to manage booking operations.
+	 * @param bookingService   the service used to manage booking operations.
+	 * @param scheduleVersions the version counters used as schedule ETags.
+	 * @param streamRegistry   the registry of schedule change subscribers.
+	 * @param maxBatchSize     the maximum number of bookings accepted per batch.
+	 * @param maxPageSize      the maximum number of bookings per listing page.
+	 * @param objectMapper     the mapper used to write streamed bookings.
+	 * @param ownership        the assignment of rooms to cluster members.
+	 * @param roomRouter       the router to the owners of rooms.
+	 * @param roomCatalog      the catalog creating rooms on their first booking.
 	 */
-	public BookingController(BookingService bookingService, BookingValidator bookingValidator) {
+	public BookingController(BookingService bookingService, BookingValidator bookingValidator,
+			ScheduleVersions scheduleVersions, ScheduleStreamRegistry streamRegistry,
+			@Value("${booking.batch.max-size:5000}") int maxBatchSize,
+			@Value("${booking.page.max-size:500}") int maxPageSize, ObjectMapper objectMapper,
+			RoomOwnership ownership, RoomRouter roomRouter, RoomCatalog roomCatalog) {
 		this.bookingService = bookingService;
 		this.bookingValidator = bookingValidator;
+		this.scheduleVersions = scheduleVersions;
+		this.streamRegistry = streamRegistry;
+		this.maxBatchSize = maxBatchSize;
+		this.maxPageSize = maxPageSize;
+		this.objectMapper = objectMapper;
+		this.ownership = ownership;
+		this.roomRouter = roomRouter;
+		this.roomCatalog = roomCatalog;
 	}
 
 	/**
@@ -58,27 +128,179 @@ public class BookingController {
 	 * @param room the name or identifier of the meeting room.
 	 * @param date the date for which bookings should be retrieved (in ISO-8601
 	 *             format, e.g., "2024-11-29").
-	 * @return a list of bookings for the specified room and date.
+	 * @param request the current request, used to evaluate If-None-Match.
+	 * @param servletRequest the current request, forwarded to the owner of the
+	 *                       room in a cluster.
+	 * @return a list of bookings for the specified room and date, or 304 if the
+	 *         client's copy is current.
 	 */
-	@Operation(summary = "Retrieve bookings by room and date", description = "Fetch all bookings for a specific meeting room on a given date. Provide the room name and the desired date in ISO-8601 format.")
+	@Operation(summary = "Retrieve bookings by room and date", description = "Fetch all bookings for a specific meeting room on a given date. Provide the room name and the desired date in ISO-8601 format. The response carries an ETag; send it back in If-None-Match to get 304 while the schedule is unchanged.")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Bookings retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Booking.class))),
+			@ApiResponse(responseCode = "304", description = "Schedule unchanged since the ETag in If-None-Match", content = @Content),
 			@ApiResponse(responseCode = "400", description = "Invalid input parameters", content = @Content(mediaType = "application/json")) })
 	@GetMapping
 	public ResponseEntity<?> findBookingsByRoomAndDate(@RequestParam String room,
-			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, WebRequest request,
+			HttpServletRequest servletRequest) {
 		Map<String, String> errors = bookingValidator.validateRoomAndDate(room, date);
 		if (errors != null) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
 		}
+		// Only the owner's cache and versions see every change of the room
+		Optional<ResponseEntity<byte[]>> forwarded = roomRouter.forward(room, servletRequest, null);
+		if (forwarded.isPresent()) {
+			return forwarded.get();
+		}
+		// Read the version before the schedule so a concurrent change can only make the tag stale
+		String etag = scheduleVersions.etag(new RoomDate(room, date));
+		if (request.checkNotModified(etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
 		List<Booking> bookings = bookingService.findBookingsByRoomAndDate(room, date);
-		return ResponseEntity.ok(bookings);
+		return ResponseEntity.ok().eTag(etag).body(bookings);
+	}
+
+	/**
+	 * Retrieves the bookings of one room, or of all rooms, between two dates as
+	 * newline-delimited JSON. Bookings are written as they are read from the
+	 * database, so memory use does not depend on the size of the range.
+	 *
+	 * @param room the name or identifier of the meeting room; all rooms if absent.
+	 * @param from the first date to include (in ISO-8601 format).
+	 * @param to   the last date to include (in ISO-8601 format).
+	 * @return one JSON booking per line, ordered by date, start time and room.
+	 */
+	@Operation(summary = "Retrieve bookings in a date range", description = "Stream all bookings between two dates, for one meeting room or for all rooms when room is omitted, as newline-delimited JSON ordered by date, start time and room.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Bookings streamed successfully", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Booking.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid input parameters", content = @Content(mediaType = "application/json")) })
+	@GetMapping("/range")
+	public ResponseEntity<StreamingResponseBody> findBookingsInRange(@RequestParam(required = false) String room,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		Map<String, String> errors = bookingValidator.validateDateRange(room, from, to);
+		if (errors != null) {
+			// The return type must name StreamingResponseBody, so errors are written the same way
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+					.body(out -> objectMapper.writeValue(out, errors));
+		}
+		StreamingResponseBody body = out -> {
+			JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+			generator.setRootValueSeparator(null);
+			try {
+				bookingService.streamBookings(room, from, to, booking -> {
+					try {
+						generator.writeObject(booking);
+						generator.writeRaw('\n');
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			generator.flush();
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+	/**
+	 * Lists all bookings dated on or after a date, one page at a time.
+	 *
+	 * @param from   the first date to include; defaults to today.
+	 * @param cursor the cursor returned with the previous page; absent for the
+	 *               first page.
+	 * @param size   the maximum number of bookings per page.
+	 * @return the page and the cursor of the next page, if any.
+	 */
+	@Operation(summary = "List bookings page by page", description = "List all bookings dated on or after a date, ordered by date, start time and room. Pass the nextCursor of a page to get the next one; the last page has no nextCursor.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Page retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookingPage.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid page size or cursor", content = @Content(mediaType = "application/json")) })
+	@GetMapping("/all")
+	public ResponseEntity<?> findBookings(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+		Map<String, String> errors = bookingValidator.validatePageSize(size, maxPageSize);
+		if (errors != null) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+		}
+		try {
+			return ResponseEntity.ok(bookingService.findBookings(from != null ? from : LocalDate.now(), cursor, size));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+		}
+	}
+
+	/**
+	 * Lists the upcoming bookings of an employee, one page at a time.
+	 *
+	 * @param employeeEmail the email of the employee.
+	 * @param cursor        the cursor returned with the previous page; absent for
+	 *                      the first page.
+	 * @param size          the maximum number of bookings per page.
+	 * @return the page and the cursor of the next page, if any.
+	 */
+	@Operation(summary = "List an employee's upcoming bookings", description = "List the bookings of an employee dated today or later, ordered by date and start time. Pass the nextCursor of a page to get the next one; the last page has no nextCursor.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Page retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookingPage.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid employee email, page size or cursor", content = @Content(mediaType = "application/json")) })
+	@GetMapping("/employee")
+	public ResponseEntity<?> findUpcomingBookingsByEmployee(@RequestParam String employeeEmail,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+		Map<String, String> errors = bookingValidator.validatePageSize(size, maxPageSize);
+		if (errors != null) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+		}
+		if (employeeEmail.isBlank()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Employee email is empty"));
+		}
+		try {
+			return ResponseEntity.ok(bookingService.findUpcomingBookingsByEmployee(employeeEmail, cursor, size));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+		}
+	}
+
+	/**
+	 * Opens a server-sent event stream of changes to the schedule of a meeting
+	 * room on a given date. Each committed create or cancel is sent as a
+	 * {@code created} or {@code cancelled} event carrying the booking.
+	 *
+	 * @param room the name or identifier of the meeting room.
+	 * @param date the date of the schedule (in ISO-8601 format).
+	 * @param request the current request.
+	 * @return the event stream, or a redirect to the owner of the room in a
+	 *         cluster.
+	 */
+	@Operation(summary = "Stream schedule changes", description = "Subscribe to created/cancelled events for a specific meeting room on a given date as server-sent events. Clients that fall behind are disconnected and should reconnect and re-read the schedule.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Event stream opened", content = @Content(mediaType = "text/event-stream")),
+			@ApiResponse(responseCode = "307", description = "The room is owned by another instance, subscribe there", content = @Content),
+			@ApiResponse(responseCode = "400", description = "Invalid input parameters", content = @Content) })
+	@GetMapping("/stream")
+	public ResponseEntity<SseEmitter> streamBookingChanges(@RequestParam String room,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, HttpServletRequest request) {
+		if (bookingValidator.validateRoomAndDate(room, date) != null) {
+			return ResponseEntity.badRequest().build();
+		}
+		// A stream cannot be relayed, so send the client to the instance publishing the changes
+		Optional<URI> owner = roomRouter.redirect(room, request);
+		if (owner.isPresent()) {
+			return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT).location(owner.get()).build();
+		}
+		return ResponseEntity.ok(streamRegistry.subscribe(new RoomDate(room, date)));
 	}
 
 	/**
 	 * Creates a new booking for a meeting room with conflict detection.
 	 *
 	 * @param booking the booking object.
+	 * @param request the current request.
 	 * @return the created booking.
 	 * @throws IllegalArgumentException if the input parameters are invalid.
 	 * @throws IllegalStateException    if the room is already booked for the
@@ -90,11 +312,19 @@ public class BookingController {
 			@ApiResponse(responseCode = "400", description = "Invalid input parameters", content = @Content(mediaType = "application/json")),
 			@ApiResponse(responseCode = "409", description = "Conflict: Room already booked for the specified time range", content = @Content(mediaType = "application/json")) })
 	@PostMapping
-	public ResponseEntity<?> createBooking(@RequestBody Booking booking, BindingResult bindingResult) {
+	public ResponseEntity<?> createBooking(@RequestBody Booking booking, BindingResult bindingResult,
+			HttpServletRequest request) {
 		Map<String, String> errors = bookingValidator.validateBooking(booking);
 		if (errors.size() > 0) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
 		}
+		// Admission for a room is only serialized on its owner
+		Optional<ResponseEntity<byte[]>> forwarded = roomRouter.forward(booking.getRoom(), request, booking);
+		if (forwarded.isPresent()) {
+			return forwarded.get();
+		}
+		// Created outside the booking transaction, which would hold a connection meanwhile
+		roomCatalog.prepare(booking.getRoom());
 		try {
 			Booking bookingToCreate = bookingService.createBooking(booking.getRoom(), booking.getEmployeeEmail(),
 					booking.getDate(), booking.getTimeFrom(), booking.getTimeTo());
@@ -110,22 +340,132 @@ public class BookingController {
 		}
 	}
 
+	/**
+	 * Accepts a booking without waiting for it to be stored. The conflict check
+	 * is the same as for {@link #createBooking}; the booking is inserted shortly
+	 * after the response, together with other accepted bookings.
+	 *
+	 * @param booking the booking details.
+	 * @param request the current request.
+	 * @return the accepted booking with its id.
+	 */
+	@Operation(summary = "Create a booking asynchronously", description = "Create a booking without waiting for the database insert. The booking is checked for conflicts like a regular booking and returned with its id; it is stored shortly afterwards and then shows up in the schedule. Meant for high-volume import clients.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "202", description = "Booking accepted", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Booking.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid input parameters", content = @Content(mediaType = "application/json")),
+			@ApiResponse(responseCode = "409", description = "Conflict: Room already booked for the specified time range", content = @Content(mediaType = "application/json")),
+			@ApiResponse(responseCode = "503", description = "Too many bookings waiting to be stored, retry later", content = @Content(mediaType = "application/json")) })
+	@PostMapping("/async")
+	public ResponseEntity<?> submitBooking(@RequestBody Booking booking, HttpServletRequest request) {
+		Map<String, String> errors = bookingValidator.validateBooking(booking);
+		if (errors.size() > 0) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+		}
+		Optional<ResponseEntity<byte[]>> forwarded = roomRouter.forward(booking.getRoom(), request, booking);
+		if (forwarded.isPresent()) {
+			return forwarded.get();
+		}
+		roomCatalog.prepare(booking.getRoom());
+		try {
+			return ResponseEntity.status(HttpStatus.ACCEPTED).body(bookingService.submitBooking(booking.getRoom(),
+					booking.getEmployeeEmail(), booking.getDate(), booking.getTimeFrom(), booking.getTimeTo()));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT)
+					.body(new ErrorResponse(HttpStatus.CONFLICT.value(), e.getMessage()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+		} catch (RejectedExecutionException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+					.body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage()));
+		}
+	}
+
+	/**
+	 * Creates many bookings in one transaction. Each item is validated and
+	 * checked for conflicts individually; rejected items are reported without
+	 * failing the rest of the batch. In a cluster the items are split by the
+	 * owner of their room, and each owner stores its share in its own
+	 * transaction.
+	 *
+	 * @param bookings the bookings to create.
+	 * @param request  the current request.
+	 * @return one result per submitted booking, in request order.
+	 */
+	@Operation(summary = "Create bookings in bulk", description = "Create many bookings in a single transaction. Every item is validated and checked for conflicts against stored bookings and earlier items of the batch, and reported as CREATED, CONFLICT or INVALID.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookingBatchResult.class))),
+			@ApiResponse(responseCode = "400", description = "Empty, oversized or malformed batch", content = @Content(mediaType = "application/json")) })
+	@PostMapping("/batch")
+	public ResponseEntity<?> createBookings(@RequestBody List<Booking> bookings, HttpServletRequest request) {
+		if (bookings.isEmpty() || bookings.size() > maxBatchSize || bookings.contains(null)) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+					"Batch must contain between 1 and " + maxBatchSize + " bookings."));
+		}
+		if (roomRouter.isEntryPoint(request)) {
+			return ResponseEntity.ok(createBookingsByOwner(bookings, request));
+		}
+		bookings.forEach(booking -> roomRouter.requireOwner(booking.getRoom()));
+		bookings.forEach(booking -> roomCatalog.prepare(booking.getRoom()));
+		return ResponseEntity.ok(bookingService.createBookings(bookings));
+	}
+
+	/**
+	 * Sends every owner the items of its rooms and puts the results back in
+	 * request order. Items without a room are invalid and are checked here.
+	 */
+	private List<BookingBatchResult> createBookingsByOwner(List<Booking> bookings, HttpServletRequest request) {
+		Map<String, List<Integer>> indexesByOwner = new LinkedHashMap<>();
+		for (int i = 0; i < bookings.size(); i++) {
+			String room = bookings.get(i).getRoom();
+			String owner = room != null ? ownership.ownerOf(room) : ownership.self();
+			indexesByOwner.computeIfAbsent(owner, key -> new ArrayList<>()).add(i);
+		}
+		BookingBatchResult[] results = new BookingBatchResult[bookings.size()];
+		indexesByOwner.forEach((owner, indexes) -> {
+			List<Booking> share = indexes.stream().map(bookings::get).toList();
+			List<BookingBatchResult> shareResults;
+			if (owner.equals(ownership.self())) {
+				share.forEach(booking -> roomCatalog.prepare(booking.getRoom()));
+				shareResults = bookingService.createBookings(share);
+			} else {
+				shareResults = roomRouter.fetch(owner, request, share, BATCH_RESULTS);
+			}
+			for (BookingBatchResult result : shareResults) {
+				int index = indexes.get(result.getIndex());
+				result.setIndex(index);
+				results[index] = result;
+			}
+		});
+		return List.of(results);
+	}
+
 	/**
 	 * Cancels an existing booking by its unique identifier.
 	 *
 	 * @param bookingId the ID of the booking to cancel.
+	 * @param request   the current request.
 	 * @return a response indicating success or failure.
 	 * @throws SQLException
 	 * @throws IllegalStateException    if the booking is in the past.
+	 * @throws BookingConflictException if the booking is upcoming but could not
+	 *                                  be deleted.
 	 * @throws BookingNotFoundException if no booking exists with the specified ID.
 	 */
 	@Operation(summary = "Cancel a booking", description = "Cancel a booking using its unique identifier. This operation only allows canceling future bookings.")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "204", description = "Booking canceled successfully", content = @Content),
 			@ApiResponse(responseCode = "400", description = "Invalid operation: Cannot cancel past bookings", content = @Content(mediaType = "application/json")),
-			@ApiResponse(responseCode = "404", description = "Booking not found", content = @Content(mediaType = "application/json")) })
+			@ApiResponse(responseCode = "404", description = "Booking not found", content = @Content(mediaType = "application/json")),
+			@ApiResponse(responseCode = "409", description = "Booking could not be cancelled, retry later", content = @Content(mediaType = "application/json")) })
 	@DeleteMapping("/{id}")
-	public ResponseEntity<?> cancelBooking(@PathVariable Long id) throws SQLException {
+	public ResponseEntity<?> cancelBooking(@PathVariable Long id, HttpServletRequest request) throws SQLException {
+		// The owner of the room has to see the cancellation to free the slot in its index
+		Optional<ResponseEntity<byte[]>> forwarded = roomRouter
+				.forward(() -> bookingService.findBooking(id).map(Booking::getRoom).orElse(null), request, null);
+		if (forwarded.isPresent()) {
+			return forwarded.get();
+		}
 		try {
 			bookingService.cancelBooking(id);
 			return ResponseEntity.noContent().build(); // 204 No Content
@@ -135,7 +475,85 @@ public class BookingController {
 		} catch (BookingNotFoundException ex) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND)
 					.body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage()));
+		} catch (BookingConflictException ex) {
+			return ResponseEntity.status(HttpStatus.CONFLICT)
+					.body(new ErrorResponse(HttpStatus.CONFLICT.value(), ex.getMessage()));
+		}
+	}
+
+	/**
+	 * Cancels upcoming bookings in bulk, selected by ids, by employee, or by room
+	 * and date range. Exactly one selector must be given. In a cluster every
+	 * member cancels the bookings of its own rooms; members that cannot be
+	 * reached are listed with the count of the others, since the bookings
+	 * cancelled so far stay cancelled.
+	 *
+	 * @param ids           the ids of the bookings to cancel.
+	 * @param employeeEmail the email of the employee whose bookings to cancel.
+	 * @param room          the room whose bookings to cancel, with from and to.
+	 * @param from          the first date to cancel in the room.
+	 * @param to            the last date to cancel in the room.
+	 * @param request       the current request.
+	 * @return the number of canceled bookings, and the members that could not
+	 *         cancel theirs if any.
+	 */
+	@Operation(summary = "Cancel bookings in bulk", description = "Cancel the upcoming bookings among a list of ids, all upcoming bookings of an employee, or the bookings of a room between two dates. Give exactly one of ids, employeeEmail or room (with from and to). Past bookings are left alone; the response tells how many bookings were canceled. If some instances of the service could not be reached, the response is 207 and lists them under unavailable; repeating the request cancels the rest.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Bookings canceled, see the count", content = @Content(mediaType = "application/json")),
+			@ApiResponse(responseCode = "207", description = "Bookings canceled on some instances only, see the count and the unavailable instances", content = @Content(mediaType = "application/json")),
+			@ApiResponse(responseCode = "400", description = "Missing, conflicting or invalid selectors", content = @Content(mediaType = "application/json")) })
+	@DeleteMapping
+	public ResponseEntity<?> cancelBookings(@RequestParam(required = false) List<Long> ids,
+			@RequestParam(required = false) String employeeEmail, @RequestParam(required = false) String room,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			HttpServletRequest request) {
+		int selectors = (ids != null ? 1 : 0) + (employeeEmail != null ? 1 : 0) + (room != null ? 1 : 0);
+		if (selectors != 1) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+					"Give exactly one of ids, employeeEmail or room."));
+		}
+		if (ids != null && (ids.isEmpty() || ids.size() > maxBatchSize || ids.contains(null))) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+					"Ids must contain between 1 and " + maxBatchSize + " ids."));
+		}
+		if (employeeEmail != null && employeeEmail.isBlank()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Employee email is empty"));
+		}
+		if (room != null) {
+			if (from == null || to == null) {
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
+						new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Room requires both from and to."));
+			}
+			Map<String, String> errors = bookingValidator.validateDateRange(room, from, to);
+			if (errors != null) {
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+			}
+			Optional<ResponseEntity<byte[]>> forwarded = roomRouter.forward(room, request, null);
+			if (forwarded.isPresent()) {
+				return forwarded.get();
+			}
+			return ResponseEntity.ok(Map.of("cancelled", bookingService.cancelBookingsByRoom(room, from, to)));
+		}
+		int cancelled = ids != null ? bookingService.cancelBookings(ids)
+				: bookingService.cancelBookingsByEmployee(employeeEmail);
+		List<String> unavailable = new ArrayList<>();
+		if (roomRouter.isEntryPoint(request)) {
+			// Every member cancels the bookings of its own rooms
+			for (String peer : ownership.peers()) {
+				try {
+					cancelled += roomRouter.fetch(peer, request, null, CANCELLED).get("cancelled");
+				} catch (RestClientException e) {
+					unavailable.add(peer);
+				}
+			}
+		}
+		if (!unavailable.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.MULTI_STATUS)
+					.body(Map.of("cancelled", cancelled, "unavailable", unavailable));
 		}
+		return ResponseEntity.ok(Map.of("cancelled", cancelled));
 	}
 
 }
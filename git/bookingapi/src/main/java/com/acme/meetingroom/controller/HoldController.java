@@ -0,0 +1,152 @@
+package com.acme.meetingroom.controller;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.acme.meetingroom.dto.BookingHold;
+import com.acme.meetingroom.dto.ErrorResponse;
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.exception.HoldNotFoundException;
+import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.RoomCatalog;
+import com.acme.meetingroom.utils.BookingValidator;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * REST controller for short-lived holds on meeting rooms. A client holds a
+ * slot while it gathers the rest of a booking and confirms the hold to book
+ * it. Delegates to the {@link BookingService}. In a cluster a hold lives on
+ * the owner of its room; a token unknown here is looked up on the peers.
+ */
+@RestController
+@RequestMapping("/api/holds")
+public class HoldController {
+
+	private final BookingService bookingService;
+
+	private final BookingValidator bookingValidator;
+
+	private final RoomRouter roomRouter;
+
+	private final RoomCatalog roomCatalog;
+
+	/**
+	 * Constructs a new instance of {@link HoldController}.
+	 *
+	 * @param bookingService   the service used to manage holds.
+	 * @param bookingValidator the validator of requested holds.
+	 * @param roomRouter       the router to the owners of rooms.
+	 * @param roomCatalog      the catalog creating rooms on their first booking.
+	 */
+	public HoldController(BookingService bookingService, BookingValidator bookingValidator,
+			RoomRouter roomRouter, RoomCatalog roomCatalog) {
+		this.bookingService = bookingService;
+		this.bookingValidator = bookingValidator;
+		this.roomRouter = roomRouter;
+		this.roomCatalog = roomCatalog;
+	}
+
+	/**
+	 * Holds a room for a time range until the hold is confirmed, released or
+	 * expires.
+	 *
+	 * @param booking the room, employee, date and time range to hold.
+	 * @param request the current request.
+	 * @return the hold with its token and expiry.
+	 */
+	@Operation(summary = "Hold a room", description = "Hold a room for a time range without booking it yet. Nobody else can book or hold an overlapping range until the hold is confirmed, released or expires.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "201", description = "Hold placed successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BookingHold.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content(mediaType = "application/json")),
+			@ApiResponse(responseCode = "409", description = "Conflict: the room is already booked or held for the given time range", content = @Content(mediaType = "application/json")),
+			@ApiResponse(responseCode = "429", description = "The employee or all employees together hold the maximum number of rooms", content = @Content(mediaType = "application/json")) })
+	@PostMapping
+	public ResponseEntity<?> placeHold(@RequestBody Booking booking, HttpServletRequest request) {
+		Map<String, String> errors = bookingValidator.validateBooking(booking);
+		if (errors.size() > 0) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+		}
+		Optional<ResponseEntity<byte[]>> forwarded = roomRouter.forward(booking.getRoom(), request, booking);
+		if (forwarded.isPresent()) {
+			return forwarded.get();
+		}
+		// Created now, as confirming the hold books the room in a transaction
+		roomCatalog.prepare(booking.getRoom());
+		try {
+			return ResponseEntity.status(HttpStatus.CREATED).body(bookingService.placeHold(booking.getRoom(),
+					booking.getEmployeeEmail(), booking.getDate(), booking.getTimeFrom(), booking.getTimeTo()));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT)
+					.body(new ErrorResponse(HttpStatus.CONFLICT.value(), e.getMessage()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+		}
+	}
+
+	/**
+	 * Books the slot of a live hold.
+	 *
+	 * @param token   the token of the hold.
+	 * @param request the current request.
+	 * @return the created booking.
+	 */
+	@Operation(summary = "Confirm a hold", description = "Turn a live hold into a booking.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "201", description = "Booking created successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Booking.class))),
+			@ApiResponse(responseCode = "404", description = "Hold not found or expired", content = @Content(mediaType = "application/json")) })
+	@PostMapping("/{token}/confirm")
+	public ResponseEntity<?> confirmHold(@PathVariable String token, HttpServletRequest request) {
+		try {
+			return ResponseEntity.status(HttpStatus.CREATED).body(bookingService.confirmHold(token));
+		} catch (HoldNotFoundException ex) {
+			Optional<ResponseEntity<byte[]>> forwarded = roomRouter.forwardToPeers(request, null);
+			if (forwarded.isPresent()) {
+				return forwarded.get();
+			}
+			return ResponseEntity.status(HttpStatus.NOT_FOUND)
+					.body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage()));
+		}
+	}
+
+	/**
+	 * Releases a live hold before it expires.
+	 *
+	 * @param token   the token of the hold.
+	 * @param request the current request.
+	 * @return a response indicating success or failure.
+	 */
+	@Operation(summary = "Release a hold", description = "Give up a live hold so the slot can be booked by others.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "204", description = "Hold released successfully", content = @Content),
+			@ApiResponse(responseCode = "404", description = "Hold not found or expired", content = @Content(mediaType = "application/json")) })
+	@DeleteMapping("/{token}")
+	public ResponseEntity<?> releaseHold(@PathVariable String token, HttpServletRequest request) {
+		try {
+			bookingService.releaseHold(token);
+			return ResponseEntity.noContent().build();
+		} catch (HoldNotFoundException ex) {
+			Optional<ResponseEntity<byte[]>> forwarded = roomRouter.forwardToPeers(request, null);
+			if (forwarded.isPresent()) {
+				return forwarded.get();
+			}
+			return ResponseEntity.status(HttpStatus.NOT_FOUND)
+					.body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage()));
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.acme.meetingroom.controller;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.acme.meetingroom.exception.PeerAuthenticationException;
+import com.acme.meetingroom.exception.RequestThrottledException;
+import com.acme.meetingroom.utils.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rate limits the booking endpoints per client, with one token bucket budget
+ * for reads (GET and HEAD) and another for writes, so that a client flooding
+ * the service with bookings cannot starve the others of database connections.
+ * Throttled requests fail with a {@link RequestThrottledException}, answered
+ * with 429 and Retry-After, and are counted in {@code booking.throttled}
+ * tagged with the budget.
+ * <p>
+ * A client is named by its address, together with the {@value #CLIENT_HEADER}
+ * header if it names a registered client. Other values of the header are
+ * ignored, as are parameters such as the employee email: a client choosing a
+ * new name for every request would get a fresh budget each time. Requests
+ * forwarded by another member of the cluster were already charged there and
+ * pass, once {@link RoomRouter#isFromPeer} has checked that they are signed by
+ * one; unsigned requests claiming to be forwarded are refused with a
+ * {@link PeerAuthenticationException}.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+	public static final String CLIENT_HEADER = "X-Api-Client";
+
+	private final TokenBucketLimiter reads;
+
+	private final TokenBucketLimiter writes;
+
+	private final Set<String> clients;
+
+	private final RoomRouter roomRouter;
+
+	private final Counter throttledReads;
+
+	private final Counter throttledWrites;
+
+	/**
+	 * Constructs a new instance of {@link RateLimitInterceptor}.
+	 *
+	 * @param reads         the buckets of read requests.
+	 * @param writes        the buckets of write requests.
+	 * @param clients       the names of registered clients.
+	 * @param roomRouter    the router telling requests of peers apart.
+	 * @param meterRegistry the registry for throttled request counts.
+	 */
+	public RateLimitInterceptor(TokenBucketLimiter reads, TokenBucketLimiter writes, Set<String> clients,
+			RoomRouter roomRouter, MeterRegistry meterRegistry) {
+		this.reads = reads;
+		this.writes = writes;
+		this.clients = clients;
+		this.roomRouter = roomRouter;
+		this.throttledReads = throttled(meterRegistry, "read", reads);
+		this.throttledWrites = throttled(meterRegistry, "write", writes);
+	}
+
+	private static Counter throttled(MeterRegistry meterRegistry, String budget, TokenBucketLimiter limiter) {
+		Gauge.builder("booking.throttle.clients", limiter, TokenBucketLimiter::size)
+				.description("Clients with a rate limit bucket of their own").tag("budget", budget)
+				.register(meterRegistry);
+		return Counter.builder("booking.throttled").description("Requests rejected by the rate limit")
+				.tag("budget", budget).register(meterRegistry);
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (roomRouter.isFromPeer(request)) {
+			return true;
+		}
+		boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+		long wait = (read ? reads : writes).tryAcquire(clientOf(request));
+		if (wait > 0) {
+			(read ? throttledReads : throttledWrites).increment();
+			throw new RequestThrottledException("Too many " + (read ? "read" : "write") + " requests, retry later.",
+					Duration.ofNanos(wait));
+		}
+		return true;
+	}
+
+	private String clientOf(HttpServletRequest request) {
+		String client = request.getHeader(CLIENT_HEADER);
+		if (client != null && clients.contains(client)) {
+			// Keyed with the address too, so that nobody else can use up the client's budget
+			return "client:" + client + "@" + request.getRemoteAddr();
+		}
+		return "address:" + request.getRemoteAddr();
+	}
+}
@@ -0,0 +1,193 @@
+package com.acme.meetingroom.controller;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.acme.meetingroom.dto.RoomAvailability;
+import com.acme.meetingroom.entity.Room;
+import com.acme.meetingroom.exception.PeerAuthenticationException;
+import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.RoomCatalog;
+import com.acme.meetingroom.service.RoomOwnership;
+import com.acme.meetingroom.utils.BookingValidator;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * REST controller for questions about meeting rooms across all rooms, such as
+ * which rooms are free. Delegates to the {@link BookingService}. In a cluster
+ * every member answers for the rooms it owns and the answers are merged.
+ * Rooms and their attributes are kept in the {@link RoomCatalog}, in the
+ * database all members share. A room is written by the member that receives
+ * the request, which then tells its peers to reload it; should a peer miss
+ * that, it finds the room at its next periodic reload, within
+ * {@code booking.room-catalog.refresh-interval}.
+ */
+@RestController
+@RequestMapping("/api/rooms")
+public class RoomController {
+
+	private static final ParameterizedTypeReference<List<RoomAvailability>> AVAILABILITY = new ParameterizedTypeReference<>() {
+	};
+
+	private final BookingService bookingService;
+
+	private final BookingValidator bookingValidator;
+
+	private final RoomCatalog roomCatalog;
+
+	private final RoomOwnership ownership;
+
+	private final RoomRouter roomRouter;
+
+	/**
+	 * Constructs a new instance of {@link RoomController}.
+	 *
+	 * @param bookingService   the service used to look up availability.
+	 * @param bookingValidator the validator of query parameters.
+	 * @param roomCatalog      the catalog of rooms and their attributes.
+	 * @param ownership        the assignment of rooms to cluster members.
+	 * @param roomRouter       the router to the other members.
+	 */
+	public RoomController(BookingService bookingService, BookingValidator bookingValidator,
+			RoomCatalog roomCatalog, RoomOwnership ownership, RoomRouter roomRouter) {
+		this.bookingService = bookingService;
+		this.bookingValidator = bookingValidator;
+		this.roomCatalog = roomCatalog;
+		this.ownership = ownership;
+		this.roomRouter = roomRouter;
+	}
+
+	/**
+	 * Finds the meeting rooms that are free inside a time window on a given date.
+	 *
+	 * @param date        the date to search (in ISO-8601 format, e.g.,
+	 *                    "2024-11-29").
+	 * @param from        the start of the window (inclusive, e.g., "14:00").
+	 * @param to          the end of the window (exclusive, e.g., "15:00").
+	 * @param minDuration the minimum free stretch in minutes; defaults to the
+	 *                    whole window.
+	 * @param request     the current request.
+	 * @return the available rooms with their first free stretch in the window.
+	 */
+	@Operation(summary = "Find available rooms", description = "Find every meeting room with a free stretch of at least minDuration minutes between from and to on a given date. Without minDuration the room must be free for the whole window.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Available rooms retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = RoomAvailability.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid input parameters", content = @Content(mediaType = "application/json")) })
+	@GetMapping("/available")
+	public ResponseEntity<?> findAvailableRooms(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime to,
+			@RequestParam(required = false) Integer minDuration, HttpServletRequest request) {
+		int duration = minDuration != null ? minDuration : (int) from.until(to, MINUTES);
+		Map<String, String> errors = bookingValidator.validateAvailabilityQuery(date, from, to, duration);
+		if (errors != null) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+		}
+		List<RoomAvailability> rooms = bookingService.findAvailableRooms(date, from, to, duration);
+		if (ownership.isClustered()) {
+			// The index of a member is only kept current for the rooms it owns
+			rooms = new ArrayList<>(rooms.stream().filter(room -> ownership.isLocal(room.getRoom())).toList());
+			if (roomRouter.isEntryPoint(request)) {
+				for (String peer : ownership.peers()) {
+					rooms.addAll(roomRouter.fetch(peer, request, null, AVAILABILITY));
+				}
+				rooms.sort(Comparator.comparing(RoomAvailability::getRoom));
+			}
+		}
+		return ResponseEntity.ok(rooms);
+	}
+
+	/**
+	 * Finds the meeting rooms with a minimum capacity and a set of equipment.
+	 *
+	 * @param minCapacity the minimum number of seats; rooms of unknown capacity
+	 *                    only match without it.
+	 * @param equipment   the equipment every room must have, e.g.,
+	 *                    "projector,whiteboard".
+	 * @return the matching rooms, in name order.
+	 */
+	@Operation(summary = "Find rooms", description = "List the meeting rooms that seat at least minCapacity people and have every piece of equipment listed, in any case. Without parameters every room is listed.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Rooms retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Room.class))) })
+	@GetMapping
+	public ResponseEntity<List<Room>> findRooms(@RequestParam(required = false) Integer minCapacity,
+			@RequestParam(required = false) Set<String> equipment) {
+		return ResponseEntity.ok(roomCatalog.find(minCapacity, equipment != null ? equipment : Set.of()));
+	}
+
+	/**
+	 * Creates a meeting room or replaces its attributes. In a cluster the room
+	 * is written once, and every peer is told to reload it so that all of them
+	 * find the room by its new attributes.
+	 *
+	 * @param name    the name of the room.
+	 * @param room    the capacity, floor and equipment of the room.
+	 * @param request the current request.
+	 * @return the stored room.
+	 */
+	@Operation(summary = "Create or update a room", description = "Create a meeting room, or replace the capacity, floor and equipment of an existing one. Rooms have to be created this way before they can be booked when booking.room-catalog.auto-create is false.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Room stored successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Room.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid room attributes", content = @Content(mediaType = "application/json")) })
+	@PutMapping("/{name}")
+	public ResponseEntity<?> saveRoom(@PathVariable String name, @RequestBody Room room, HttpServletRequest request) {
+		Map<String, String> errors = bookingValidator.validateRoom(name, room);
+		if (errors != null) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+		}
+		Room saved = roomCatalog.save(name, room);
+		if (roomRouter.isEntryPoint(request)) {
+			roomRouter.notifyPeers(request.getRequestURI() + "/refresh");
+		}
+		return ResponseEntity.ok(saved);
+	}
+
+	/**
+	 * Reloads a meeting room from the database, when told by the peer that
+	 * stored it.
+	 *
+	 * @param name    the name of the room.
+	 * @param request the current request.
+	 * @return an empty response.
+	 * @throws PeerAuthenticationException if the request does not come from a
+	 *                                     peer.
+	 */
+	@Operation(summary = "Reload a room", description = "Reload a meeting room stored by another member of the cluster. Only accepted from members.")
+	@ApiResponses(value = { @ApiResponse(responseCode = "204", description = "Room reloaded"),
+			@ApiResponse(responseCode = "403", description = "Not sent by a member of the cluster", content = @Content(mediaType = "application/json")) })
+	@PostMapping("/{name}/refresh")
+	public ResponseEntity<Void> refreshRoom(@PathVariable String name, HttpServletRequest request) {
+		if (!roomRouter.isFromPeer(request)) {
+			throw new PeerAuthenticationException("Rooms are only reloaded on request of a cluster member.");
+		}
+		roomCatalog.refresh(name);
+		return ResponseEntity.noContent().build();
+	}
+}
@@ -0,0 +1,452 @@
+package com.acme.meetingroom.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.acme.meetingroom.exception.MisdirectedRequestException;
+import com.acme.meetingroom.exception.PeerAuthenticationException;
+import com.acme.meetingroom.service.RoomOwnership;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Forwards requests about a room to the cluster member owning it, as decided
+ * by {@link RoomOwnership}. Controllers ask the router first and handle the
+ * request themselves when it returns nothing: when the instance runs alone,
+ * owns the room, or the request was already forwarded by a peer. Forwarded
+ * requests carry the {@value #FORWARDED_HEADER} header, so a member never
+ * forwards a request twice.
+ * <p>
+ * Members trust each other only with proof: a forwarded request is signed
+ * with an HMAC of its method, URL, sender, time, request id and a SHA-256
+ * digest of its body under the shared {@code booking.cluster.secret}, and a
+ * request with the header but without a valid recent signature from a listed
+ * peer is refused with 403, as is a second request with the same id, so that a
+ * captured request can neither be given another body nor be replayed. The
+ * {@link ForwardedRequestFilter} keeps the body of such requests for the check.
+ * A peer that
+ * forwards a request about a room this instance does not own, because members
+ * disagree about ownership, is answered with 421 instead of the request being
+ * handled here, so that only the owner ever changes the schedule of a room.
+ * <p>
+ * The owner's response is passed back unchanged, whatever its status. A member
+ * that cannot be reached, or fails a request whose result this instance needs
+ * itself, surfaces as a {@link RestClientException}. Forwarded
+ * requests are timed in the {@code booking.cluster.forward} timer tagged with
+ * the member.
+ */
+@Component
+public class RoomRouter {
+	private static final Logger logger = LoggerFactory.getLogger(RoomRouter.class);
+
+	/**
+	 * Header marking a request forwarded by a peer, carrying the peer's URL.
+	 */
+	public static final String FORWARDED_HEADER = "X-Booking-Forwarded-By";
+
+	/**
+	 * Header carrying the time a request was forwarded, in epoch milliseconds.
+	 */
+	public static final String FORWARDED_AT_HEADER = "X-Booking-Forwarded-At";
+
+	/**
+	 * Header carrying the signature of a forwarded request.
+	 */
+	public static final String SIGNATURE_HEADER = "X-Booking-Signature";
+
+	/**
+	 * Header carrying the unique id of a forwarded request.
+	 */
+	public static final String REQUEST_ID_HEADER = "X-Booking-Request-Id";
+
+	/**
+	 * Request attribute holding the body of a forwarded request.
+	 */
+	public static final String BODY_ATTRIBUTE = RoomRouter.class.getName() + ".body";
+
+	/**
+	 * Request attribute marking a forwarded request whose signature was checked.
+	 */
+	private static final String VERIFIED_ATTRIBUTE = RoomRouter.class.getName() + ".verified";
+
+	private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	/**
+	 * How far the clocks of members may drift apart, and how long a captured
+	 * forwarded request can be replayed.
+	 */
+	private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(1);
+
+	private static final List<String> REQUEST_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT,
+			HttpHeaders.IF_NONE_MATCH);
+
+	private static final List<String> RESPONSE_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+			HttpHeaders.RETRY_AFTER, HttpHeaders.LOCATION);
+
+	private final RoomOwnership ownership;
+
+	private final SecretKeySpec key;
+
+	private final Cache<String, Boolean> seen;
+
+	private final RestTemplate restTemplate;
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Constructs a new instance of {@link RoomRouter}.
+	 *
+	 * @param ownership      the assignment of rooms to members.
+	 * @param secret         the secret shared by all members to sign forwarded
+	 *                       requests.
+	 * @param builder        the builder of the client used to forward requests.
+	 * @param connectTimeout how long to wait for a connection to a member.
+	 * @param readTimeout    how long to wait for a member's response.
+	 * @param meterRegistry  the registry for forwarding metrics.
+	 * @throws IllegalStateException if the instance is clustered without a
+	 *                               secret.
+	 */
+	public RoomRouter(RoomOwnership ownership, @Value("${booking.cluster.secret:}") String secret,
+			RestTemplateBuilder builder, @Value("${booking.cluster.connect-timeout:PT1S}") Duration connectTimeout,
+			@Value("${booking.cluster.read-timeout:PT10S}") Duration readTimeout, MeterRegistry meterRegistry) {
+		if (ownership.isClustered() && secret.isBlank()) {
+			throw new IllegalStateException("booking.cluster.secret must be set when booking.cluster.members is");
+		}
+		this.ownership = ownership;
+		this.key = secret.isBlank() ? null
+				: new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM);
+		// Ids are remembered as long as their requests are accepted, on either side of now
+		this.seen = Caffeine.newBuilder().expireAfterWrite(MAX_CLOCK_SKEW.multipliedBy(2)).build();
+		this.restTemplate = builder.connectTimeout(connectTimeout).readTimeout(readTimeout)
+				.additionalInterceptors(this::sign)
+				.errorHandler(new DefaultResponseErrorHandler() {
+					@Override
+					public boolean hasError(ClientHttpResponse response) throws IOException {
+						// Statuses are passed through to the client, not raised
+						return false;
+					}
+				}).build();
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Tells whether the request has to be spread over the cluster by this
+	 * instance: it is clustered and the request does not come from a peer.
+	 *
+	 * @param request the current request.
+	 * @return true if this instance is the entry point of a clustered request.
+	 * @throws PeerAuthenticationException if the request claims to come from a
+	 *                                     peer but is not signed by one.
+	 */
+	public boolean isEntryPoint(HttpServletRequest request) {
+		return ownership.isClustered() && !isFromPeer(request);
+	}
+
+	/**
+	 * Tells whether the request was forwarded by a peer, checking that it is
+	 * signed by a listed peer within the allowed clock skew and was not received
+	 * before.
+	 *
+	 * @param request the current request.
+	 * @return true if the request comes from a peer, false if it has no
+	 *         {@value #FORWARDED_HEADER} header or the instance runs alone.
+	 * @throws PeerAuthenticationException if the request claims to come from a
+	 *                                     peer but is not signed by one.
+	 */
+	public boolean isFromPeer(HttpServletRequest request) {
+		String peer = request.getHeader(FORWARDED_HEADER);
+		if (!ownership.isClustered() || peer == null) {
+			return false;
+		}
+		if (request.getAttribute(VERIFIED_ATTRIBUTE) != null) {
+			return true;
+		}
+		if (!ownership.peers().contains(peer)) {
+			throw new PeerAuthenticationException("Request forwarded by an unknown member.");
+		}
+		long sentAt;
+		try {
+			sentAt = Long.parseLong(request.getHeader(FORWARDED_AT_HEADER));
+		} catch (NumberFormatException e) {
+			throw new PeerAuthenticationException("Forwarded request without a valid time.");
+		}
+		if (Math.abs(System.currentTimeMillis() - sentAt) > MAX_CLOCK_SKEW.toMillis()) {
+			throw new PeerAuthenticationException("Forwarded request is too old.");
+		}
+		String requestId = request.getHeader(REQUEST_ID_HEADER);
+		if (requestId == null || requestId.isBlank()) {
+			throw new PeerAuthenticationException("Forwarded request without an id.");
+		}
+		byte[] body = (byte[]) request.getAttribute(BODY_ATTRIBUTE);
+		String signature = request.getHeader(SIGNATURE_HEADER);
+		byte[] expected = sign(request.getMethod(), pathOf(request), peer, sentAt, requestId,
+				body != null ? body : new byte[0]).getBytes(StandardCharsets.US_ASCII);
+		if (signature == null || !MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII))) {
+			throw new PeerAuthenticationException("Forwarded request has an invalid signature.");
+		}
+		if (seen.asMap().putIfAbsent(peer + " " + requestId, Boolean.TRUE) != null) {
+			throw new PeerAuthenticationException("Forwarded request was already received.");
+		}
+		request.setAttribute(VERIFIED_ATTRIBUTE, Boolean.TRUE);
+		return true;
+	}
+
+	/**
+	 * Rejects a request about a room this instance does not own. Requests
+	 * reaching this instance from a client are forwarded instead, so this only
+	 * fails for requests forwarded by a peer that disagrees about ownership.
+	 *
+	 * @param room the room the request is about; may be null.
+	 * @throws MisdirectedRequestException if another member owns the room.
+	 */
+	public void requireOwner(String room) {
+		if (room != null && !ownership.isLocal(room)) {
+			throw new MisdirectedRequestException(
+					"Room " + room + " is owned by " + ownership.ownerOf(room) + ", not by " + ownership.self() + ".");
+		}
+	}
+
+	/**
+	 * Forwards the request to the owner of a room unless it is handled here.
+	 *
+	 * @param room    the room the request is about; may be null.
+	 * @param request the current request.
+	 * @param body    the request body to send, or null.
+	 * @return the owner's response, or empty to handle the request locally.
+	 */
+	public Optional<ResponseEntity<byte[]>> forward(String room, HttpServletRequest request, Object body) {
+		return forward(() -> room, request, body);
+	}
+
+	/**
+	 * Forwards the request to the owner of a room unless it is handled here. The
+	 * room is only looked up when the request might have to be forwarded.
+	 *
+	 * @param room    supplies the room the request is about, or null if unknown.
+	 * @param request the current request.
+	 * @param body    the request body to send, or null.
+	 * @return the owner's response, or empty to handle the request locally.
+	 * @throws MisdirectedRequestException if a peer forwarded the request but
+	 *                                     another member owns the room.
+	 */
+	public Optional<ResponseEntity<byte[]>> forward(Supplier<String> room, HttpServletRequest request,
+			Object body) {
+		if (!isEntryPoint(request)) {
+			if (ownership.isClustered()) {
+				requireOwner(room.get());
+			}
+			return Optional.empty();
+		}
+		String name = room.get();
+		if (name == null || ownership.isLocal(name)) {
+			return Optional.empty();
+		}
+		return Optional.of(exchange(ownership.ownerOf(name), request, body));
+	}
+
+	/**
+	 * Returns the URL of the request at the owner of a room, for requests that
+	 * cannot be relayed, such as event streams.
+	 *
+	 * @param room    the room the request is about.
+	 * @param request the current request.
+	 * @return the URL at the owner, or empty to handle the request locally.
+	 */
+	public Optional<URI> redirect(String room, HttpServletRequest request) {
+		if (!isEntryPoint(request) || ownership.isLocal(room)) {
+			return Optional.empty();
+		}
+		return Optional.of(urlAt(ownership.ownerOf(room), request));
+	}
+
+	/**
+	 * Sends the request to every peer in turn until one answers with another
+	 * status than 404, for requests that name no room.
+	 *
+	 * @param request the current request.
+	 * @param body    the request body to send, or null.
+	 * @return the first such response, or empty if no peer knows the request.
+	 */
+	public Optional<ResponseEntity<byte[]>> forwardToPeers(HttpServletRequest request, Object body) {
+		if (!isEntryPoint(request)) {
+			return Optional.empty();
+		}
+		for (String peer : ownership.peers()) {
+			ResponseEntity<byte[]> response = exchange(peer, request, body);
+			if (response.getStatusCode() != HttpStatus.NOT_FOUND) {
+				return Optional.of(response);
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Posts an empty request to a path of every peer, telling them about a
+	 * change they would otherwise only pick up later. Peers that cannot be
+	 * reached or refuse the request are logged and skipped.
+	 *
+	 * @param path the path to post to, already encoded.
+	 */
+	public void notifyPeers(String path) {
+		for (String peer : ownership.peers()) {
+			long start = System.nanoTime();
+			try {
+				ResponseEntity<Void> response = restTemplate.exchange(URI.create(peer + path), HttpMethod.POST,
+						HttpEntity.EMPTY, Void.class);
+				if (!response.getStatusCode().is2xxSuccessful()) {
+					logger.warn("Member {} answered {} to {}", peer, response.getStatusCode(), path);
+				}
+			} catch (RestClientException e) {
+				logger.warn("Member {} could not be told about {}", peer, path, e);
+			} finally {
+				record(peer, start);
+			}
+		}
+	}
+
+	/**
+	 * Sends the request to one member and returns its response.
+	 *
+	 * @param member  the base URL of the member.
+	 * @param request the current request.
+	 * @param body    the request body to send, or null.
+	 * @return the member's response.
+	 */
+	public ResponseEntity<byte[]> exchange(String member, HttpServletRequest request, Object body) {
+		HttpHeaders headers = new HttpHeaders();
+		for (String name : REQUEST_HEADERS) {
+			String value = request.getHeader(name);
+			if (value != null) {
+				headers.set(name, value);
+			}
+		}
+		long start = System.nanoTime();
+		try {
+			ResponseEntity<byte[]> response = restTemplate.exchange(urlAt(member, request),
+					HttpMethod.valueOf(request.getMethod()), new HttpEntity<>(body, headers), byte[].class);
+			HttpHeaders passed = new HttpHeaders();
+			for (String name : RESPONSE_HEADERS) {
+				List<String> values = response.getHeaders().get(name);
+				if (values != null) {
+					passed.put(name, values);
+				}
+			}
+			return new ResponseEntity<>(response.getBody(), passed, response.getStatusCode());
+		} finally {
+			record(member, start);
+		}
+	}
+
+	/**
+	 * Sends the request to one member as JSON and reads the result, for requests
+	 * whose results are combined here.
+	 *
+	 * @param <T>     the type of the result.
+	 * @param member  the base URL of the member.
+	 * @param request the current request.
+	 * @param body    the request body to send, or null.
+	 * @param type    the type of the result.
+	 * @return the result.
+	 * @throws RestClientException if the member is unreachable or does not
+	 *                             answer with a success status.
+	 */
+	public <T> T fetch(String member, HttpServletRequest request, Object body, ParameterizedTypeReference<T> type) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+		long start = System.nanoTime();
+		try {
+			ResponseEntity<T> response = restTemplate.exchange(urlAt(member, request),
+					HttpMethod.valueOf(request.getMethod()), new HttpEntity<>(body, headers), type);
+			if (!response.getStatusCode().is2xxSuccessful()) {
+				throw new RestClientException("Member " + member + " answered " + response.getStatusCode());
+			}
+			return response.getBody();
+		} finally {
+			record(member, start);
+		}
+	}
+
+	/**
+	 * Marks a request to a member as forwarded by this instance and signs it,
+	 * once its body is serialized.
+	 */
+	private ClientHttpResponse sign(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		long now = System.currentTimeMillis();
+		String requestId = UUID.randomUUID().toString();
+		URI uri = request.getURI();
+		String path = uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+		HttpHeaders headers = request.getHeaders();
+		headers.set(FORWARDED_HEADER, ownership.self());
+		headers.set(FORWARDED_AT_HEADER, Long.toString(now));
+		headers.set(REQUEST_ID_HEADER, requestId);
+		headers.set(SIGNATURE_HEADER,
+				sign(request.getMethod().name(), path, ownership.self(), now, requestId, body));
+		return execution.execute(request, body);
+	}
+
+	private String sign(String method, String path, String peer, long sentAt, String requestId, byte[] body) {
+		try {
+			String digest = Base64.getEncoder().encodeToString(MessageDigest.getInstance(DIGEST_ALGORITHM).digest(body));
+			Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+			mac.init(key);
+			byte[] signature = mac.doFinal((method + "\n" + path + "\n" + peer + "\n" + sentAt + "\n" + requestId
+					+ "\n" + digest).getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(signature);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Cannot sign forwarded requests", e);
+		}
+	}
+
+	private void record(String member, long start) {
+		Timer.builder("booking.cluster.forward").description("Time spent on requests forwarded to other members")
+				.tag("member", member).register(meterRegistry).record(Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	private static URI urlAt(String member, HttpServletRequest request) {
+		return URI.create(member + pathOf(request));
+	}
+
+	private static String pathOf(HttpServletRequest request) {
+		String query = request.getQueryString();
+		return request.getRequestURI() + (query != null ? "?" + query : "");
+	}
+}
@@ -0,0 +1,121 @@
+package com.acme.meetingroom.controller;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.acme.meetingroom.dto.ErrorResponse;
+import com.acme.meetingroom.entity.RecurringSeries;
+import com.acme.meetingroom.exception.SeriesNotFoundException;
+import com.acme.meetingroom.service.RecurringSeriesService;
+import com.acme.meetingroom.service.RoomCatalog;
+import com.acme.meetingroom.utils.BookingValidator;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * REST controller for managing recurring meeting room bookings. Delegates to
+ * the {@link RecurringSeriesService}, on the owner of the room in a cluster.
+ */
+@RestController
+@RequestMapping("/api/series")
+public class SeriesController {
+
+	private final RecurringSeriesService seriesService;
+
+	private final BookingValidator bookingValidator;
+
+	private final RoomRouter roomRouter;
+
+	private final RoomCatalog roomCatalog;
+
+	/**
+	 * Constructs a new instance of {@link SeriesController}.
+	 *
+	 * @param seriesService    the service used to manage series.
+	 * @param bookingValidator the validator of submitted series.
+	 * @param roomRouter       the router to the owners of rooms.
+	 * @param roomCatalog      the catalog creating rooms on their first booking.
+	 */
+	public SeriesController(RecurringSeriesService seriesService, BookingValidator bookingValidator,
+			RoomRouter roomRouter, RoomCatalog roomCatalog) {
+		this.seriesService = seriesService;
+		this.bookingValidator = bookingValidator;
+		this.roomRouter = roomRouter;
+		this.roomCatalog = roomCatalog;
+	}
+
+	/**
+	 * Creates a recurring series and books every occurrence.
+	 *
+	 * @param series  the series with its recurrence rule.
+	 * @param request the current request.
+	 * @return the created series.
+	 */
+	@Operation(summary = "Create a recurring booking", description = "Create a DAILY, WEEKLY or MONTHLY series repeating every interval units from startDate until untilDate or for count occurrences, skipping the exception dates. The series is created only if no occurrence conflicts with an existing booking.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "201", description = "Series created successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = RecurringSeries.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid recurrence rule or time range", content = @Content(mediaType = "application/json")),
+			@ApiResponse(responseCode = "409", description = "Conflict: the room is already booked on some occurrences", content = @Content(mediaType = "application/json")) })
+	@PostMapping
+	public ResponseEntity<?> createSeries(@RequestBody RecurringSeries series, HttpServletRequest request) {
+		Map<String, String> errors = bookingValidator.validateSeries(series);
+		if (errors.size() > 0) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+		}
+		Optional<ResponseEntity<byte[]>> forwarded = roomRouter.forward(series.getRoom(), request, series);
+		if (forwarded.isPresent()) {
+			return forwarded.get();
+		}
+		roomCatalog.prepare(series.getRoom());
+		try {
+			return ResponseEntity.status(HttpStatus.CREATED).body(seriesService.createSeries(series));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT)
+					.body(new ErrorResponse(HttpStatus.CONFLICT.value(), e.getMessage()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+		}
+	}
+
+	/**
+	 * Cancels the upcoming occurrences of a series.
+	 *
+	 * @param id      the ID of the series to cancel.
+	 * @param request the current request.
+	 * @return a response indicating success or failure.
+	 */
+	@Operation(summary = "Cancel a recurring booking", description = "Cancel every upcoming occurrence of a series at once. Past occurrences are kept.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "204", description = "Series canceled successfully", content = @Content),
+			@ApiResponse(responseCode = "404", description = "Series not found", content = @Content(mediaType = "application/json")) })
+	@DeleteMapping("/{id}")
+	public ResponseEntity<?> cancelSeries(@PathVariable Long id, HttpServletRequest request) {
+		Optional<ResponseEntity<byte[]>> forwarded = roomRouter
+				.forward(() -> seriesService.findSeries(id).map(RecurringSeries::getRoom).orElse(null), request, null);
+		if (forwarded.isPresent()) {
+			return forwarded.get();
+		}
+		try {
+			seriesService.cancelSeries(id);
+			return ResponseEntity.noContent().build();
+		} catch (SeriesNotFoundException ex) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND)
+					.body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage()));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.acme.meetingroom.dto;
+
+import java.util.Map;
+
+import com.acme.meetingroom.entity.Booking;
+
+/**
+ * Outcome of a single item of a bulk booking request.
+ */
+public class BookingBatchResult {
+
+	/**
+	 * The outcome of a batch item.
+	 */
+	public enum Status {
+		CREATED, CONFLICT, INVALID
+	}
+
+	private int index;
+	private Status status;
+	private Booking booking;
+	private Map<String, String> errors;
+
+	/**
+	 * Constructs a BookingBatchResult instance.
+	 *
+	 * @param index   the position of the item in the request
+	 * @param status  the outcome of the item
+	 * @param booking the created booking, or the submitted one if it was rejected
+	 * @param errors  the validation or conflict errors, empty if created
+	 */
+	public BookingBatchResult(int index, Status status, Booking booking, Map<String, String> errors) {
+		this.index = index;
+		this.status = status;
+		this.booking = booking;
+		this.errors = errors;
+	}
+
+	// Getters and setters
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public Booking getBooking() {
+		return booking;
+	}
+
+	public void setBooking(Booking booking) {
+		this.booking = booking;
+	}
+
+	public Map<String, String> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(Map<String, String> errors) {
+		this.errors = errors;
+	}
+
+	@Override
+	public String toString() {
+		return "BookingBatchResult{" + "index=" + index + ", status=" + status + ", booking=" + booking + ", errors="
+				+ errors + '}';
+	}
+}
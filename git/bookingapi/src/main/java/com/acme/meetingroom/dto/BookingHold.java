@@ -0,0 +1,77 @@
+package com.acme.meetingroom.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A short-lived claim on a room for a time range, to be confirmed into a
+ * booking with its token before it expires.
+ */
+public class BookingHold {
+
+	private final String token;
+	private final String room;
+	private final String employeeEmail;
+	private final LocalDate date;
+	private final LocalTime timeFrom;
+	private final LocalTime timeTo;
+	private final Instant expiresAt;
+
+	/**
+	 * Constructs a BookingHold instance.
+	 *
+	 * @param token         the token confirming or releasing the hold
+	 * @param room          the name or identifier of the meeting room
+	 * @param employeeEmail the email of the employee holding the room
+	 * @param date          the date of the held slot
+	 * @param timeFrom      the start of the held slot (inclusive)
+	 * @param timeTo        the end of the held slot (exclusive)
+	 * @param expiresAt     when the hold lapses unless confirmed
+	 */
+	public BookingHold(String token, String room, String employeeEmail, LocalDate date, LocalTime timeFrom,
+			LocalTime timeTo, Instant expiresAt) {
+		this.token = token;
+		this.room = room;
+		this.employeeEmail = employeeEmail;
+		this.date = date;
+		this.timeFrom = timeFrom;
+		this.timeTo = timeTo;
+		this.expiresAt = expiresAt;
+	}
+
+	// Getters
+	public String getToken() {
+		return token;
+	}
+
+	public String getRoom() {
+		return room;
+	}
+
+	public String getEmployeeEmail() {
+		return employeeEmail;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public LocalTime getTimeFrom() {
+		return timeFrom;
+	}
+
+	public LocalTime getTimeTo() {
+		return timeTo;
+	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	@Override
+	public String toString() {
+		return "BookingHold{" + "token='" + token + '\'' + ", room='" + room + '\'' + ", date=" + date
+				+ ", timeFrom=" + timeFrom + ", timeTo=" + timeTo + ", expiresAt=" + expiresAt + '}';
+	}
+}
@@ -0,0 +1,48 @@
+package com.acme.meetingroom.dto;
+
+import java.util.List;
+
+import com.acme.meetingroom.entity.Booking;
+
+/**
+ * One page of a keyset-paginated booking listing.
+ */
+public class BookingPage {
+
+	private List<Booking> bookings;
+	private String nextCursor;
+
+	/**
+	 * Constructs a BookingPage instance.
+	 *
+	 * @param bookings   the bookings of the page
+	 * @param nextCursor the cursor of the next page, or null if this is the last
+	 *                   page
+	 */
+	public BookingPage(List<Booking> bookings, String nextCursor) {
+		this.bookings = bookings;
+		this.nextCursor = nextCursor;
+	}
+
+	// Getters and setters
+	public List<Booking> getBookings() {
+		return bookings;
+	}
+
+	public void setBookings(List<Booking> bookings) {
+		this.bookings = bookings;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	@Override
+	public String toString() {
+		return "BookingPage{" + "bookings=" + bookings + ", nextCursor='" + nextCursor + '\'' + '}';
+	}
+}
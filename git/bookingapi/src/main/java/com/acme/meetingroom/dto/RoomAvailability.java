@@ -0,0 +1,57 @@
+package com.acme.meetingroom.dto;
+
+import java.time.LocalTime;
+
+/**
+ * A meeting room that is free for at least the requested duration inside a
+ * searched time window.
+ */
+public class RoomAvailability {
+
+	private String room;
+	private LocalTime freeFrom;
+	private LocalTime freeTo;
+
+	/**
+	 * Constructs a RoomAvailability instance.
+	 *
+	 * @param room     the name or identifier of the meeting room
+	 * @param freeFrom the start of the first free stretch inside the window
+	 * @param freeTo   the end of that free stretch, capped at the window end
+	 */
+	public RoomAvailability(String room, LocalTime freeFrom, LocalTime freeTo) {
+		this.room = room;
+		this.freeFrom = freeFrom;
+		this.freeTo = freeTo;
+	}
+
+	// Getters and setters
+	public String getRoom() {
+		return room;
+	}
+
+	public void setRoom(String room) {
+		this.room = room;
+	}
+
+	public LocalTime getFreeFrom() {
+		return freeFrom;
+	}
+
+	public void setFreeFrom(LocalTime freeFrom) {
+		this.freeFrom = freeFrom;
+	}
+
+	public LocalTime getFreeTo() {
+		return freeTo;
+	}
+
+	public void setFreeTo(LocalTime freeTo) {
+		this.freeTo = freeTo;
+	}
+
+	@Override
+	public String toString() {
+		return "RoomAvailability{" + "room='" + room + '\'' + ", freeFrom=" + freeFrom + ", freeTo=" + freeTo + '}';
+	}
+}
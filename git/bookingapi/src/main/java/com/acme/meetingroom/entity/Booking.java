@@ -3,38 +3,99 @@ package com.acme.meetingroom.entity;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
+import com.acme.meetingroom.service.RoomIdConverter;
+
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotNull;
 
 /**
  * Entity class representing a meeting room booking. Maps to a database table
- * using JPA annotations.
+ * using JPA annotations. The room is known by its name everywhere except in
+ * the table, which holds the integer id of the {@link Room}.
  */
 @Entity
-@Table(name = "bookings", uniqueConstraints = {
-		@UniqueConstraint(columnNames = { "room", "date", "time_from", "time_to" }) })
+@Table(name = "bookings", indexes = {
+		@Index(name = Booking.ROOM_DATE_INDEX, columnList = "room_id, date, time_from", unique = true),
+		@Index(name = Booking.DATE_TIME_INDEX, columnList = "date, time_from, room_id"),
+		@Index(name = Booking.EMPLOYEE_DATE_INDEX, columnList = "employee_email, date, time_from"),
+		@Index(name = Booking.SERIES_INDEX, columnList = "series_id") })
 public class Booking {
 
 	/**
-	 * The unique identifier for the booking. Automatically generated by the
-	 * database.
+	 * Name of the unique index on (room_id, date, time_from). It serves schedule
+	 * lookups and overlap range scans by room and date, and is the final guard
+	 * against two bookings of a room starting at the same time.
+	 * <p>
+	 * It replaces the unique constraint on (room, date, time_from, time_to) and is
+	 * stricter: two bookings of a room starting at the same time are rejected even
+	 * when they end at different times. Such bookings always overlap, so the
+	 * overlap check rejects them first and no schedule that was accepted before
+	 * is refused now.
+	 */
+	public static final String ROOM_DATE_INDEX = "idx_bookings_room_date_time_from";
+
+	/**
+	 * Name of the index on (date, time_from, room_id). It serves date range scans
+	 * across all rooms in the order they are returned, without a sort. Room comes
+	 * last so that lookups of one room and date keep using the room index.
+	 */
+	public static final String DATE_TIME_INDEX = "idx_bookings_date_time_from_room";
+
+	/**
+	 * Name of the index on (employee_email, date, time_from). It serves the
+	 * listing of an employee's upcoming bookings page by page.
+	 */
+	public static final String EMPLOYEE_DATE_INDEX = "idx_bookings_employee_date_time_from";
+
+	/**
+	 * Name of the index on series_id. It serves the lookup and cancellation of
+	 * the occurrences of a recurring series.
+	 */
+	public static final String SERIES_INDEX = "idx_bookings_series_id";
+
+	/**
+	 * Number of ids reserved from the {@code bookings_seq} sequence per round
+	 * trip.
+	 */
+	public static final int ID_ALLOCATION_SIZE = 50;
+
+	/**
+	 * The unique identifier for the booking. Drawn from the {@code bookings_seq}
+	 * sequence with a pooled optimizer, so Hibernate reserves 50 ids per round
+	 * trip and can group inserts into JDBC batches.
 	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+	@SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 
 	/**
-	 * The name or identifier of the meeting room being booked. Cannot be null.
+	 * The name of the meeting room being booked. Cannot be null. Stored as the
+	 * id of the room in the {@code room_id} column.
 	 */
-	@Column(nullable = false)
+	@Convert(converter = RoomIdConverter.class)
+	@Column(name = "room_id", nullable = false)
 	private String room;
 
+	/**
+	 * The booked room, mapped read-only so that {@code room_id} is a foreign
+	 * key to the {@code rooms} table. Never loaded.
+	 */
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "room_id", insertable = false, updatable = false)
+	private Room roomEntity;
+
 	/**
 	 * The email of the employee who made the booking. Cannot be null.
 	 */
@@ -63,6 +124,13 @@ public class Booking {
 	@Column(name = "time_to", nullable = false)
 	private LocalTime timeTo;
 
+	/**
+	 * The id of the {@link RecurringSeries} this booking is an occurrence of, or
+	 * null for a single booking.
+	 */
+	@Column(name = "series_id")
+	private Long seriesId;
+
 	/**
 	 * Default constructor required by JPA.
 	 */
@@ -197,6 +265,24 @@ public class Booking {
 		this.timeTo = timeTo;
 	}
 
+	/**
+	 * Gets the id of the series this booking is an occurrence of.
+	 *
+	 * @return the series ID, or null for a single booking.
+	 */
+	public Long getSeriesId() {
+		return seriesId;
+	}
+
+	/**
+	 * Sets the id of the series this booking is an occurrence of.
+	 *
+	 * @param seriesId the series ID.
+	 */
+	public void setSeriesId(Long seriesId) {
+		this.seriesId = seriesId;
+	}
+
 	/**
 	 * Returns a string representation of the Booking.
 	 *
@@ -0,0 +1,243 @@
+package com.acme.meetingroom.entity;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Entity class representing a recurring meeting room booking, such as a weekly
+ * standup. The recurrence rule repeats the time slot every {@code interval}
+ * days, weeks or months from the start date until a date or for a number of
+ * occurrences, skipping the exception dates. Every occurrence is stored as a
+ * {@link Booking} that refers back to its series.
+ */
+@Entity
+@Table(name = "recurring_series")
+public class RecurringSeries {
+
+	/**
+	 * How often a series repeats.
+	 */
+	public enum Frequency {
+		DAILY, WEEKLY, MONTHLY
+	}
+
+	/**
+	 * The unique identifier for the series.
+	 */
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_series_seq")
+	@SequenceGenerator(name = "recurring_series_seq", sequenceName = "recurring_series_seq", allocationSize = 50)
+	private Long id;
+
+	/**
+	 * The name or identifier of the meeting room being booked.
+	 */
+	@Column(nullable = false)
+	private String room;
+
+	/**
+	 * The email of the employee who made the booking.
+	 */
+	@Column(name = "employee_email", nullable = false)
+	private String employeeEmail;
+
+	/**
+	 * The start time of every occurrence (inclusive).
+	 */
+	@Column(name = "time_from", nullable = false)
+	private LocalTime timeFrom;
+
+	/**
+	 * The end time of every occurrence (exclusive).
+	 */
+	@Column(name = "time_to", nullable = false)
+	private LocalTime timeTo;
+
+	/**
+	 * The unit of repetition.
+	 */
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private Frequency frequency;
+
+	/**
+	 * The number of frequency units between occurrences, 1 for every unit.
+	 */
+	@Column(name = "repeat_interval", nullable = false)
+	private int interval = 1;
+
+	/**
+	 * The date of the first occurrence.
+	 */
+	@Column(name = "start_date", nullable = false)
+	private LocalDate startDate;
+
+	/**
+	 * The last date an occurrence may fall on, or null if bounded by count.
+	 */
+	@Column(name = "until_date")
+	private LocalDate untilDate;
+
+	/**
+	 * The number of occurrences, exceptions included, or null if bounded by the
+	 * until date.
+	 */
+	@Column(name = "occurrence_count")
+	private Integer count;
+
+	/**
+	 * Dates on which the series does not take place.
+	 */
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name = "recurring_series_exceptions", joinColumns = @JoinColumn(name = "series_id"))
+	@Column(name = "date", nullable = false)
+	private Set<LocalDate> exceptions = new HashSet<>();
+
+	/**
+	 * Default constructor required by JPA.
+	 */
+	public RecurringSeries() {
+		// Default constructor for JPA
+	}
+
+	/**
+	 * Constructs a new series bounded by an until date.
+	 *
+	 * @param room          the name or identifier of the meeting room.
+	 * @param employeeEmail the email of the employee creating the series.
+	 * @param timeFrom      the start time of every occurrence (inclusive).
+	 * @param timeTo        the end time of every occurrence (exclusive).
+	 * @param frequency     the unit of repetition.
+	 * @param startDate     the date of the first occurrence.
+	 * @param untilDate     the last date an occurrence may fall on.
+	 */
+	public RecurringSeries(String room, String employeeEmail, LocalTime timeFrom, LocalTime timeTo,
+			Frequency frequency, LocalDate startDate, LocalDate untilDate) {
+		this.room = room;
+		this.employeeEmail = employeeEmail;
+		this.timeFrom = timeFrom;
+		this.timeTo = timeTo;
+		this.frequency = frequency;
+		this.startDate = startDate;
+		this.untilDate = untilDate;
+	}
+
+	// Getters and setters
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getRoom() {
+		return room;
+	}
+
+	public void setRoom(String room) {
+		this.room = room;
+	}
+
+	public String getEmployeeEmail() {
+		return employeeEmail;
+	}
+
+	public void setEmployeeEmail(String employeeEmail) {
+		this.employeeEmail = employeeEmail;
+	}
+
+	public LocalTime getTimeFrom() {
+		return timeFrom;
+	}
+
+	public void setTimeFrom(LocalTime timeFrom) {
+		this.timeFrom = timeFrom;
+	}
+
+	public LocalTime getTimeTo() {
+		return timeTo;
+	}
+
+	public void setTimeTo(LocalTime timeTo) {
+		this.timeTo = timeTo;
+	}
+
+	public Frequency getFrequency() {
+		return frequency;
+	}
+
+	public void setFrequency(Frequency frequency) {
+		this.frequency = frequency;
+	}
+
+	public int getInterval() {
+		return interval;
+	}
+
+	public void setInterval(int interval) {
+		this.interval = interval;
+	}
+
+	public LocalDate getStartDate() {
+		return startDate;
+	}
+
+	public void setStartDate(LocalDate startDate) {
+		this.startDate = startDate;
+	}
+
+	public LocalDate getUntilDate() {
+		return untilDate;
+	}
+
+	public void setUntilDate(LocalDate untilDate) {
+		this.untilDate = untilDate;
+	}
+
+	public Integer getCount() {
+		return count;
+	}
+
+	public void setCount(Integer count) {
+		this.count = count;
+	}
+
+	public Set<LocalDate> getExceptions() {
+		return exceptions;
+	}
+
+	public void setExceptions(Set<LocalDate> exceptions) {
+		this.exceptions = exceptions;
+	}
+
+	/**
+	 * Returns a string representation of the series.
+	 *
+	 * @return a string containing the series details.
+	 */
+	@Override
+	public String toString() {
+		return "RecurringSeries{" + "id=" + id + ", room='" + room + '\'' + ", employeeEmail='" + employeeEmail
+				+ '\'' + ", timeFrom=" + timeFrom + ", timeTo=" + timeTo + ", frequency=" + frequency
+				+ ", interval=" + interval + ", startDate=" + startDate + ", untilDate=" + untilDate + ", count="
+				+ count + ", exceptions=" + exceptions + '}';
+	}
+}
@@ -0,0 +1,172 @@
+package com.acme.meetingroom.entity;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+
+/**
+ * Entity class representing a meeting room. Bookings refer to a room by its
+ * integer id, while clients keep using its unique name.
+ */
+@Entity
+@Table(name = "rooms")
+public class Room {
+
+	/**
+	 * The unique identifier for the room, stored in every booking of the room.
+	 */
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer id;
+
+	/**
+	 * The unique name of the room. Cannot be null.
+	 */
+	@Column(nullable = false, unique = true)
+	private String name;
+
+	/**
+	 * The number of people the room seats, or null if unknown.
+	 */
+	private Integer capacity;
+
+	/**
+	 * The floor the room is on, or null if unknown.
+	 */
+	private Integer floor;
+
+	/**
+	 * The equipment of the room, such as "projector", in lower case.
+	 */
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name = "room_equipment", joinColumns = @JoinColumn(name = "room_id"))
+	@Column(name = "equipment", nullable = false)
+	private Set<String> equipment = new TreeSet<>();
+
+	/**
+	 * Default constructor required by JPA.
+	 */
+	public Room() {
+		// Default constructor for JPA
+	}
+
+	/**
+	 * Constructs a new Room without attributes.
+	 *
+	 * @param name the unique name of the room.
+	 */
+	public Room(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Gets the unique identifier of the room.
+	 *
+	 * @return the room ID.
+	 */
+	public Integer getId() {
+		return id;
+	}
+
+	/**
+	 * Sets the unique identifier of the room.
+	 *
+	 * @param id the room ID.
+	 */
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	/**
+	 * Gets the unique name of the room.
+	 *
+	 * @return the room name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Sets the unique name of the room.
+	 *
+	 * @param name the room name.
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Gets the number of people the room seats.
+	 *
+	 * @return the capacity, or null if unknown.
+	 */
+	public Integer getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Sets the number of people the room seats.
+	 *
+	 * @param capacity the capacity, or null if unknown.
+	 */
+	public void setCapacity(Integer capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Gets the floor the room is on.
+	 *
+	 * @return the floor, or null if unknown.
+	 */
+	public Integer getFloor() {
+		return floor;
+	}
+
+	/**
+	 * Sets the floor the room is on.
+	 *
+	 * @param floor the floor, or null if unknown.
+	 */
+	public void setFloor(Integer floor) {
+		this.floor = floor;
+	}
+
+	/**
+	 * Gets the equipment of the room.
+	 *
+	 * @return the equipment, in lower case.
+	 */
+	public Set<String> getEquipment() {
+		return equipment;
+	}
+
+	/**
+	 * Sets the equipment of the room.
+	 *
+	 * @param equipment the equipment.
+	 */
+	public void setEquipment(Set<String> equipment) {
+		this.equipment = equipment;
+	}
+
+	/**
+	 * Returns a string representation of the Room.
+	 *
+	 * @return a string containing the room details.
+	 */
+	@Override
+	public String toString() {
+		return "Room{" + "id=" + id + ", name='" + name + '\'' + ", capacity=" + capacity + ", floor=" + floor
+				+ ", equipment=" + equipment + '}';
+	}
+}
@@ -0,0 +1,53 @@
+package com.acme.meetingroom.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.acme.meetingroom.entity.Booking;
+
+/**
+ * Application event published by the booking service whenever a booking is
+ * created or cancelled. Listeners that keep in-memory state derived from the
+ * bookings table subscribe to it with a transactional event listener so that
+ * they only observe committed changes.
+ */
+public class BookingChangedEvent extends ApplicationEvent {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The kind of change applied to the booking.
+	 */
+	public enum Type {
+		CREATED, CANCELLED
+	}
+
+	private final Type type;
+
+	private final Booking booking;
+
+	/**
+	 * Constructs a new BookingChangedEvent.
+	 *
+	 * @param source  the component that published the event.
+	 * @param type    the kind of change.
+	 * @param booking the booking that was created or cancelled.
+	 */
+	public BookingChangedEvent(Object source, Type type, Booking booking) {
+		super(source);
+		this.type = type;
+		this.booking = booking;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public Booking getBooking() {
+		return booking;
+	}
+
+	@Override
+	public String toString() {
+		return "BookingChangedEvent{" + "type=" + type + ", booking=" + booking + '}';
+	}
+}
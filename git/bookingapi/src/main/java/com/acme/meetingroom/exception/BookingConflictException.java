@@ -0,0 +1,12 @@
+package com.acme.meetingroom.exception;
+
+public class BookingConflictException extends RuntimeException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.acme.meetingroom.exception;
+
+public class HoldNotFoundException extends RuntimeException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public HoldNotFoundException(String message) {
+        super(message);
+    }
+}
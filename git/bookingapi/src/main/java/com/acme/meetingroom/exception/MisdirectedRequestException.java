@@ -0,0 +1,12 @@
+package com.acme.meetingroom.exception;
+
+public class MisdirectedRequestException extends RuntimeException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public MisdirectedRequestException(String message) {
+        super(message);
+    }
+}
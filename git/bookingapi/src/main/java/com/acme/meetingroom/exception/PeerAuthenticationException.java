@@ -0,0 +1,12 @@
+package com.acme.meetingroom.exception;
+
+public class PeerAuthenticationException extends RuntimeException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public PeerAuthenticationException(String message) {
+        super(message);
+    }
+}
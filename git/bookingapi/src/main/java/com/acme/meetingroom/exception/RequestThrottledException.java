@@ -0,0 +1,21 @@
+package com.acme.meetingroom.exception;
+
+import java.time.Duration;
+
+public class RequestThrottledException extends RuntimeException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private final Duration retryAfter;
+
+	public RequestThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+}
@@ -0,0 +1,12 @@
+package com.acme.meetingroom.exception;
+
+public class SeriesNotFoundException extends RuntimeException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public SeriesNotFoundException(String message) {
+        super(message);
+    }
+}
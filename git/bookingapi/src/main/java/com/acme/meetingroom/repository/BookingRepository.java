@@ -1,12 +1,19 @@
 package com.acme.meetingroom.repository;
 
 import com.acme.meetingroom.entity.Booking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing {@link Booking} entities.
@@ -25,7 +32,155 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByRoomAndDate(String room, LocalDate date);
 
     /**
-     * Checks if a booking exists for a specific room, date, and time range.
+     * Finds all bookings dated on or after the given date.
+     *
+     * @param date the first date to include.
+     * @return a list of bookings on or after the given date.
+     */
+    List<Booking> findByDateGreaterThanEqual(LocalDate date);
+
+    /**
+     * Streams the bookings of one room between two dates, ordered by date and start time.
+     * Rows are fetched from the cursor in chunks as the stream is consumed. The stream
+     * must be consumed and closed inside a transaction.
+     *
+     * @param room the name or identifier of the meeting room.
+     * @param from the first date to include.
+     * @param to   the last date to include.
+     * @return a stream of bookings in schedule order.
+     */
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    Stream<Booking> streamByRoomAndDateBetweenOrderByDateAscTimeFromAsc(String room, LocalDate from, LocalDate to);
+
+    /**
+     * Streams the bookings of all rooms between two dates, ordered by date, start time
+     * and room id, which is the order of the (date, time_from, room_id) index. The stream
+     * must be consumed and closed inside a transaction.
+     *
+     * @param from the first date to include.
+     * @param to   the last date to include.
+     * @return a stream of bookings in schedule order.
+     */
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    Stream<Booking> streamByDateBetweenOrderByDateAscTimeFromAscRoomAsc(LocalDate from, LocalDate to);
+
+    /**
+     * Finds the bookings that sort after a keyset position in (date, time_from, room id, id)
+     * order. The leading date bound lets the query start as a range scan of the
+     * (date, time_from, room_id) index at the position, so the cost of a page does not
+     * depend on how many pages came before it.
+     *
+     * @param date     the date of the position.
+     * @param timeFrom the start time of the position.
+     * @param room     the room of the position.
+     * @param id       the id of the position.
+     * @param limit    the maximum number of bookings to return.
+     * @return the bookings after the position, in listing order.
+     */
+    @Query("select b from Booking b where b.date >= :date and (b.date > :date or (b.date = :date"
+            + " and (b.timeFrom > :timeFrom or (b.timeFrom = :timeFrom and (b.room > :room"
+            + " or (b.room = :room and b.id > :id))))))"
+            + " order by b.date, b.timeFrom, b.room, b.id")
+    List<Booking> findPageAfter(LocalDate date, LocalTime timeFrom, String room, long id, Limit limit);
+
+    /**
+     * Finds the bookings of an employee that sort after a keyset position in
+     * (date, time_from, id) order, using the (employee_email, date, time_from) index.
+     *
+     * @param employeeEmail the email of the employee.
+     * @param date          the date of the position.
+     * @param timeFrom      the start time of the position.
+     * @param id            the id of the position.
+     * @param limit         the maximum number of bookings to return.
+     * @return the employee's bookings after the position, in listing order.
+     */
+    @Query("select b from Booking b where b.employeeEmail = :employeeEmail and b.date >= :date"
+            + " and (b.date > :date or (b.date = :date and (b.timeFrom > :timeFrom"
+            + " or (b.timeFrom = :timeFrom and b.id > :id))))"
+            + " order by b.date, b.timeFrom, b.id")
+    List<Booking> findPageByEmployeeAfter(String employeeEmail, LocalDate date, LocalTime timeFrom, long id,
+            Limit limit);
+
+    /**
+     * Finds the bookings of a room between two dates that overlap the half-open interval
+     * [timeFrom, timeTo) on their date. Used to check all occurrences of a series for
+     * conflicts with one range scan of the (room, date, time_from) index.
+     *
+     * @param room     the name or identifier of the meeting room.
+     * @param from     the first date to include.
+     * @param to       the last date to include.
+     * @param timeTo   the end time of the interval (exclusive).
+     * @param timeFrom the start time of the interval (inclusive).
+     * @return the overlapping bookings.
+     */
+    List<Booking> findByRoomAndDateBetweenAndTimeFromLessThanAndTimeToGreaterThan(
+            String room, LocalDate from, LocalDate to, LocalTime timeTo, LocalTime timeFrom);
+
+    /**
+     * Finds the occurrences of a series dated on or after the given date.
+     *
+     * @param seriesId the id of the series.
+     * @param date     the first date to include.
+     * @return the occurrences on or after the date.
+     */
+    List<Booking> findBySeriesIdAndDateGreaterThanEqual(Long seriesId, LocalDate date);
+
+    /**
+     * Deletes the occurrences of a series dated on or after the given date in one
+     * statement.
+     *
+     * @param seriesId the id of the series.
+     * @param date     the first date to delete.
+     * @return the number of deleted bookings.
+     */
+    @Modifying
+    @Query("delete from Booking b where b.seriesId = :seriesId and b.date >= :date")
+    int deleteBySeriesIdFrom(Long seriesId, LocalDate date);
+
+    /**
+     * Checks whether any occurrence of a series is stored.
+     *
+     * @param seriesId the id of the series.
+     * @return true if the series still has bookings.
+     */
+    boolean existsBySeriesId(Long seriesId);
+
+    /**
+     * Finds the ids of the bookings dated on or after the given date. Used to reconcile
+     * the bookings replayed from the event log with the table after a restart.
+     *
+     * @param date the first date to include.
+     * @return the ids of the matching bookings.
+     */
+    @Query("select b.id from Booking b where b.date >= :date")
+    List<Long> findIdsFrom(LocalDate date);
+
+    /**
+     * Finds the bookings dated on or after the given date with an id greater than the
+     * given one: the bookings stored after the event log last saw one.
+     *
+     * @param date the first date to include.
+     * @param id   the id the bookings must come after.
+     * @return a list of the matching bookings.
+     */
+    @Query("select b from Booking b where b.date >= :date and b.id > :id")
+    List<Booking> findFromAfterId(LocalDate date, long id);
+
+    /**
+     * Counts the bookings dated on or after the given date.
+     *
+     * @param date the first date to include.
+     * @return the number of matching bookings.
+     */
+    long countByDateGreaterThanEqual(LocalDate date);
+
+    /**
+     * Checks if a booking overlapping the half-open interval [timeFrom, timeTo) exists
+     * for a specific room and date. Bookings that merely touch the interval at an end
+     * point do not overlap. The query is a range scan over the (room, date, time_from)
+     * index that stops at the first match.
      *
      * @param room     the name or identifier of the meeting room.
      * @param date     the date of the booking.
@@ -33,7 +188,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @param timeFrom the start time of the booking (inclusive).
      * @return true if an overlapping booking exists; false otherwise.
      */
-    boolean existsByRoomAndDateAndTimeFromLessThanEqualAndTimeToGreaterThanEqual(
+    boolean existsByRoomAndDateAndTimeFromLessThanAndTimeToGreaterThan(
             String room, LocalDate date, LocalTime timeTo, LocalTime timeFrom);
 }
 
@@ -0,0 +1,248 @@
+package com.acme.meetingroom.repository;
+
+import com.acme.meetingroom.entity.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage engine for {@link Booking}s, the only way the services read and write
+ * bookings. The engine is picked with {@code booking.storage.engine}:
+ * {@code jpa} (the default, {@link JpaBookingStore}) keeps bookings in the
+ * database, {@code memory} ({@link InMemoryBookingStore}) keeps them in
+ * process memory.
+ * <p>
+ * Every engine behaves the same way: writes join the current transaction and
+ * are undone if it rolls back, a booking of a room starting at the same date
+ * and time as another one is rejected with a
+ * {@link org.springframework.dao.DataIntegrityViolationException}, intervals
+ * are half-open, and results come in the orders documented here. Bookings
+ * returned by reads must not be modified.
+ */
+public interface BookingStore {
+
+    /**
+     * Stores a new booking, assigning its id if it has none.
+     *
+     * @param booking the booking to store.
+     * @return the stored booking, with its id.
+     */
+    Booking save(Booking booking);
+
+    /**
+     * Stores new bookings together, assigning ids to those that have none.
+     *
+     * @param bookings the bookings to store.
+     * @return the stored bookings, in the same order.
+     */
+    List<Booking> saveAll(List<Booking> bookings);
+
+    /**
+     * Returns a new booking id, for bookings stored later through
+     * {@link #insertAll}.
+     *
+     * @return the id, never handed out before.
+     */
+    long nextId();
+
+    /**
+     * Stores bookings whose ids were taken from {@link #nextId} in one batch.
+     *
+     * @param bookings the bookings to store, with their ids assigned.
+     */
+    void insertAll(List<Booking> bookings);
+
+    /**
+     * Finds a booking by id.
+     *
+     * @param id the id of the booking.
+     * @return the booking, or empty if there is none.
+     */
+    Optional<Booking> findById(Long id);
+
+    /**
+     * Deletes a booking.
+     *
+     * @param booking the booking to delete.
+     */
+    void delete(Booking booking);
+
+    /**
+     * Deletes the bookings with the given ids dated on or after a date, in one
+     * statement. Bookings before the date are left alone.
+     *
+     * @param ids   the ids of the bookings.
+     * @param date  the first date to delete.
+     * @param rooms the rooms to restrict the delete to, or null for all rooms.
+     * @return the deleted bookings.
+     */
+    List<Booking> deleteByIdsFrom(Collection<Long> ids, LocalDate date, Collection<String> rooms);
+
+    /**
+     * Deletes the bookings of an employee dated on or after a date, in one
+     * statement.
+     *
+     * @param employeeEmail the email of the employee.
+     * @param date          the first date to delete.
+     * @param rooms         the rooms to restrict the delete to, or null for all
+     *                      rooms.
+     * @return the deleted bookings.
+     */
+    List<Booking> deleteByEmployeeFrom(String employeeEmail, LocalDate date, Collection<String> rooms);
+
+    /**
+     * Deletes the bookings of a room between two dates, in one statement.
+     *
+     * @param room the name or identifier of the meeting room.
+     * @param from the first date to delete.
+     * @param to   the last date to delete.
+     * @return the deleted bookings.
+     */
+    List<Booking> deleteByRoomBetween(String room, LocalDate from, LocalDate to);
+
+    /**
+     * Finds all bookings for a specific room and date.
+     *
+     * @param room the name or identifier of the meeting room.
+     * @param date the date for which bookings should be retrieved.
+     * @return the bookings for the specified room and date.
+     */
+    List<Booking> findByRoomAndDate(String room, LocalDate date);
+
+    /**
+     * Finds all bookings dated on or after the given date.
+     *
+     * @param date the first date to include.
+     * @return the bookings on or after the given date.
+     */
+    List<Booking> findFrom(LocalDate date);
+
+    /**
+     * Finds the ids of the bookings dated on or after the given date.
+     *
+     * @param date the first date to include.
+     * @return the ids of the matching bookings.
+     */
+    List<Long> findIdsFrom(LocalDate date);
+
+    /**
+     * Finds the bookings dated on or after the given date whose id is greater
+     * than the given one.
+     *
+     * @param date the first date to include.
+     * @param id   the id the bookings must come after.
+     * @return the matching bookings.
+     */
+    List<Booking> findFromAfterId(LocalDate date, long id);
+
+    /**
+     * Counts the bookings dated on or after the given date.
+     *
+     * @param date the first date to include.
+     * @return the number of matching bookings.
+     */
+    long countFrom(LocalDate date);
+
+    /**
+     * Finds the bookings with the given ids. Ids of no booking are skipped.
+     *
+     * @param ids the ids to look up.
+     * @return the bookings found, in no particular order.
+     */
+    List<Booking> findAllById(Collection<Long> ids);
+
+    /**
+     * Hands the bookings between two dates to a consumer one at a time, ordered
+     * by date and start time, and then by room id when all rooms are read.
+     *
+     * @param room     the name or identifier of the meeting room, or null for
+     *                 all rooms.
+     * @param from     the first date to include.
+     * @param to       the last date to include.
+     * @param consumer the consumer of the bookings.
+     */
+    void forEachBetween(String room, LocalDate from, LocalDate to, Consumer<Booking> consumer);
+
+    /**
+     * Finds the bookings that sort after a keyset position in
+     * (date, time_from, room id, id) order, with room ids from the
+     * {@link com.acme.meetingroom.service.RoomCatalog}.
+     *
+     * @param date     the date of the position.
+     * @param timeFrom the start time of the position.
+     * @param room     the room of the position.
+     * @param id       the id of the position.
+     * @param limit    the maximum number of bookings to return.
+     * @return the bookings after the position, in listing order.
+     */
+    List<Booking> findPageAfter(LocalDate date, LocalTime timeFrom, String room, long id, int limit);
+
+    /**
+     * Finds the bookings of an employee that sort after a keyset position in
+     * (date, time_from, id) order.
+     *
+     * @param employeeEmail the email of the employee.
+     * @param date          the date of the position.
+     * @param timeFrom      the start time of the position.
+     * @param id            the id of the position.
+     * @param limit         the maximum number of bookings to return.
+     * @return the employee's bookings after the position, in listing order.
+     */
+    List<Booking> findPageByEmployeeAfter(String employeeEmail, LocalDate date, LocalTime timeFrom, long id,
+            int limit);
+
+    /**
+     * Checks if a booking of a room overlapping the interval [timeFrom, timeTo)
+     * on a date exists.
+     *
+     * @param room     the name or identifier of the meeting room.
+     * @param date     the date of the booking.
+     * @param timeFrom the start time of the interval (inclusive).
+     * @param timeTo   the end time of the interval (exclusive).
+     * @return true if an overlapping booking exists; false otherwise.
+     */
+    boolean existsOverlapping(String room, LocalDate date, LocalTime timeFrom, LocalTime timeTo);
+
+    /**
+     * Finds the bookings of a room between two dates that overlap the interval
+     * [timeFrom, timeTo) on their date.
+     *
+     * @param room     the name or identifier of the meeting room.
+     * @param from     the first date to include.
+     * @param to       the last date to include.
+     * @param timeFrom the start time of the interval (inclusive).
+     * @param timeTo   the end time of the interval (exclusive).
+     * @return the overlapping bookings.
+     */
+    List<Booking> findOverlapping(String room, LocalDate from, LocalDate to, LocalTime timeFrom, LocalTime timeTo);
+
+    /**
+     * Finds the occurrences of a series dated on or after the given date.
+     *
+     * @param seriesId the id of the series.
+     * @param date     the first date to include.
+     * @return the occurrences on or after the date.
+     */
+    List<Booking> findBySeriesFrom(Long seriesId, LocalDate date);
+
+    /**
+     * Deletes the occurrences of a series dated on or after the given date.
+     *
+     * @param seriesId the id of the series.
+     * @param date     the first date to delete.
+     * @return the number of deleted bookings.
+     */
+    int deleteBySeriesFrom(Long seriesId, LocalDate date);
+
+    /**
+     * Checks whether any occurrence of a series is stored.
+     *
+     * @param seriesId the id of the series.
+     * @return true if the series still has bookings.
+     */
+    boolean existsBySeries(Long seriesId);
+}
@@ -0,0 +1,620 @@
+package com.acme.meetingroom.repository;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.service.RoomCatalog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * {@link BookingStore} keeping bookings in process memory, selected with
+ * {@code booking.storage.engine=memory}. Every room has a sorted map of days,
+ * each a sorted map of bookings by start time, so schedule lookups and
+ * overlap checks touch one room/day; a set sorted in (date, time_from, room
+ * id, id) order, with room ids from the {@link RoomCatalog}, serves range
+ * reads and pages across rooms, and sets per employee and per series serve
+ * their lookups.
+ * <p>
+ * Reads take no lock and see writes as soon as they are made. Writes are
+ * serialized on the store and applied at once; inside a transaction they are
+ * recorded and undone in reverse order if it rolls back. Ids come from a
+ * counter. The store keeps its own copies of the bookings and hands out
+ * copies, so callers changing a booking cannot move it within the sorted
+ * maps and sets behind their backs.
+ * <p>
+ * Without {@code booking.storage.memory.snapshot-file} bookings live only as
+ * long as the process. With it, the store loads the file at startup and
+ * rewrites it every {@code booking.storage.memory.snapshot-interval} when
+ * something changed, and once more on shutdown, through a temporary file moved
+ * into place so the snapshot is either complete or absent. Bookings made after
+ * the last snapshot are lost if the process dies, and a snapshot taken while a
+ * transaction is in progress includes its writes.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.storage.engine", havingValue = "memory")
+public class InMemoryBookingStore implements BookingStore {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryBookingStore.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x424b5331;
+
+    /**
+     * Order of the employee and series sets.
+     */
+    private static final Comparator<Booking> SCHEDULE_ORDER = Comparator.comparing(Booking::getDate)
+            .thenComparing(Booking::getTimeFrom).thenComparing(Booking::getId);
+
+    private final ConcurrentMap<Long, Booking> byId = new ConcurrentHashMap<>();
+
+    /**
+     * Bookings by room, date and start time.
+     */
+    private final ConcurrentMap<String, ConcurrentNavigableMap<LocalDate, ConcurrentNavigableMap<LocalTime, Booking>>> schedules = new ConcurrentHashMap<>();
+
+    private final RoomCatalog roomCatalog;
+
+    /**
+     * Bookings in the order of range reads and pages across rooms.
+     */
+    private final NavigableSet<Booking> listing;
+
+    private final ConcurrentMap<String, NavigableSet<Booking>> byEmployee = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, NavigableSet<Booking>> bySeries = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastId = new AtomicLong();
+
+    private final Path snapshotFile;
+
+    private final ScheduledExecutorService snapshotter;
+
+    /**
+     * Number of writes so far and at the last snapshot, guarded by this.
+     */
+    private long writes;
+
+    private long snapshotWrites;
+
+    /**
+     * Constructs a new instance of {@link InMemoryBookingStore}, loading the
+     * snapshot file if there is one.
+     *
+     * @param roomCatalog      the catalog of rooms and their ids.
+     * @param snapshotFile     the file to keep snapshots in; empty to keep
+     *                         bookings in memory only.
+     * @param snapshotInterval how often to write a snapshot.
+     * @throws IOException if the snapshot file exists and cannot be read.
+     */
+    public InMemoryBookingStore(RoomCatalog roomCatalog,
+            @Value("${booking.storage.memory.snapshot-file:}") String snapshotFile,
+            @Value("${booking.storage.memory.snapshot-interval:PT1M}") Duration snapshotInterval) throws IOException {
+        this.roomCatalog = roomCatalog;
+        this.listing = new ConcurrentSkipListSet<>(Comparator.comparing(Booking::getDate)
+                .thenComparing(Booking::getTimeFrom).thenComparingInt(booking -> roomCatalog.idOf(booking.getRoom()))
+                .thenComparing(Booking::getId));
+        if (snapshotFile.isBlank()) {
+            this.snapshotFile = null;
+            this.snapshotter = null;
+        } else {
+            this.snapshotFile = Path.of(snapshotFile);
+            load();
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("booking-store-snapshot-");
+            threadFactory.setDaemon(true);
+            this.snapshotter = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            long period = snapshotInterval.toMillis();
+            snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Booking save(Booking booking) {
+        return saveAll(List.of(booking)).get(0);
+    }
+
+    @Override
+    public List<Booking> saveAll(List<Booking> bookings) {
+        List<Booking> stored = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            roomCatalog.resolve(booking.getRoom());
+            if (booking.getId() == null) {
+                // Like a persisted entity, the caller's booking gets its id
+                booking.setId(nextId());
+            }
+            stored.add(copy(booking));
+        }
+        insert(stored);
+        return stored;
+    }
+
+    @Override
+    public long nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        List<Booking> stored = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            roomCatalog.resolve(booking.getRoom());
+            lastId.accumulateAndGet(booking.getId(), Math::max);
+            stored.add(copy(booking));
+        }
+        insert(stored);
+    }
+
+    @Override
+    public Optional<Booking> findById(Long id) {
+        return Optional.ofNullable(byId.get(id)).map(InMemoryBookingStore::copy);
+    }
+
+    @Override
+    public synchronized void delete(Booking booking) {
+        Booking stored = booking.getId() != null ? byId.get(booking.getId()) : null;
+        if (stored != null) {
+            remove(stored);
+            written(() -> add(stored));
+        }
+    }
+
+    @Override
+    public synchronized List<Booking> deleteByIdsFrom(Collection<Long> ids, LocalDate date,
+            Collection<String> rooms) {
+        List<Booking> matching = new ArrayList<>();
+        for (Long id : new HashSet<>(ids)) {
+            Booking booking = byId.get(id);
+            if (booking != null && !booking.getDate().isBefore(date)) {
+                matching.add(booking);
+            }
+        }
+        return deleteAll(matching, rooms);
+    }
+
+    @Override
+    public synchronized List<Booking> deleteByEmployeeFrom(String employeeEmail, LocalDate date,
+            Collection<String> rooms) {
+        NavigableSet<Booking> bookings = byEmployee.get(employeeEmail);
+        return bookings != null
+                ? deleteAll(new ArrayList<>(bookings.tailSet(probe(date, LocalTime.MIN, null, Long.MIN_VALUE))),
+                        rooms)
+                : List.of();
+    }
+
+    @Override
+    public synchronized List<Booking> deleteByRoomBetween(String room, LocalDate from, LocalDate to) {
+        List<Booking> matching = new ArrayList<>();
+        forEachStoredBetween(room, from, to, matching::add);
+        return deleteAll(matching, null);
+    }
+
+    /**
+     * Deletes the given bookings that are in one of the rooms, if rooms are
+     * given, and returns copies of them. Called while holding the store's lock.
+     */
+    private List<Booking> deleteAll(List<Booking> bookings, Collection<String> rooms) {
+        Predicate<Booking> inRooms = rooms != null ? booking -> rooms.contains(booking.getRoom()) : booking -> true;
+        List<Booking> deleted = bookings.stream().filter(inRooms).toList();
+        if (!deleted.isEmpty()) {
+            deleted.forEach(this::remove);
+            written(() -> deleted.forEach(this::add));
+        }
+        return copies(deleted);
+    }
+
+    @Override
+    public List<Booking> findByRoomAndDate(String room, LocalDate date) {
+        NavigableMap<LocalTime, Booking> day = day(room, date);
+        return day != null ? copies(day.values()) : List.of();
+    }
+
+    @Override
+    public List<Booking> findFrom(LocalDate date) {
+        return copies(listing.tailSet(probe(date, LocalTime.MIN, "", Long.MIN_VALUE)));
+    }
+
+    @Override
+    public List<Long> findIdsFrom(LocalDate date) {
+        List<Long> ids = new ArrayList<>();
+        for (Booking booking : listing.tailSet(probe(date, LocalTime.MIN, "", Long.MIN_VALUE))) {
+            ids.add(booking.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public List<Booking> findFromAfterId(LocalDate date, long id) {
+        return copies(listing.tailSet(probe(date, LocalTime.MIN, "", Long.MIN_VALUE)).stream()
+                .filter(booking -> booking.getId() > id).toList());
+    }
+
+    @Override
+    public long countFrom(LocalDate date) {
+        return listing.tailSet(probe(date, LocalTime.MIN, "", Long.MIN_VALUE)).size();
+    }
+
+    @Override
+    public List<Booking> findAllById(Collection<Long> ids) {
+        return copies(ids.stream().map(byId::get).filter(Objects::nonNull).toList());
+    }
+
+    @Override
+    public void forEachBetween(String room, LocalDate from, LocalDate to, Consumer<Booking> consumer) {
+        forEachStoredBetween(room, from, to, booking -> consumer.accept(copy(booking)));
+    }
+
+    private void forEachStoredBetween(String room, LocalDate from, LocalDate to, Consumer<Booking> consumer) {
+        if (room == null) {
+            for (Booking booking : listing.tailSet(probe(from, LocalTime.MIN, "", Long.MIN_VALUE))) {
+                if (booking.getDate().isAfter(to)) {
+                    return;
+                }
+                consumer.accept(booking);
+            }
+            return;
+        }
+        ConcurrentNavigableMap<LocalDate, ConcurrentNavigableMap<LocalTime, Booking>> days = schedules.get(room);
+        if (days != null && !from.isAfter(to)) {
+            for (NavigableMap<LocalTime, Booking> day : days.subMap(from, true, to, true).values()) {
+                day.values().forEach(consumer);
+            }
+        }
+    }
+
+    @Override
+    public List<Booking> findPageAfter(LocalDate date, LocalTime timeFrom, String room, long id, int limit) {
+        return first(listing.tailSet(probe(date, timeFrom, room, id), false), limit);
+    }
+
+    @Override
+    public List<Booking> findPageByEmployeeAfter(String employeeEmail, LocalDate date, LocalTime timeFrom, long id,
+            int limit) {
+        NavigableSet<Booking> bookings = byEmployee.get(employeeEmail);
+        return bookings != null ? first(bookings.tailSet(probe(date, timeFrom, null, id), false), limit) : List.of();
+    }
+
+    @Override
+    public boolean existsOverlapping(String room, LocalDate date, LocalTime timeFrom, LocalTime timeTo) {
+        NavigableMap<LocalTime, Booking> day = day(room, date);
+        return day != null && overlaps(day, timeFrom, timeTo, null);
+    }
+
+    @Override
+    public List<Booking> findOverlapping(String room, LocalDate from, LocalDate to, LocalTime timeFrom,
+            LocalTime timeTo) {
+        List<Booking> overlapping = new ArrayList<>();
+        ConcurrentNavigableMap<LocalDate, ConcurrentNavigableMap<LocalTime, Booking>> days = schedules.get(room);
+        if (days != null && !from.isAfter(to)) {
+            for (NavigableMap<LocalTime, Booking> day : days.subMap(from, true, to, true).values()) {
+                overlaps(day, timeFrom, timeTo, overlapping);
+            }
+        }
+        return copies(overlapping);
+    }
+
+    @Override
+    public List<Booking> findBySeriesFrom(Long seriesId, LocalDate date) {
+        return copies(seriesFrom(seriesId, date));
+    }
+
+    @Override
+    public synchronized int deleteBySeriesFrom(Long seriesId, LocalDate date) {
+        return deleteAll(new ArrayList<>(seriesFrom(seriesId, date)), null).size();
+    }
+
+    private Collection<Booking> seriesFrom(Long seriesId, LocalDate date) {
+        NavigableSet<Booking> occurrences = bySeries.get(seriesId);
+        return occurrences != null ? occurrences.tailSet(probe(date, LocalTime.MIN, null, Long.MIN_VALUE))
+                : List.of();
+    }
+
+    @Override
+    public boolean existsBySeries(Long seriesId) {
+        return bySeries.containsKey(seriesId);
+    }
+
+    /**
+     * Stops writing snapshots and writes a last one.
+     */
+    @PreDestroy
+    public void close() {
+        if (snapshotter == null) {
+            return;
+        }
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotQuietly();
+    }
+
+    /**
+     * Adds bookings after checking all of them, so that a rejected batch leaves
+     * nothing behind.
+     */
+    private synchronized void insert(List<Booking> bookings) {
+        Set<Slot> slots = new HashSet<>();
+        for (Booking booking : bookings) {
+            if (booking.getRoom() == null || booking.getEmployeeEmail() == null || booking.getDate() == null
+                    || booking.getTimeFrom() == null || booking.getTimeTo() == null) {
+                throw new DataIntegrityViolationException("Booking " + booking.getId() + " has a missing field.");
+            }
+            Slot slot = new Slot(booking.getRoom(), booking.getDate(), booking.getTimeFrom());
+            NavigableMap<LocalTime, Booking> day = day(booking.getRoom(), booking.getDate());
+            if (!slots.add(slot) || (day != null && day.containsKey(booking.getTimeFrom()))) {
+                throw new DataIntegrityViolationException(
+                        "Unique index " + Booking.ROOM_DATE_INDEX + " violated by " + slot + ".");
+            }
+            if (byId.containsKey(booking.getId())) {
+                throw new DataIntegrityViolationException("Booking id " + booking.getId() + " is already used.");
+            }
+        }
+        bookings.forEach(this::add);
+        written(() -> bookings.forEach(this::remove));
+    }
+
+    private void add(Booking booking) {
+        byId.put(booking.getId(), booking);
+        schedules.computeIfAbsent(booking.getRoom(), room -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(booking.getDate(), date -> new ConcurrentSkipListMap<>())
+                .put(booking.getTimeFrom(), booking);
+        listing.add(booking);
+        byEmployee.computeIfAbsent(booking.getEmployeeEmail(), email -> new ConcurrentSkipListSet<>(SCHEDULE_ORDER))
+                .add(booking);
+        if (booking.getSeriesId() != null) {
+            bySeries.computeIfAbsent(booking.getSeriesId(), id -> new ConcurrentSkipListSet<>(SCHEDULE_ORDER))
+                    .add(booking);
+        }
+    }
+
+    private void remove(Booking booking) {
+        byId.remove(booking.getId());
+        ConcurrentNavigableMap<LocalDate, ConcurrentNavigableMap<LocalTime, Booking>> days = schedules
+                .get(booking.getRoom());
+        ConcurrentNavigableMap<LocalTime, Booking> day = days.get(booking.getDate());
+        day.remove(booking.getTimeFrom(), booking);
+        if (day.isEmpty()) {
+            days.remove(booking.getDate(), day);
+        }
+        listing.remove(booking);
+        removeFrom(byEmployee, booking.getEmployeeEmail(), booking);
+        if (booking.getSeriesId() != null) {
+            removeFrom(bySeries, booking.getSeriesId(), booking);
+        }
+    }
+
+    private static <K> void removeFrom(ConcurrentMap<K, NavigableSet<Booking>> sets, K key, Booking booking) {
+        NavigableSet<Booking> set = sets.get(key);
+        set.remove(booking);
+        if (set.isEmpty()) {
+            sets.remove(key, set);
+        }
+    }
+
+    /**
+     * Counts a write and, inside a transaction, records how to undo it should
+     * the transaction roll back. Called while holding the store's lock.
+     */
+    private void written(Runnable undo) {
+        writes++;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Deque<Runnable> undoLog = (Deque<Runnable>) TransactionSynchronizationManager.getResource(this);
+        if (undoLog == null) {
+            Deque<Runnable> log = new ArrayDeque<>();
+            TransactionSynchronizationManager.bindResource(this, log);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryBookingStore.this);
+                    if (status != STATUS_COMMITTED) {
+                        rollBack(log);
+                    }
+                }
+            });
+            undoLog = log;
+        }
+        undoLog.push(undo);
+    }
+
+    private synchronized void rollBack(Deque<Runnable> undoLog) {
+        // Most recent first, so a booking saved and deleted in one transaction ends up absent
+        while (!undoLog.isEmpty()) {
+            undoLog.pop().run();
+        }
+        writes++;
+    }
+
+    private NavigableMap<LocalTime, Booking> day(String room, LocalDate date) {
+        ConcurrentNavigableMap<LocalDate, ConcurrentNavigableMap<LocalTime, Booking>> days = schedules.get(room);
+        return days != null ? days.get(date) : null;
+    }
+
+    /**
+     * Checks the bookings of one day starting before {@code timeTo} for one
+     * ending after {@code timeFrom}, collecting them if a list is given.
+     */
+    private static boolean overlaps(NavigableMap<LocalTime, Booking> day, LocalTime timeFrom, LocalTime timeTo,
+            List<Booking> overlapping) {
+        boolean found = false;
+        // Scanned backwards from the end of the interval: a day holds a handful of bookings
+        for (Booking booking : day.headMap(timeTo, false).descendingMap().values()) {
+            if (booking.getTimeTo().isAfter(timeFrom)) {
+                if (overlapping == null) {
+                    return true;
+                }
+                overlapping.add(booking);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private static List<Booking> first(Iterable<Booking> bookings, int limit) {
+        List<Booking> first = new ArrayList<>(Math.min(limit, 64));
+        for (Booking booking : bookings) {
+            if (first.size() == limit) {
+                break;
+            }
+            first.add(copy(booking));
+        }
+        return first;
+    }
+
+    /**
+     * Returns a booking positioned for the lookups of the sorted sets.
+     */
+    private static Booking probe(LocalDate date, LocalTime timeFrom, String room, long id) {
+        Booking probe = new Booking(room, null, date, timeFrom, null);
+        probe.setId(id);
+        return probe;
+    }
+
+    private static List<Booking> copies(Collection<Booking> bookings) {
+        List<Booking> copies = new ArrayList<>();
+        for (Booking booking : bookings) {
+            copies.add(copy(booking));
+        }
+        return copies;
+    }
+
+    private static Booking copy(Booking booking) {
+        Booking copy = new Booking(booking.getRoom(), booking.getEmployeeEmail(), booking.getDate(),
+                booking.getTimeFrom(), booking.getTimeTo());
+        copy.setId(booking.getId());
+        copy.setSeriesId(booking.getSeriesId());
+        return copy;
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (input.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a booking snapshot: " + snapshotFile);
+            }
+            lastId.set(input.readLong());
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = input.readLong();
+                Booking booking = new Booking(input.readUTF(), input.readUTF(),
+                        LocalDate.ofEpochDay(input.readLong()), LocalTime.ofNanoOfDay(input.readLong()),
+                        LocalTime.ofNanoOfDay(input.readLong()));
+                booking.setId(id);
+                if (input.readBoolean()) {
+                    booking.setSeriesId(input.readLong());
+                }
+                roomCatalog.resolve(booking.getRoom());
+                add(booking);
+            }
+            logger.info("Booking store loaded {} bookings from {} in {} ms", count, snapshotFile,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Booking store snapshot to {} failed", snapshotFile, e);
+        }
+    }
+
+    /**
+     * Writes every booking to the snapshot file, unless nothing changed since the
+     * last snapshot. Only the copy of the bookings is taken under the lock.
+     */
+    private void snapshot() throws IOException {
+        List<Booking> bookings;
+        long version;
+        synchronized (this) {
+            if (writes == snapshotWrites) {
+                return;
+            }
+            bookings = new ArrayList<>(byId.values());
+            version = writes;
+        }
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            output.writeInt(SNAPSHOT_MAGIC);
+            output.writeLong(lastId.get());
+            output.writeInt(bookings.size());
+            for (Booking booking : bookings) {
+                output.writeLong(booking.getId());
+                output.writeUTF(booking.getRoom());
+                output.writeUTF(booking.getEmployeeEmail());
+                output.writeLong(booking.getDate().toEpochDay());
+                output.writeLong(booking.getTimeFrom().toNanoOfDay());
+                output.writeLong(booking.getTimeTo().toNanoOfDay());
+                output.writeBoolean(booking.getSeriesId() != null);
+                if (booking.getSeriesId() != null) {
+                    output.writeLong(booking.getSeriesId());
+                }
+            }
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        synchronized (this) {
+            snapshotWrites = Math.max(snapshotWrites, version);
+        }
+    }
+
+    /**
+     * Position of a booking in the unique index.
+     */
+    private record Slot(String room, LocalDate date, LocalTime timeFrom) {
+    }
+}
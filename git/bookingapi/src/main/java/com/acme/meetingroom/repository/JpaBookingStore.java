@@ -0,0 +1,313 @@
+package com.acme.meetingroom.repository;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.service.RoomCatalog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link BookingStore} keeping bookings in the {@code bookings} table through
+ * {@link BookingRepository}. Writes become durable when the surrounding
+ * transaction commits, and a duplicate start time surfaces when the insert is
+ * flushed, at the latest on commit.
+ * <p>
+ * Ids are drawn from the {@code bookings_seq} sequence. {@link #nextId} reserves
+ * them through the same Hibernate generator as bookings saved through JPA, so
+ * both kinds of insert share one pool and ids are fetched a block at a time;
+ * {@link #insertAll} then writes with one JDBC batch, bypassing the
+ * persistence context.
+ * <p>
+ * Set-based deletes lock and read the matching rows with
+ * {@code SELECT ... FOR UPDATE}, then delete them by id in the same
+ * transaction, so callers can announce exactly the rows that were deleted.
+ * Both statements are portable SQL, with id lists split into chunks of
+ * {@value #MAX_IN_LIST}.
+ * <p>
+ * Rooms are stored by their id in the {@link RoomCatalog}. Every write
+ * resolves the rooms of its bookings first, creating those that are new, so
+ * the converter mapping names to ids never has to.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.storage.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaBookingStore implements BookingStore {
+
+    private static final String INSERT = "insert into bookings (id, room_id, employee_email, date, time_from, time_to, series_id) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT = "select id, room_id, employee_email, date, time_from, time_to, series_id from bookings where ";
+
+    private static final String DELETE = "delete from bookings where id in (:ids)";
+
+    /**
+     * Most ids bound to one {@code in} list, below the limit of every common
+     * database.
+     */
+    private static final int MAX_IN_LIST = 1000;
+
+    private final BookingRepository bookingRepository;
+
+    private final RoomCatalog roomCatalog;
+
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final IdentifierGenerator idGenerator;
+
+    /**
+     * Ids reserved from the sequence and not handed out yet, guarded by this.
+     */
+    private final long[] reserved = new long[Booking.ID_ALLOCATION_SIZE];
+
+    private int nextReserved = reserved.length;
+
+    /**
+     * Constructs a new instance of {@link JpaBookingStore}.
+     *
+     * @param bookingRepository    the repository bookings are stored through.
+     * @param roomCatalog          the catalog of rooms and their ids.
+     * @param entityManager        the shared entity manager, used to detach
+     *                             streamed bookings.
+     * @param jdbcTemplate         the template used for batch inserts and
+     *                             set-based deletes.
+     * @param entityManagerFactory the factory whose id generator reserves ids.
+     */
+    public JpaBookingStore(BookingRepository bookingRepository, RoomCatalog roomCatalog, EntityManager entityManager,
+            JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.bookingRepository = bookingRepository;
+        this.roomCatalog = roomCatalog;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.idGenerator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Booking.class).getGenerator();
+    }
+
+    @Override
+    public Booking save(Booking booking) {
+        roomCatalog.resolve(booking.getRoom());
+        return bookingRepository.save(booking);
+    }
+
+    @Override
+    public List<Booking> saveAll(List<Booking> bookings) {
+        bookings.forEach(booking -> roomCatalog.resolve(booking.getRoom()));
+        return bookingRepository.saveAll(bookings);
+    }
+
+    @Override
+    public synchronized long nextId() {
+        if (nextReserved == reserved.length) {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                for (int i = 0; i < reserved.length; i++) {
+                    reserved[i] = ((Number) idGenerator.generate((SharedSessionContractImplementor) session, null))
+                            .longValue();
+                }
+            }
+            nextReserved = 0;
+        }
+        return reserved[nextReserved++];
+    }
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        bookings.forEach(booking -> roomCatalog.resolve(booking.getRoom()));
+        jdbcTemplate.batchUpdate(INSERT, bookings, bookings.size(), (statement, booking) -> {
+            statement.setLong(1, booking.getId());
+            statement.setInt(2, roomCatalog.idOf(booking.getRoom()));
+            statement.setString(3, booking.getEmployeeEmail());
+            statement.setObject(4, booking.getDate());
+            statement.setObject(5, booking.getTimeFrom());
+            statement.setObject(6, booking.getTimeTo());
+            if (booking.getSeriesId() != null) {
+                statement.setLong(7, booking.getSeriesId());
+            } else {
+                statement.setNull(7, Types.BIGINT);
+            }
+        });
+    }
+
+    @Override
+    public Optional<Booking> findById(Long id) {
+        return bookingRepository.findById(id);
+    }
+
+    @Override
+    public void delete(Booking booking) {
+        bookingRepository.delete(booking);
+    }
+
+    @Override
+    public List<Booking> deleteByIdsFrom(Collection<Long> ids, LocalDate date, Collection<String> rooms) {
+        List<Long> all = List.copyOf(ids);
+        List<Booking> deleted = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += MAX_IN_LIST) {
+            deleted.addAll(delete("id in (:ids) and date >= :date", rooms,
+                    Map.of("ids", all.subList(i, Math.min(i + MAX_IN_LIST, all.size())), "date", date)));
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<Booking> deleteByEmployeeFrom(String employeeEmail, LocalDate date, Collection<String> rooms) {
+        return delete("employee_email = :employeeEmail and date >= :date", rooms,
+                Map.of("employeeEmail", employeeEmail, "date", date));
+    }
+
+    @Override
+    public List<Booking> deleteByRoomBetween(String room, LocalDate from, LocalDate to) {
+        return delete("room_id = :room and date between :from and :to", null,
+                Map.of("room", roomCatalog.idOf(room), "from", from, "to", to));
+    }
+
+    /**
+     * Locks and reads the rows matching a condition, restricted to some rooms if
+     * given, deletes them by id and returns them.
+     */
+    private List<Booking> delete(String condition, Collection<String> rooms, Map<String, Object> parameters) {
+        MapSqlParameterSource source = new MapSqlParameterSource(parameters);
+        String where = condition;
+        if (rooms != null) {
+            if (rooms.isEmpty()) {
+                return List.of();
+            }
+            where += " and room_id in (:rooms)";
+            source.addValue("rooms", rooms.stream().map(roomCatalog::idOf).toList());
+        }
+        List<Booking> deleted = namedJdbcTemplate.query(SELECT + where + " for update", source, this::toBooking);
+        List<Long> ids = deleted.stream().map(Booking::getId).toList();
+        for (int i = 0; i < ids.size(); i += MAX_IN_LIST) {
+            namedJdbcTemplate.update(DELETE, Map.of("ids", ids.subList(i, Math.min(i + MAX_IN_LIST, ids.size()))));
+        }
+        return deleted;
+    }
+
+    /**
+     * Maps a deleted row back to a booking.
+     */
+    private Booking toBooking(ResultSet resultSet, int row) throws SQLException {
+        Booking booking = new Booking(roomCatalog.nameOf(resultSet.getInt("room_id")),
+                resultSet.getString("employee_email"), resultSet.getObject("date", LocalDate.class),
+                resultSet.getObject("time_from", LocalTime.class), resultSet.getObject("time_to", LocalTime.class));
+        booking.setId(resultSet.getLong("id"));
+        booking.setSeriesId(resultSet.getObject("series_id", Long.class));
+        return booking;
+    }
+
+    @Override
+    public List<Booking> findByRoomAndDate(String room, LocalDate date) {
+        return bookingRepository.findByRoomAndDate(room, date);
+    }
+
+    @Override
+    public List<Booking> findFrom(LocalDate date) {
+        return bookingRepository.findByDateGreaterThanEqual(date);
+    }
+
+    @Override
+    public List<Long> findIdsFrom(LocalDate date) {
+        return bookingRepository.findIdsFrom(date);
+    }
+
+    @Override
+    public List<Booking> findFromAfterId(LocalDate date, long id) {
+        return bookingRepository.findFromAfterId(date, id);
+    }
+
+    @Override
+    public long countFrom(LocalDate date) {
+        return bookingRepository.countByDateGreaterThanEqual(date);
+    }
+
+    @Override
+    public List<Booking> findAllById(Collection<Long> ids) {
+        return bookingRepository.findAllById(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Rows are read from a database cursor in chunks and detached as they are
+     * handed out, so memory stays flat over long ranges.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachBetween(String room, LocalDate from, LocalDate to, Consumer<Booking> consumer) {
+        try (Stream<Booking> bookings = room != null
+                ? bookingRepository.streamByRoomAndDateBetweenOrderByDateAscTimeFromAsc(room, from, to)
+                : bookingRepository.streamByDateBetweenOrderByDateAscTimeFromAscRoomAsc(from, to)) {
+            bookings.forEach(booking -> {
+                entityManager.detach(booking);
+                consumer.accept(booking);
+            });
+        }
+    }
+
+    @Override
+    public List<Booking> findPageAfter(LocalDate date, LocalTime timeFrom, String room, long id, int limit) {
+        return bookingRepository.findPageAfter(date, timeFrom, room, id, Limit.of(limit));
+    }
+
+    @Override
+    public List<Booking> findPageByEmployeeAfter(String employeeEmail, LocalDate date, LocalTime timeFrom, long id,
+            int limit) {
+        return bookingRepository.findPageByEmployeeAfter(employeeEmail, date, timeFrom, id, Limit.of(limit));
+    }
+
+    @Override
+    public boolean existsOverlapping(String room, LocalDate date, LocalTime timeFrom, LocalTime timeTo) {
+        return bookingRepository.existsByRoomAndDateAndTimeFromLessThanAndTimeToGreaterThan(room, date, timeTo,
+                timeFrom);
+    }
+
+    @Override
+    public List<Booking> findOverlapping(String room, LocalDate from, LocalDate to, LocalTime timeFrom,
+            LocalTime timeTo) {
+        return bookingRepository.findByRoomAndDateBetweenAndTimeFromLessThanAndTimeToGreaterThan(room, from, to,
+                timeTo, timeFrom);
+    }
+
+    @Override
+    public List<Booking> findBySeriesFrom(Long seriesId, LocalDate date) {
+        return bookingRepository.findBySeriesIdAndDateGreaterThanEqual(seriesId, date);
+    }
+
+    @Override
+    @Transactional
+    public int deleteBySeriesFrom(Long seriesId, LocalDate date) {
+        return bookingRepository.deleteBySeriesIdFrom(seriesId, date);
+    }
+
+    @Override
+    public boolean existsBySeries(Long seriesId) {
+        return bookingRepository.existsBySeriesId(seriesId);
+    }
+}
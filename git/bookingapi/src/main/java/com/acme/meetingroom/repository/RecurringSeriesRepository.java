@@ -0,0 +1,12 @@
+package com.acme.meetingroom.repository;
+
+import com.acme.meetingroom.entity.RecurringSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for managing {@link RecurringSeries} entities.
+ */
+@Repository
+public interface RecurringSeriesRepository extends JpaRepository<RecurringSeries, Long> {
+}
@@ -0,0 +1,22 @@
+package com.acme.meetingroom.repository;
+
+import com.acme.meetingroom.entity.Room;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for managing {@link Room} entities.
+ */
+@Repository
+public interface RoomRepository extends JpaRepository<Room, Integer> {
+
+    /**
+     * Finds a room by its unique name.
+     *
+     * @param name the name of the room.
+     * @return the room, or empty if no room has that name.
+     */
+    Optional<Room> findByName(String name);
+}
@@ -0,0 +1,106 @@
+package com.acme.meetingroom.service;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Serializes booking admission per (room, date) with a fixed array of striped
+ * locks. Requests for the same room and date always map to the same stripe, so
+ * the check-then-insert in the booking service cannot interleave for them,
+ * while unrelated rooms almost always map to different stripes and proceed in
+ * parallel.
+ * <p>
+ * A stripe stays locked until the surrounding transaction has completed, so
+ * the next request for the same room and date observes the committed booking
+ * in the {@link RoomScheduleIndex}.
+ */
+@Component
+public class BookingAdmissionControl {
+
+	private final ReentrantLock[] stripes;
+
+	private final int mask;
+
+	/**
+	 * Constructs a new instance of {@link BookingAdmissionControl}.
+	 *
+	 * @param stripes the requested number of lock stripes, rounded up to a power
+	 *                of two.
+	 */
+	public BookingAdmissionControl(@Value("${booking.admission.stripes:1024}") int stripes) {
+		int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+		this.stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			this.stripes[i] = new ReentrantLock();
+		}
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Blocks until the stripe guarding the given room and date is acquired.
+	 * Every call must be paired with {@link #releaseAfterCompletion(int)}.
+	 *
+	 * @param key the room and date being booked.
+	 * @return the index of the acquired stripe.
+	 */
+	public int acquire(RoomDate key) {
+		int stripe = stripeOf(key);
+		stripes[stripe].lock();
+		return stripe;
+	}
+
+	/**
+	 * Acquires the stripes guarding all given rooms and dates. Stripes are taken
+	 * in ascending order so that concurrent multi-key admissions cannot
+	 * deadlock. Every returned stripe must be passed to
+	 * {@link #releaseAfterCompletion(int)}.
+	 *
+	 * @param keys the rooms and dates being booked.
+	 * @return the distinct indexes of the acquired stripes.
+	 */
+	public int[] acquireAll(Collection<RoomDate> keys) {
+		int[] acquired = keys.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+		for (int stripe : acquired) {
+			stripes[stripe].lock();
+		}
+		return acquired;
+	}
+
+	/**
+	 * Releases a stripe once the current transaction has completed, or
+	 * immediately if no transaction is active. Call this after the booking
+	 * change events have been published, so that their after-commit listeners
+	 * run before the stripe is released.
+	 *
+	 * @param stripe the index returned by {@link #acquire(RoomDate)}.
+	 */
+	public void releaseAfterCompletion(int stripe) {
+		ReentrantLock lock = stripes[stripe];
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			lock.unlock();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				lock.unlock();
+			}
+		});
+	}
+
+	/**
+	 * Returns the stripe guarding the given room and date.
+	 *
+	 * @param key the room and date.
+	 * @return the stripe index.
+	 */
+	public int stripeOf(RoomDate key) {
+		int h = key.hashCode();
+		return (h ^ (h >>> 16)) & mask;
+	}
+}
@@ -0,0 +1,93 @@
+package com.acme.meetingroom.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.acme.meetingroom.entity.Booking;
+
+/**
+ * Position in a keyset-paginated booking listing: the (date, time_from, room,
+ * id) key of the last booking of a page. Clients receive it as an opaque
+ * URL-safe token and send it back unchanged to read the next page, so a page
+ * is always a bounded index range scan from the key, however deep it is.
+ */
+public final class BookingCursor {
+
+	private final LocalDate date;
+
+	private final LocalTime timeFrom;
+
+	private final String room;
+
+	private final long id;
+
+	private BookingCursor(LocalDate date, LocalTime timeFrom, String room, long id) {
+		this.date = date;
+		this.timeFrom = timeFrom;
+		this.room = room;
+		this.id = id;
+	}
+
+	/**
+	 * Returns a position before every booking dated on or after the given date.
+	 * Rooms are never empty and ids start at 1, so no booking sorts before it.
+	 */
+	public static BookingCursor startOf(LocalDate date) {
+		return new BookingCursor(date, LocalTime.MIDNIGHT, "", 0);
+	}
+
+	/**
+	 * Returns the position just after the given booking.
+	 */
+	public static BookingCursor after(Booking booking) {
+		return new BookingCursor(booking.getDate(), booking.getTimeFrom(), booking.getRoom(), booking.getId());
+	}
+
+	/**
+	 * Decodes a token produced by {@link #encode()}.
+	 *
+	 * @param token the token sent by the client.
+	 * @return the decoded position.
+	 * @throws IllegalArgumentException if the token is malformed.
+	 */
+	public static BookingCursor decode(String token) {
+		try {
+			String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+			if (parts.length != 4) {
+				throw new IllegalArgumentException("Invalid cursor.");
+			}
+			// The room is last because it is the only part that may contain the separator
+			return new BookingCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), parts[3],
+					Long.parseLong(parts[2]));
+		} catch (DateTimeParseException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor.", e);
+		}
+	}
+
+	/**
+	 * Encodes the position as an opaque URL-safe token.
+	 */
+	public String encode() {
+		String key = date + "|" + timeFrom + "|" + id + "|" + room;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public LocalTime getTimeFrom() {
+		return timeFrom;
+	}
+
+	public String getRoom() {
+		return room;
+	}
+
+	public long getId() {
+		return id;
+	}
+}
@@ -0,0 +1,81 @@
+package com.acme.meetingroom.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Interns employee emails as dense int ids, so the in-memory schedule
+ * structures can store a 4-byte id per booking instead of a reference to a
+ * string of their own. Every distinct email is kept once for the lifetime of
+ * the application; ids are never reused. Rooms are numbered by the
+ * {@link RoomCatalog} instead.
+ */
+@Component
+public class BookingDictionary {
+
+	private final Names employees = new Names();
+
+	/**
+	 * Returns the id of an employee, assigning the next free id on first use.
+	 *
+	 * @param employeeEmail the email of the employee.
+	 * @return the id of the employee.
+	 */
+	public int employeeId(String employeeEmail) {
+		return employees.idOf(employeeEmail);
+	}
+
+	/**
+	 * Returns the employee with the given id.
+	 *
+	 * @param id an id returned by {@link #employeeId}.
+	 * @return the interned employee email.
+	 */
+	public String employee(int id) {
+		return employees.nameOf(id);
+	}
+
+	/**
+	 * One dictionary. Lookups of known names are lock free; a new name is
+	 * stored in the array before its id is published in the map, so any thread
+	 * that obtained an id can read its name.
+	 */
+	private static final class Names {
+
+		private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+		private volatile String[] names = new String[64];
+
+		/**
+		 * Number of assigned ids, guarded by this.
+		 */
+		private int size;
+
+		int idOf(String name) {
+			Integer id = ids.get(name);
+			return id != null ? id : register(name);
+		}
+
+		String nameOf(int id) {
+			return names[id];
+		}
+
+		private synchronized int register(String name) {
+			Integer id = ids.get(name);
+			if (id != null) {
+				return id;
+			}
+			String[] current = names;
+			if (size == current.length) {
+				current = Arrays.copyOf(current, size * 2);
+			}
+			current[size] = name;
+			names = current;
+			ids.put(name, size);
+			return size++;
+		}
+	}
+}
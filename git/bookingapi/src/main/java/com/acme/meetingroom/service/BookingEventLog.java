@@ -0,0 +1,464 @@
+package com.acme.meetingroom.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.event.BookingChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only log of committed booking changes, used to rebuild the
+ * {@link RoomScheduleIndex} after a restart without reading the whole
+ * {@code bookings} table.
+ * <p>
+ * Changes are appended to a memory-mapped segment file
+ * {@code events-<generation>.log}. Periodically, and whenever a segment fills
+ * up, the log rolls over to the next generation and a background thread folds
+ * the previous snapshot and the sealed segments into a compact
+ * {@code snapshot-<generation>.bin} holding only the bookings dated today or
+ * later. Startup then reads the latest snapshot plus the segments written
+ * after it, so its cost follows recent activity rather than total history.
+ * <p>
+ * Each record is a length, a CRC32 and a payload; reading stops at the first
+ * zero length or bad checksum, so a record torn by a crash is ignored. Mapped
+ * writes survive a process crash but are only forced to disk on roll-over and
+ * shutdown, and a change committed just before a crash may be missing from the
+ * log; {@link RoomScheduleIndex} therefore reconciles the replayed bookings
+ * with the database, starting from the highest id the log holds, and appends
+ * what the log missed. The log only
+ * makes sense with a persistent database.
+ */
+@Component
+@ConditionalOnProperty("booking.event-log.directory")
+public class BookingEventLog {
+	private static final Logger logger = LoggerFactory.getLogger(BookingEventLog.class);
+
+	private static final String LOG_PREFIX = "events-";
+
+	private static final String LOG_SUFFIX = ".log";
+
+	private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+	private static final String SNAPSHOT_SUFFIX = ".bin";
+
+	private static final byte CREATED = 1;
+
+	private static final byte CANCELLED = 2;
+
+	/**
+	 * Record length and checksum preceding every payload.
+	 */
+	private static final int HEADER = 8;
+
+	private final Path directory;
+
+	private final int segmentSize;
+
+	private final ScheduledExecutorService compactor;
+
+	private final Object appendLock = new Object();
+
+	/**
+	 * Keeps compactions from deleting files that another compaction or a replay
+	 * is reading. Taken before appendLock.
+	 */
+	private final Object compactionLock = new Object();
+
+	/**
+	 * Generation of the segment being appended to, guarded by appendLock.
+	 */
+	private long generation = -1;
+
+	private FileChannel channel;
+
+	private MappedByteBuffer segment;
+
+	/**
+	 * Constructs a new instance of {@link BookingEventLog} and reopens the
+	 * latest segment of an existing log.
+	 *
+	 * @param directory        the directory holding segments and snapshots.
+	 * @param segmentSize      the size of a mapped segment file.
+	 * @param snapshotInterval how often to roll over and compact the log.
+	 * @throws IOException if the directory or segment cannot be opened.
+	 */
+	public BookingEventLog(@Value("${booking.event-log.directory}") Path directory,
+			@Value("${booking.event-log.segment-size:16MB}") DataSize segmentSize,
+			@Value("${booking.event-log.snapshot-interval:PT10M}") Duration snapshotInterval) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+		long latest = Math.max(latest(LOG_PREFIX, LOG_SUFFIX), latest(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+		if (latest >= 0) {
+			open(latest);
+		}
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("booking-event-log-");
+		threadFactory.setDaemon(true);
+		this.compactor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		long period = snapshotInterval.toMillis();
+		compactor.scheduleWithFixedDelay(this::compactQuietly, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Tells whether the log holds a complete history, that is whether it has been
+	 * bootstrapped from the database before.
+	 *
+	 * @return true if {@link #replay} can rebuild the current state.
+	 */
+	public boolean isInitialized() {
+		synchronized (appendLock) {
+			return generation >= 0;
+		}
+	}
+
+	/**
+	 * Starts a new log from the current bookings, read from the database.
+	 *
+	 * @param bookings the bookings to write as the first snapshot.
+	 */
+	public void bootstrap(Collection<Booking> bookings) {
+		synchronized (appendLock) {
+			try {
+				writeSnapshot(0, bookings);
+				open(0);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		logger.info("Booking event log started in {} with {} bookings", directory, bookings.size());
+	}
+
+	/**
+	 * Rebuilds the bookings dated on or after the given date from the latest
+	 * snapshot and the segments written after it.
+	 *
+	 * @param from     the first date to include.
+	 * @param consumer receives every current booking; only the id, room, date
+	 *                 and times are restored.
+	 * @return the highest booking id found in the log.
+	 */
+	public long replay(LocalDate from, Consumer<Booking> consumer) {
+		long[] maxId = new long[1];
+		Map<Long, Booking> state;
+		synchronized (compactionLock) {
+			long upTo;
+			synchronized (appendLock) {
+				upTo = generation;
+			}
+			state = load(upTo, from, maxId);
+		}
+		for (Booking booking : state.values()) {
+			consumer.accept(booking);
+		}
+		return maxId[0];
+	}
+
+	/**
+	 * Appends committed booking changes to the log.
+	 *
+	 * @param event the booking change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		ByteBuffer record = encode(event.getType() == BookingChangedEvent.Type.CREATED ? CREATED : CANCELLED,
+				event.getBooking());
+		synchronized (appendLock) {
+			if (generation < 0) {
+				return;
+			}
+			try {
+				if (segment.remaining() < record.remaining()) {
+					rollOver();
+					compactor.execute(this::compactQuietly);
+				}
+				segment.put(record);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Rolls over to a new segment and folds the sealed ones into a new snapshot,
+	 * then deletes the files the snapshot replaces. Does nothing if nothing was
+	 * appended since the last roll-over.
+	 *
+	 * @throws IOException if the snapshot cannot be written.
+	 */
+	public void compact() throws IOException {
+		synchronized (compactionLock) {
+			long sealed;
+			synchronized (appendLock) {
+				if (generation < 0 || segment.position() == 0) {
+					return;
+				}
+				sealed = generation;
+				rollOver();
+			}
+			long start = System.nanoTime();
+			Map<Long, Booking> state = load(sealed, LocalDate.now(), new long[1]);
+			writeSnapshot(sealed + 1, state.values());
+			try (Stream<Path> files = Files.list(directory)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					long fileGeneration = generationOf(file);
+					if (fileGeneration >= 0 && fileGeneration <= sealed) {
+						Files.deleteIfExists(file);
+					}
+				}
+			}
+			logger.info("Booking event log compacted into snapshot {} with {} bookings in {} ms", sealed + 1,
+					state.size(), (System.nanoTime() - start) / 1_000_000);
+		}
+	}
+
+	/**
+	 * Forces the current segment to disk and stops compaction.
+	 */
+	@PreDestroy
+	public void close() {
+		compactor.shutdownNow();
+		try {
+			// Let a running compaction finish its snapshot before the files are left alone
+			compactor.awaitTermination(30, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (appendLock) {
+			if (generation >= 0) {
+				segment.force();
+				closeChannel();
+				generation = -1;
+			}
+		}
+	}
+
+	private void compactQuietly() {
+		try {
+			compact();
+		} catch (IOException | RuntimeException e) {
+			logger.error("Booking event log compaction failed", e);
+		}
+	}
+
+	/**
+	 * Opens the segment of a generation for appending, positioned after its last
+	 * intact record. Called with appendLock held or from the constructor.
+	 */
+	private void open(long next) throws IOException {
+		FileChannel opened = FileChannel.open(segmentPath(next), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		MappedByteBuffer mapped = opened.map(FileChannel.MapMode.READ_WRITE, 0,
+				Math.max(segmentSize, opened.size()));
+		mapped.position(validLength(mapped, record -> {
+		}));
+		channel = opened;
+		segment = mapped;
+		generation = next;
+	}
+
+	/**
+	 * Seals the current segment and opens the next one. Called with appendLock
+	 * held.
+	 */
+	private void rollOver() throws IOException {
+		segment.force();
+		closeChannel();
+		open(generation + 1);
+	}
+
+	private void closeChannel() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.warn("Could not close booking event log segment {}", generation, e);
+		}
+	}
+
+	/**
+	 * Folds the latest snapshot at or before a generation and the segments from
+	 * that snapshot up to the generation into the current bookings.
+	 */
+	private Map<Long, Booking> load(long upTo, LocalDate from, long[] maxId) {
+		Map<Long, Booking> state = new LinkedHashMap<>();
+		try {
+			long base = -1;
+			for (long candidate = upTo; candidate >= 0; candidate--) {
+				if (Files.exists(snapshotPath(candidate))) {
+					base = candidate;
+					break;
+				}
+			}
+			Consumer<ByteBuffer> apply = record -> apply(record, state, from, maxId);
+			if (base >= 0) {
+				read(snapshotPath(base), apply);
+			}
+			for (long next = Math.max(base, 0); next <= upTo; next++) {
+				read(segmentPath(next), apply);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return state;
+	}
+
+	private static void apply(ByteBuffer record, Map<Long, Booking> state, LocalDate from, long[] maxId) {
+		byte type = record.get();
+		long id = record.getLong();
+		LocalDate date = LocalDate.ofEpochDay(record.getLong());
+		LocalTime timeFrom = LocalTime.ofSecondOfDay(record.getInt());
+		LocalTime timeTo = LocalTime.ofSecondOfDay(record.getInt());
+		byte[] room = new byte[record.getShort()];
+		record.get(room);
+		maxId[0] = Math.max(maxId[0], id);
+		if (type == CANCELLED) {
+			state.remove(id);
+		} else if (!date.isBefore(from)) {
+			Booking booking = new Booking(new String(room, StandardCharsets.UTF_8), null, date, timeFrom, timeTo);
+			booking.setId(id);
+			state.put(id, booking);
+		}
+	}
+
+	private static void read(Path file, Consumer<ByteBuffer> consumer) throws IOException {
+		if (!Files.exists(file)) {
+			return;
+		}
+		try (FileChannel input = FileChannel.open(file, StandardOpenOption.READ)) {
+			validLength(input.map(FileChannel.MapMode.READ_ONLY, 0, input.size()), consumer);
+		}
+	}
+
+	/**
+	 * Hands every intact record from the start of the buffer to the consumer and
+	 * returns the length of the intact prefix.
+	 */
+	private static int validLength(ByteBuffer buffer, Consumer<ByteBuffer> consumer) {
+		int position = 0;
+		CRC32 crc = new CRC32();
+		while (buffer.limit() - position >= HEADER) {
+			int length = buffer.getInt(position);
+			if (length <= 0 || length > buffer.limit() - position - HEADER) {
+				break;
+			}
+			ByteBuffer payload = buffer.slice(position + HEADER, length);
+			crc.reset();
+			crc.update(payload.duplicate());
+			if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+				break;
+			}
+			consumer.accept(payload);
+			position += HEADER + length;
+		}
+		return position;
+	}
+
+	private static ByteBuffer encode(byte type, Booking booking) {
+		byte[] room = booking.getRoom().getBytes(StandardCharsets.UTF_8);
+		int length = 1 + 8 + 8 + 4 + 4 + 2 + room.length;
+		ByteBuffer record = ByteBuffer.allocate(HEADER + length);
+		record.position(HEADER);
+		record.put(type).putLong(booking.getId()).putLong(booking.getDate().toEpochDay())
+				.putInt(booking.getTimeFrom().toSecondOfDay()).putInt(booking.getTimeTo().toSecondOfDay())
+				.putShort((short) room.length).put(room);
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), HEADER, length);
+		record.putInt(0, length).putInt(4, (int) crc.getValue());
+		return record.flip();
+	}
+
+	/**
+	 * Writes a snapshot to a temporary file and moves it into place, so a
+	 * snapshot file is either complete or absent.
+	 */
+	private void writeSnapshot(long snapshotGeneration, Collection<Booking> bookings) throws IOException {
+		Path temporary = directory.resolve(SNAPSHOT_PREFIX + snapshotGeneration + ".tmp");
+		try (FileChannel output = FileChannel.open(temporary, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+			for (Booking booking : bookings) {
+				ByteBuffer record = encode(CREATED, booking);
+				if (chunk.remaining() < record.remaining()) {
+					output.write(chunk.flip());
+					chunk.clear();
+				}
+				chunk.put(record);
+			}
+			output.write(chunk.flip());
+			output.force(true);
+		}
+		Files.move(temporary, snapshotPath(snapshotGeneration), StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private Path segmentPath(long segmentGeneration) {
+		return directory.resolve(String.format("%s%08d%s", LOG_PREFIX, segmentGeneration, LOG_SUFFIX));
+	}
+
+	private Path snapshotPath(long snapshotGeneration) {
+		return directory.resolve(String.format("%s%08d%s", SNAPSHOT_PREFIX, snapshotGeneration, SNAPSHOT_SUFFIX));
+	}
+
+	/**
+	 * Returns the generation of a segment or snapshot file, or -1 for any other
+	 * file.
+	 */
+	private static long generationOf(Path file) {
+		String name = file.getFileName().toString();
+		String digits;
+		if (name.startsWith(LOG_PREFIX) && name.endsWith(LOG_SUFFIX)) {
+			digits = name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length());
+		} else if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX)) {
+			digits = name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length());
+		} else {
+			return -1;
+		}
+		try {
+			return Long.parseLong(digits);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private long latest(String prefix, String suffix) throws IOException {
+		long latest = -1;
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				String name = file.getFileName().toString();
+				if (name.startsWith(prefix) && name.endsWith(suffix)) {
+					latest = Math.max(latest, generationOf(file));
+				}
+			}
+		}
+		return latest;
+	}
+}
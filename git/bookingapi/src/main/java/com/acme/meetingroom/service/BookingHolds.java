@@ -0,0 +1,247 @@
+package com.acme.meetingroom.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.acme.meetingroom.dto.BookingHold;
+import com.acme.meetingroom.exception.RequestThrottledException;
+import com.acme.meetingroom.utils.HashedTimerWheel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory store of booking holds. A hold keeps a room and time range from
+ * being booked or held by anyone else until it is confirmed, released or its
+ * time to live runs out, without touching the database.
+ * <p>
+ * Callers place, claim and release holds while holding the admission lock of
+ * the room and date, like any other change of the schedule. Expired holds are
+ * ignored by every lookup at once and removed by a {@link HashedTimerWheel}
+ * shortly after. The number of live holds is published as the
+ * {@code booking.holds.active} gauge and expirations are counted in
+ * {@code booking.holds.expired}.
+ * <p>
+ * An employee may hold a limited number of slots at a time, and so may all
+ * employees together, so that one client cannot hold every free slot or fill
+ * the memory. Holds count against both limits until they are removed.
+ */
+@Component
+public class BookingHolds {
+
+	private final Duration ttl;
+
+	private final ConcurrentMap<String, Hold> byToken = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<RoomDate, Set<Hold>> byRoomDate = new ConcurrentHashMap<>();
+
+	/**
+	 * Number of holds of every employee with at least one.
+	 */
+	private final ConcurrentMap<String, Integer> byEmployee = new ConcurrentHashMap<>();
+
+	private final AtomicInteger count = new AtomicInteger();
+
+	private final int maxPerEmployee;
+
+	private final int maxHolds;
+
+	private final HashedTimerWheel<Hold> reaper;
+
+	private final Counter expired;
+
+	/**
+	 * Constructs a new instance of {@link BookingHolds}.
+	 *
+	 * @param ttl            how long a hold lasts unless confirmed or released.
+	 * @param tick           the precision of the expiry of holds.
+	 * @param wheelSize      the number of buckets of the expiry timer wheel.
+	 * @param maxPerEmployee the maximum number of holds of one employee.
+	 * @param maxHolds       the maximum number of holds of all employees.
+	 * @param meterRegistry  the registry for hold metrics.
+	 */
+	public BookingHolds(@Value("${booking.hold.ttl:PT2M}") Duration ttl,
+			@Value("${booking.hold.tick:PT0.1S}") Duration tick,
+			@Value("${booking.hold.wheel-size:2048}") int wheelSize,
+			@Value("${booking.hold.max-per-employee:10}") int maxPerEmployee,
+			@Value("${booking.hold.max-holds:10000}") int maxHolds, MeterRegistry meterRegistry) {
+		this.ttl = ttl;
+		this.maxPerEmployee = maxPerEmployee;
+		this.maxHolds = maxHolds;
+		this.reaper = new HashedTimerWheel<>("booking-hold-reaper", tick, wheelSize, this::expire);
+		this.expired = meterRegistry.counter("booking.holds.expired");
+		meterRegistry.gaugeMapSize("booking.holds.active", List.of(), byToken);
+	}
+
+	/**
+	 * Places a new hold. The caller must have checked that the range is free.
+	 *
+	 * @param room          the name or identifier of the meeting room.
+	 * @param employeeEmail the email of the employee holding the room.
+	 * @param date          the date of the held slot.
+	 * @param timeFrom      the start of the held slot (inclusive).
+	 * @param timeTo        the end of the held slot (exclusive).
+	 * @return the hold with its token and expiry.
+	 * @throws RequestThrottledException if the employee or all employees
+	 *                                   together hold the maximum number of
+	 *                                   slots.
+	 */
+	public BookingHold place(String room, String employeeEmail, LocalDate date, LocalTime timeFrom,
+			LocalTime timeTo) {
+		reserve(employeeEmail);
+		BookingHold hold = new BookingHold(UUID.randomUUID().toString(), room, employeeEmail, date, timeFrom, timeTo,
+				Instant.now().plus(ttl));
+		Hold entry = new Hold(hold, System.nanoTime() + ttl.toNanos());
+		byToken.put(hold.getToken(), entry);
+		// Add inside compute so a concurrent removal of the last hold cannot drop the set under us
+		byRoomDate.compute(new RoomDate(room, date), (key, held) -> {
+			Set<Hold> target = held != null ? held : ConcurrentHashMap.newKeySet();
+			target.add(entry);
+			return target;
+		});
+		reaper.schedule(entry, ttl);
+		return hold;
+	}
+
+	/**
+	 * Returns a live hold.
+	 *
+	 * @param token the token of the hold.
+	 * @return the hold, or empty if it is unknown or has expired.
+	 */
+	public Optional<BookingHold> find(String token) {
+		Hold entry = byToken.get(token);
+		return entry != null && entry.isLive() ? Optional.of(entry.hold) : Optional.empty();
+	}
+
+	/**
+	 * Removes a live hold so that it can be turned into a booking.
+	 *
+	 * @param token the token of the hold.
+	 * @return the hold, or empty if it is unknown or has expired.
+	 */
+	public Optional<BookingHold> claim(String token) {
+		Hold entry = byToken.get(token);
+		if (entry == null || !entry.isLive() || !remove(entry)) {
+			return Optional.empty();
+		}
+		return Optional.of(entry.hold);
+	}
+
+	/**
+	 * Checks whether a live hold overlaps the half-open interval, using the same
+	 * comparison as the booking conflict checks.
+	 *
+	 * @param room     the name or identifier of the meeting room.
+	 * @param date     the date to check.
+	 * @param timeFrom the requested start time.
+	 * @param timeTo   the requested end time.
+	 * @return true if the range is held.
+	 */
+	public boolean hasOverlap(String room, LocalDate date, LocalTime timeFrom, LocalTime timeTo) {
+		Set<Hold> held = byRoomDate.get(new RoomDate(room, date));
+		if (held == null) {
+			return false;
+		}
+		for (Hold entry : held) {
+			BookingHold hold = entry.hold;
+			if (entry.isLive() && hold.getTimeFrom().isBefore(timeTo) && hold.getTimeTo().isAfter(timeFrom)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of holds not yet removed, including expired ones the
+	 * reaper has not reached yet.
+	 *
+	 * @return the hold count.
+	 */
+	public int size() {
+		return byToken.size();
+	}
+
+	/**
+	 * Stops the reaper.
+	 */
+	@PreDestroy
+	public void close() {
+		reaper.close();
+	}
+
+	private void expire(Hold entry) {
+		if (remove(entry)) {
+			expired.increment();
+		}
+	}
+
+	/**
+	 * Removes a hold and returns true if this call removed it.
+	 */
+	private boolean remove(Hold entry) {
+		if (!byToken.remove(entry.hold.getToken(), entry)) {
+			return false;
+		}
+		byRoomDate.computeIfPresent(new RoomDate(entry.hold.getRoom(), entry.hold.getDate()), (key, held) -> {
+			held.remove(entry);
+			return held.isEmpty() ? null : held;
+		});
+		byEmployee.computeIfPresent(entry.hold.getEmployeeEmail(), (key, held) -> held > 1 ? held - 1 : null);
+		count.decrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Counts a new hold of an employee against both limits, or throws if either
+	 * is reached. A slot frees up within the time to live of the holds.
+	 */
+	private void reserve(String employeeEmail) {
+		if (count.incrementAndGet() > maxHolds) {
+			count.decrementAndGet();
+			throw new RequestThrottledException("Too many rooms are held, retry later.", ttl);
+		}
+		try {
+			byEmployee.compute(employeeEmail, (key, held) -> {
+				int holds = held != null ? held : 0;
+				if (holds >= maxPerEmployee) {
+					throw new RequestThrottledException(
+							"At most " + maxPerEmployee + " rooms can be held at a time by one employee.", ttl);
+				}
+				return holds + 1;
+			});
+		} catch (RequestThrottledException e) {
+			count.decrementAndGet();
+			throw e;
+		}
+	}
+
+	private static final class Hold {
+
+		private final BookingHold hold;
+
+		private final long deadline;
+
+		Hold(BookingHold hold, long deadline) {
+			this.hold = hold;
+			this.deadline = deadline;
+		}
+
+		boolean isLive() {
+			return System.nanoTime() - deadline < 0;
+		}
+	}
+}
@@ -2,9 +2,19 @@ package com.acme.meetingroom.service;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
+import com.acme.meetingroom.dto.BookingBatchResult;
+import com.acme.meetingroom.dto.BookingHold;
+import com.acme.meetingroom.dto.BookingPage;
+import com.acme.meetingroom.dto.RoomAvailability;
 import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.exception.BookingConflictException;
+import com.acme.meetingroom.exception.HoldNotFoundException;
 
 /**
  * Service interface for managing meeting room bookings.
@@ -21,6 +31,63 @@ public interface BookingService {
      */
     List<Booking> findBookingsByRoomAndDate(String room, LocalDate date);
 
+    /**
+     * Retrieves a booking by its identifier.
+     *
+     * @param bookingId the ID of the booking.
+     * @return the booking, or empty if no booking exists with the specified ID.
+     */
+    Optional<Booking> findBooking(Long bookingId);
+
+    /**
+     * Reads the bookings between two dates in schedule order and hands them to the
+     * consumer one at a time, without collecting them. Each booking is detached before
+     * it is handed over, so memory use does not grow with the size of the range.
+     *
+     * @param room     the name or identifier of the meeting room, or {@code null} for all rooms.
+     * @param from     the first date to include.
+     * @param to       the last date to include.
+     * @param consumer receives every booking in the range.
+     */
+    void streamBookings(String room, LocalDate from, LocalDate to, Consumer<Booking> consumer);
+
+    /**
+     * Lists bookings dated on or after a date, one page at a time, ordered by date, start
+     * time and room. Pages are read by keyset, so every page costs the same.
+     *
+     * @param from   the first date to include; ignored when a cursor is given.
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size   the maximum number of bookings per page.
+     * @return the page and the cursor of the next page, if any.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    BookingPage findBookings(LocalDate from, String cursor, int size);
+
+    /**
+     * Lists the upcoming bookings of an employee, one page at a time, ordered by date and
+     * start time.
+     *
+     * @param employeeEmail the email of the employee.
+     * @param cursor        the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size          the maximum number of bookings per page.
+     * @return the page and the cursor of the next page, if any.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    BookingPage findUpcomingBookingsByEmployee(String employeeEmail, String cursor, int size);
+
+    /**
+     * Finds the meeting rooms that are free for at least {@code minDuration} minutes
+     * between two times on a given date. Answered from the in-memory schedule index.
+     *
+     * @param date        the date to search.
+     * @param timeFrom    the start of the window (inclusive).
+     * @param timeTo      the end of the window (exclusive).
+     * @param minDuration the minimum free stretch in minutes.
+     * @return one {@link RoomAvailability} per available room, in room name order.
+     * @throws IllegalStateException if the date is before the dates held by the index.
+     */
+    List<RoomAvailability> findAvailableRooms(LocalDate date, LocalTime timeFrom, LocalTime timeTo, int minDuration);
+
     /**
      * Creates a new booking for a meeting room.
      *
@@ -36,14 +103,106 @@ public interface BookingService {
      */
     Booking createBooking(String room, String employeeEmail, LocalDate date, LocalTime timeFrom, LocalTime timeTo);
 
+    /**
+     * Creates many bookings in a single transaction. Every item is validated up front and
+     * checked for conflicts against stored bookings and against earlier items of the same
+     * batch. Rejected items do not fail the batch; the accepted ones are inserted together.
+     *
+     * @param bookings the bookings to create.
+     * @return one {@link BookingBatchResult} per submitted booking, in request order.
+     */
+    List<BookingBatchResult> createBookings(List<Booking> bookings);
+
+    /**
+     * Creates a booking without waiting for it to be stored. The conflict check is answered from
+     * the in-memory schedule, which takes the booking at once; the booking is inserted later by
+     * the {@link BookingWriteBehind} queue.
+     *
+     * @param room          the name or identifier of the meeting room.
+     * @param employeeEmail the email of the employee making the booking.
+     * @param date          the date of the booking.
+     * @param timeFrom      the start time of the booking (inclusive).
+     * @param timeTo        the end time of the booking (exclusive).
+     * @return the accepted {@link Booking}, with its id assigned.
+     * @throws IllegalArgumentException   if the time range is invalid.
+     * @throws IllegalStateException      if the room is already booked for the specified time range.
+     * @throws RejectedExecutionException if too many bookings are waiting to be stored.
+     */
+    Booking submitBooking(String room, String employeeEmail, LocalDate date, LocalTime timeFrom, LocalTime timeTo);
+
+    /**
+     * Holds a room for a time range for a short time, without writing to the database. The
+     * range cannot be booked or held by anyone else until the hold is confirmed, released or
+     * expires.
+     *
+     * @param room          the name or identifier of the meeting room.
+     * @param employeeEmail the email of the employee holding the room.
+     * @param date          the date of the slot.
+     * @param timeFrom      the start time of the slot (inclusive).
+     * @param timeTo        the end time of the slot (exclusive).
+     * @return the hold with the token to confirm it and its expiry.
+     * @throws IllegalArgumentException if the time range is invalid.
+     * @throws IllegalStateException    if the range is already booked or held.
+     * @throws com.acme.meetingroom.exception.RequestThrottledException if the
+     *         employee or all employees together hold the maximum number of slots.
+     */
+    BookingHold placeHold(String room, String employeeEmail, LocalDate date, LocalTime timeFrom, LocalTime timeTo);
+
+    /**
+     * Turns a live hold into a booking.
+     *
+     * @param token the token of the hold.
+     * @return the created {@link Booking} object.
+     * @throws HoldNotFoundException if the hold is unknown, released or expired.
+     */
+    Booking confirmHold(String token);
+
+    /**
+     * Releases a live hold before it expires.
+     *
+     * @param token the token of the hold.
+     * @throws HoldNotFoundException if the hold is unknown, released or expired.
+     */
+    void releaseHold(String token);
+
     /**
      * Cancels an existing booking.
      *
      * @param bookingId the unique identifier of the booking to be canceled.
      * @throws IllegalArgumentException if no booking exists with the specified ID.
      * @throws IllegalStateException    if the booking date is in the past.
+     * @throws BookingConflictException if the booking is upcoming but could not
+     *                                  be deleted.
      */
     void cancelBooking(Long bookingId);
+
+    /**
+     * Cancels the upcoming bookings among the given ids in one statement. Past
+     * and unknown ids are skipped.
+     *
+     * @param bookingIds the unique identifiers of the bookings to be canceled.
+     * @return the number of canceled bookings.
+     */
+    int cancelBookings(Collection<Long> bookingIds);
+
+    /**
+     * Cancels all upcoming bookings of an employee in one statement.
+     *
+     * @param employeeEmail the email of the employee.
+     * @return the number of canceled bookings.
+     */
+    int cancelBookingsByEmployee(String employeeEmail);
+
+    /**
+     * Cancels the bookings of a room between two dates in one statement. Dates
+     * in the past are left alone.
+     *
+     * @param room the name or identifier of the meeting room.
+     * @param from the first date to cancel.
+     * @param to   the last date to cancel.
+     * @return the number of canceled bookings.
+     */
+    int cancelBookingsByRoom(String room, LocalDate from, LocalDate to);
 }
 
 
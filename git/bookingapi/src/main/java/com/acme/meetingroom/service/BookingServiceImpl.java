@@ -3,45 +3,226 @@ package com.acme.meetingroom.service;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.acme.meetingroom.dto.BookingBatchResult;
+import com.acme.meetingroom.dto.BookingHold;
+import com.acme.meetingroom.dto.BookingPage;
+import com.acme.meetingroom.dto.RoomAvailability;
 import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.event.BookingChangedEvent;
+import com.acme.meetingroom.exception.BookingConflictException;
 import com.acme.meetingroom.exception.BookingNotFoundException;
-import com.acme.meetingroom.repository.BookingRepository;
+import com.acme.meetingroom.exception.HoldNotFoundException;
+import com.acme.meetingroom.repository.BookingStore;
 import com.acme.meetingroom.utils.BookingValidator;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * Implementation of the {@link BookingService} interface. Handles the business
  * logic for managing meeting room bookings.
+ * <p>
+ * The phases of {@link #createBooking} are timed in the
+ * {@code booking.create.phase} timer tagged with the phase, cancellations in
+ * the {@code booking.cancel} timer tagged with the outcome, bulk
+ * cancellations in the {@code booking.cancel.bulk} timer tagged with what
+ * selects the bookings, and rejected conflicting bookings are counted in
+ * {@code booking.conflicts}.
+ * <p>
+ * Cancellations are conditional deletes that only match upcoming bookings and
+ * return the bookings they deleted, so nothing is read first. A cancellation
+ * that deletes nothing looks the booking up to tell a missing booking from a
+ * past one, and deletes again if the booking is still upcoming. In a cluster, bulk cancellations only touch the rooms
+ * owned by this instance, whose index has to see them.
  */
 @Service
 public class BookingServiceImpl implements BookingService {
 	private static final Logger logger = LoggerFactory.getLogger(BookingServiceImpl.class);
 
-	private final BookingRepository bookingRepository;
+	/**
+	 * Number of deletes tried before a cancellation of an upcoming booking is
+	 * reported as a conflict.
+	 */
+	private static final int CANCEL_ATTEMPTS = 2;
+
+	private final BookingStore bookingStore;
 
 	private final BookingValidator bookingValidator;
 
+	private final RoomScheduleIndex scheduleIndex;
+
+	private final BookingAdmissionControl admissionControl;
+
+	private final RoomScheduleCache scheduleCache;
+
+	private final BookingHolds holds;
+
+	private final BookingWriteBehind writeBehind;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final RoomOwnership ownership;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Timer validatePhase;
+
+	private final Timer lockPhase;
+
+	private final Timer conflictCheckPhase;
+
+	private final Timer savePhase;
+
+	private final Counter conflicts;
+
+	private final Counter batchConflicts;
+
+	private final Counter holdConflicts;
+
+	private final Counter asyncConflicts;
+
 	/**
 	 * Constructs a new instance of {@link BookingServiceImpl}.
 	 *
-	 * @param bookingRepository the repository used for managing booking data.
+	 * @param bookingStore      the storage engine holding the bookings.
+	 * @param scheduleIndex     the in-memory index used for conflict detection.
+	 * @param admissionControl  the per room/date locks serializing admission.
+	 * @param scheduleCache     the read-through cache of room/day schedules.
+	 * @param holds             the short-lived holds taking part in conflict
+	 *                          checks.
+	 * @param writeBehind       the queue storing bookings created without
+	 *                          waiting.
+	 * @param eventPublisher    the publisher notified of committed changes.
+	 * @param ownership         the assignment of rooms to cluster members.
+	 * @param meterRegistry     the registry for phase timings and conflict counts.
 	 */
-	public BookingServiceImpl(BookingRepository bookingRepository, BookingValidator bookingValidator) {
-		this.bookingRepository = bookingRepository;
+	public BookingServiceImpl(BookingStore bookingStore, BookingValidator bookingValidator,
+			RoomScheduleIndex scheduleIndex, BookingAdmissionControl admissionControl,
+			RoomScheduleCache scheduleCache, BookingHolds holds, BookingWriteBehind writeBehind,
+			ApplicationEventPublisher eventPublisher, RoomOwnership ownership, MeterRegistry meterRegistry) {
+		this.bookingStore = bookingStore;
 		this.bookingValidator = bookingValidator;
+		this.scheduleIndex = scheduleIndex;
+		this.admissionControl = admissionControl;
+		this.scheduleCache = scheduleCache;
+		this.holds = holds;
+		this.writeBehind = writeBehind;
+		this.eventPublisher = eventPublisher;
+		this.ownership = ownership;
+		this.meterRegistry = meterRegistry;
+		this.validatePhase = createPhase(meterRegistry, "validate");
+		this.lockPhase = createPhase(meterRegistry, "lock");
+		this.conflictCheckPhase = createPhase(meterRegistry, "conflict_check");
+		this.savePhase = createPhase(meterRegistry, "save");
+		this.conflicts = conflictCounter(meterRegistry, "single");
+		this.batchConflicts = conflictCounter(meterRegistry, "batch");
+		this.holdConflicts = conflictCounter(meterRegistry, "hold");
+		this.asyncConflicts = conflictCounter(meterRegistry, "async");
+	}
+
+	/**
+	 * Returns the timer of one phase of {@link #createBooking}.
+	 */
+	private static Timer createPhase(MeterRegistry meterRegistry, String phase) {
+		return Timer.builder("booking.create.phase").description("Time spent in each phase of creating a booking")
+				.tag("phase", phase).register(meterRegistry);
+	}
+
+	/**
+	 * Returns the counter of bookings rejected because the slot is taken.
+	 *
+	 * @param meterRegistry the registry to register the counter in.
+	 * @param operation     the kind of request: single, batch, series, hold or
+	 *                      async.
+	 * @return the counter.
+	 */
+	static Counter conflictCounter(MeterRegistry meterRegistry, String operation) {
+		return Counter.builder("booking.conflicts").description("Bookings rejected because the room is taken")
+				.tag("operation", operation).register(meterRegistry);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional(readOnly = true)
+	public void streamBookings(String room, LocalDate from, LocalDate to, Consumer<Booking> consumer) {
+		bookingStore.forEachBetween(room, from, to, consumer);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public List<Booking> findBookingsByRoomAndDate(String room, LocalDate date) {
-		return bookingRepository.findByRoomAndDate(room, date);
+		return scheduleCache.get(new RoomDate(room, date),
+				key -> bookingStore.findByRoomAndDate(key.getRoom(), key.getDate()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Optional<Booking> findBooking(Long bookingId) {
+		return bookingStore.findById(bookingId);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public BookingPage findBookings(LocalDate from, String cursor, int size) {
+		BookingCursor position = cursor != null ? BookingCursor.decode(cursor) : BookingCursor.startOf(from);
+		return page(bookingStore.findPageAfter(position.getDate(), position.getTimeFrom(), position.getRoom(),
+				position.getId(), size + 1), size);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public BookingPage findUpcomingBookingsByEmployee(String employeeEmail, String cursor, int size) {
+		BookingCursor position = cursor != null ? BookingCursor.decode(cursor)
+				: BookingCursor.startOf(LocalDate.now());
+		return page(bookingStore.findPageByEmployeeAfter(employeeEmail, position.getDate(),
+				position.getTimeFrom(), position.getId(), size + 1), size);
+	}
+
+	/**
+	 * Cuts a page from a result fetched with one extra row, which tells whether
+	 * a next page exists without a count query.
+	 */
+	private static BookingPage page(List<Booking> bookings, int size) {
+		if (bookings.size() <= size) {
+			return new BookingPage(bookings, null);
+		}
+		List<Booking> page = bookings.subList(0, size);
+		return new BookingPage(List.copyOf(page), BookingCursor.after(page.get(size - 1)).encode());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<RoomAvailability> findAvailableRooms(LocalDate date, LocalTime timeFrom, LocalTime timeTo,
+			int minDuration) {
+		if (!scheduleIndex.covers(date)) {
+			throw new IllegalStateException("Availability is only known for dates from today on.");
+		}
+		return scheduleIndex.findAvailable(date, timeFrom, timeTo, minDuration);
 	}
 
 	/**
@@ -51,16 +232,189 @@ public class BookingServiceImpl implements BookingService {
 	public Booking createBooking(String room, String employeeEmail, LocalDate date, LocalTime timeFrom,
 			LocalTime timeTo) {
 		// Validate the booking
+		long phaseStart = System.nanoTime();
+		bookingValidator.validateBookingTimeFromTimeTo(room, date, timeFrom, timeTo);
+		phaseStart = recordPhase(validatePhase, phaseStart);
+		// Serialize admission for this room and date until the transaction completes
+		int stripe = admissionControl.acquire(new RoomDate(room, date));
+		phaseStart = recordPhase(lockPhase, phaseStart);
+		try {
+			// Check for overlapping bookings
+			boolean overlapping = isOverlapping(room, date, timeFrom, timeTo);
+			phaseStart = recordPhase(conflictCheckPhase, phaseStart);
+			if (overlapping) {
+				conflicts.increment();
+				logger.error("Room is already booked for this slot from time: {}, to time: {}", timeFrom, timeTo);
+				throw new IllegalStateException("Room is already booked for this slot.");
+			}
+			// Create and save the new booking
+			Booking booking = bookingStore.save(new Booking(room, employeeEmail, date, timeFrom, timeTo));
+			recordPhase(savePhase, phaseStart);
+			eventPublisher.publishEvent(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED, booking));
+			return booking;
+		} finally {
+			admissionControl.releaseAfterCompletion(stripe);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional
+	public List<BookingBatchResult> createBookings(List<Booking> bookings) {
+		BookingBatchResult[] results = new BookingBatchResult[bookings.size()];
+		// Validate every item before taking any lock
+		Set<RoomDate> keys = new LinkedHashSet<>();
+		for (int i = 0; i < bookings.size(); i++) {
+			Booking candidate = bookings.get(i);
+			Map<String, String> errors = bookingValidator.validateBooking(candidate);
+			if (errors.isEmpty()) {
+				try {
+					bookingValidator.validateBookingTimeFromTimeTo(candidate.getRoom(), candidate.getDate(),
+							candidate.getTimeFrom(), candidate.getTimeTo());
+				} catch (IllegalArgumentException e) {
+					errors.put("Time range validation error", e.getMessage());
+				}
+			}
+			if (errors.isEmpty()) {
+				keys.add(new RoomDate(candidate.getRoom(), candidate.getDate()));
+			} else {
+				results[i] = new BookingBatchResult(i, BookingBatchResult.Status.INVALID, candidate, errors);
+			}
+		}
+		int[] stripes = admissionControl.acquireAll(keys);
+		try {
+			// Check the valid items against stored bookings and earlier items of the batch
+			Map<RoomDate, List<Booking>> accepted = new HashMap<>();
+			List<Booking> toSave = new ArrayList<>();
+			List<Integer> savedIndexes = new ArrayList<>();
+			for (int i = 0; i < bookings.size(); i++) {
+				if (results[i] != null) {
+					continue;
+				}
+				Booking candidate = bookings.get(i);
+				List<Booking> batchSlots = accepted.computeIfAbsent(
+						new RoomDate(candidate.getRoom(), candidate.getDate()), key -> new ArrayList<>());
+				if (overlapsAny(candidate, batchSlots) || isOverlapping(candidate.getRoom(), candidate.getDate(),
+						candidate.getTimeFrom(), candidate.getTimeTo())) {
+					batchConflicts.increment();
+					results[i] = new BookingBatchResult(i, BookingBatchResult.Status.CONFLICT, candidate,
+							Map.of("Conflict", "Room is already booked for this slot."));
+					continue;
+				}
+				batchSlots.add(candidate);
+				toSave.add(new Booking(candidate.getRoom(), candidate.getEmployeeEmail(), candidate.getDate(),
+						candidate.getTimeFrom(), candidate.getTimeTo()));
+				savedIndexes.add(i);
+			}
+			// Insert the accepted items together so the store can write them in one batch
+			List<Booking> saved = bookingStore.saveAll(toSave);
+			for (int i = 0; i < saved.size(); i++) {
+				Booking booking = saved.get(i);
+				eventPublisher.publishEvent(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED, booking));
+				results[savedIndexes.get(i)] = new BookingBatchResult(savedIndexes.get(i),
+						BookingBatchResult.Status.CREATED, booking, Map.of());
+			}
+			logger.info("Batch of {} bookings processed, {} created", bookings.size(), saved.size());
+			return List.of(results);
+		} finally {
+			for (int stripe : stripes) {
+				admissionControl.releaseAfterCompletion(stripe);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Booking submitBooking(String room, String employeeEmail, LocalDate date, LocalTime timeFrom,
+			LocalTime timeTo) {
 		bookingValidator.validateBookingTimeFromTimeTo(room, date, timeFrom, timeTo);
-		// Check for overlapping bookings
-		if (bookingRepository.existsByRoomAndDateAndTimeFromLessThanEqualAndTimeToGreaterThanEqual(room, date, timeTo,
-				timeFrom)) {
-			logger.error("Room is already booked for this slot from time: {}, to time: {}", timeFrom, timeTo);
-			throw new IllegalStateException("Room is already booked for this slot.");
+		if (!scheduleIndex.covers(date)) {
+			// Only the index sees queued bookings, so the database cannot answer the conflict check
+			throw new IllegalArgumentException("Bookings can only be submitted for dates from today on.");
 		}
-		// Create and save the new booking
 		Booking booking = new Booking(room, employeeEmail, date, timeFrom, timeTo);
-		return bookingRepository.save(booking);
+		int stripe = admissionControl.acquire(new RoomDate(room, date));
+		try {
+			if (isOverlapping(room, date, timeFrom, timeTo)) {
+				asyncConflicts.increment();
+				logger.error("Room is already booked for this slot from time: {}, to time: {}", timeFrom, timeTo);
+				throw new IllegalStateException("Room is already booked for this slot.");
+			}
+			booking.setId(bookingStore.nextId());
+			// Take the slot in the index before queueing, so the writer can never drop it first
+			scheduleIndex.add(booking);
+		} finally {
+			admissionControl.releaseAfterCompletion(stripe);
+		}
+		// The index already holds the slot, so wait for room in a full queue without the stripe,
+		// which would otherwise stall every admission hashing to it
+		try {
+			writeBehind.submit(booking);
+		} catch (RejectedExecutionException e) {
+			scheduleIndex.remove(booking);
+			throw e;
+		}
+		return booking;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public BookingHold placeHold(String room, String employeeEmail, LocalDate date, LocalTime timeFrom,
+			LocalTime timeTo) {
+		bookingValidator.validateBookingTimeFromTimeTo(room, date, timeFrom, timeTo);
+		int stripe = admissionControl.acquire(new RoomDate(room, date));
+		try {
+			// Answered from the index and the holds, so no database round trip for dates it covers
+			if (isOverlapping(room, date, timeFrom, timeTo)) {
+				holdConflicts.increment();
+				throw new IllegalStateException("Room is already booked or held for this slot.");
+			}
+			BookingHold hold = holds.place(room, employeeEmail, date, timeFrom, timeTo);
+			logger.info("Room: {} held on {} from {} to {} until {}", room, date, timeFrom, timeTo,
+					hold.getExpiresAt());
+			return hold;
+		} finally {
+			admissionControl.releaseAfterCompletion(stripe);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional
+	public Booking confirmHold(String token) {
+		BookingHold held = holds.find(token).orElseThrow(() -> holdNotFound(token));
+		int stripe = admissionControl.acquire(new RoomDate(held.getRoom(), held.getDate()));
+		try {
+			// Claim under the lock: the hold may have expired or been confirmed while we waited
+			BookingHold hold = holds.claim(token).orElseThrow(() -> holdNotFound(token));
+			Booking booking = bookingStore.save(new Booking(hold.getRoom(), hold.getEmployeeEmail(),
+					hold.getDate(), hold.getTimeFrom(), hold.getTimeTo()));
+			eventPublisher.publishEvent(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED, booking));
+			return booking;
+		} finally {
+			admissionControl.releaseAfterCompletion(stripe);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void releaseHold(String token) {
+		BookingHold held = holds.find(token).orElseThrow(() -> holdNotFound(token));
+		int stripe = admissionControl.acquire(new RoomDate(held.getRoom(), held.getDate()));
+		try {
+			holds.claim(token).orElseThrow(() -> holdNotFound(token));
+		} finally {
+			admissionControl.releaseAfterCompletion(stripe);
+		}
+	}
+
+	private static HoldNotFoundException holdNotFound(String token) {
+		return new HoldNotFoundException("Hold not found or expired: " + token);
 	}
 
 	/**
@@ -70,12 +424,134 @@ public class BookingServiceImpl implements BookingService {
 	 */
 	@Transactional
 	public void cancelBooking(Long bookingId) {
-		Booking booking = bookingRepository.findById(bookingId)
-				.orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
-		// Validate that the booking is not in the past
-		bookingValidator.validatePastBooking(booking);
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String outcome = "error";
+		try {
+			LocalDate today = LocalDate.now();
+			for (int attempt = 0; attempt < CANCEL_ATTEMPTS; attempt++) {
+				if (cancel(bookingStore.deleteByIdsFrom(List.of(bookingId), today, null)) == 1) {
+					outcome = "cancelled";
+					return;
+				}
+				// Nothing was deleted, only then find out why
+				Optional<Booking> booking = bookingStore.findById(bookingId);
+				if (booking.isEmpty()) {
+					outcome = "not_found";
+					throw new BookingNotFoundException("Booking not found with id: " + bookingId);
+				}
+				if (booking.get().getDate().isBefore(today)) {
+					outcome = "past";
+					bookingValidator.validatePastBooking(booking.get());
+				}
+			}
+			outcome = "conflict";
+			throw new BookingConflictException("Booking " + bookingId + " could not be cancelled, retry later.");
+		} finally {
+			sample.stop(Timer.builder("booking.cancel").description("Time spent cancelling a booking")
+					.tag("outcome", outcome).register(meterRegistry));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional
+	public int cancelBookings(Collection<Long> bookingIds) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		try {
+			return cancel(bookingStore.deleteByIdsFrom(bookingIds, LocalDate.now(), localRooms()));
+		} finally {
+			sample.stop(bulkCancel("ids"));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional
+	public int cancelBookingsByEmployee(String employeeEmail) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		try {
+			return cancel(bookingStore.deleteByEmployeeFrom(employeeEmail, LocalDate.now(), localRooms()));
+		} finally {
+			sample.stop(bulkCancel("employee"));
+		}
+	}
 
-		bookingRepository.deleteById(bookingId);
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional
+	public int cancelBookingsByRoom(String room, LocalDate from, LocalDate to) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		try {
+			LocalDate today = LocalDate.now();
+			LocalDate first = from.isBefore(today) ? today : from;
+			return first.isAfter(to) ? 0 : cancel(bookingStore.deleteByRoomBetween(room, first, to));
+		} finally {
+			sample.stop(bulkCancel("room"));
+		}
+	}
+
+	/**
+	 * Announces deleted bookings and returns how many there were.
+	 */
+	private int cancel(List<Booking> deleted) {
+		for (Booking booking : deleted) {
+			eventPublisher.publishEvent(new BookingChangedEvent(this, BookingChangedEvent.Type.CANCELLED, booking));
+		}
+		return deleted.size();
+	}
+
+	/**
+	 * Returns the rooms bulk cancellations are restricted to: those owned by this
+	 * instance in a cluster, or null for all rooms.
+	 */
+	private List<String> localRooms() {
+		return ownership.isClustered() ? scheduleIndex.rooms().stream().filter(ownership::isLocal).toList() : null;
+	}
+
+	private Timer bulkCancel(String selector) {
+		return Timer.builder("booking.cancel.bulk").description("Time spent cancelling bookings in bulk")
+				.tag("by", selector).register(meterRegistry);
+	}
+
+	/**
+	 * Records the time since the start of a phase and returns the start of the
+	 * next one.
+	 */
+	private static long recordPhase(Timer phase, long phaseStart) {
+		long now = System.nanoTime();
+		phase.record(now - phaseStart, TimeUnit.NANOSECONDS);
+		return now;
+	}
+
+	/**
+	 * Checks for an overlapping hold or booking, answering from the in-memory
+	 * index when it covers the date and from the store otherwise.
+	 */
+	private boolean isOverlapping(String room, LocalDate date, LocalTime timeFrom, LocalTime timeTo) {
+		if (holds.hasOverlap(room, date, timeFrom, timeTo)) {
+			return true;
+		}
+		if (scheduleIndex.covers(date)) {
+			return scheduleIndex.hasOverlap(room, date, timeFrom, timeTo);
+		}
+		return bookingStore.existsOverlapping(room, date, timeFrom, timeTo);
+	}
+
+	/**
+	 * Checks a candidate against bookings of the same room and date using the
+	 * same half-open comparison as the store.
+	 */
+	private static boolean overlapsAny(Booking candidate, List<Booking> bookings) {
+		for (Booking other : bookings) {
+			if (other.getTimeFrom().isBefore(candidate.getTimeTo())
+					&& other.getTimeTo().isAfter(candidate.getTimeFrom())) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 }
@@ -0,0 +1,252 @@
+package com.acme.meetingroom.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.event.BookingChangedEvent;
+import com.acme.meetingroom.repository.BookingStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind queue for bookings admitted without waiting for the database.
+ * Admitted bookings are queued with an id already assigned by
+ * {@link BookingStore#nextId} and inserted by one writer thread with
+ * {@link BookingStore#insertAll}, one transaction per batch. The writer waits up
+ * to {@code booking.write-behind.flush-interval} after the first queued
+ * booking for a batch to fill, so a longer interval means fewer, larger
+ * commits at the cost of a longer window in which accepted bookings exist only
+ * in memory. The queue is bounded: once it is full, submitters wait up to
+ * {@code booking.write-behind.offer-timeout} and are then rejected.
+ * <p>
+ * Created events are published inside the batch transaction and reach their
+ * listeners once it commits. A batch that fails is retried one booking at a
+ * time, and a booking that still cannot be stored is dropped from the
+ * {@link RoomScheduleIndex}.
+ * <p>
+ * The queue length is published as the {@code booking.write-behind.queue}
+ * gauge, batches in the {@code booking.write-behind.flush} timer and the
+ * {@code booking.write-behind.batch} summary, and dropped and rejected
+ * bookings in the {@code booking.write-behind.failed} and
+ * {@code booking.write-behind.rejected} counters.
+ */
+@Component
+public class BookingWriteBehind {
+	private static final Logger logger = LoggerFactory.getLogger(BookingWriteBehind.class);
+
+	/**
+	 * How long an idle writer waits before checking whether it was closed.
+	 */
+	private static final long IDLE_POLL_MILLIS = 100;
+
+	private final BookingStore bookingStore;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final RoomScheduleIndex scheduleIndex;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final BlockingQueue<Booking> queue;
+
+	private final int batchSize;
+
+	private final long flushNanos;
+
+	private final long offerNanos;
+
+	private final Thread writer;
+
+	private final Timer flushTimer;
+
+	private final DistributionSummary batchSizes;
+
+	private final Counter failed;
+
+	private final Counter rejected;
+
+	private volatile boolean closed;
+
+	/**
+	 * Constructs a new instance of {@link BookingWriteBehind} and starts its
+	 * writer thread.
+	 *
+	 * @param bookingStore       the storage engine bookings are inserted into.
+	 * @param transactionManager the manager of the batch transactions.
+	 * @param scheduleIndex      the index bookings that fail to store are
+	 *                           removed from.
+	 * @param eventPublisher     the publisher notified of stored bookings.
+	 * @param queueCapacity      the maximum number of bookings waiting to be
+	 *                           stored.
+	 * @param batchSize          the maximum number of bookings per batch.
+	 * @param flushInterval      how long to wait for a batch to fill.
+	 * @param offerTimeout       how long a submitter waits for room in a full
+	 *                           queue.
+	 * @param meterRegistry      the registry for write-behind metrics.
+	 */
+	public BookingWriteBehind(BookingStore bookingStore, PlatformTransactionManager transactionManager,
+			RoomScheduleIndex scheduleIndex, ApplicationEventPublisher eventPublisher,
+			@Value("${booking.write-behind.queue-capacity:10000}") int queueCapacity,
+			@Value("${booking.write-behind.batch-size:500}") int batchSize,
+			@Value("${booking.write-behind.flush-interval:PT0.01S}") Duration flushInterval,
+			@Value("${booking.write-behind.offer-timeout:PT1S}") Duration offerTimeout, MeterRegistry meterRegistry) {
+		this.bookingStore = bookingStore;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.scheduleIndex = scheduleIndex;
+		this.eventPublisher = eventPublisher;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.batchSize = batchSize;
+		this.flushNanos = flushInterval.toNanos();
+		this.offerNanos = offerTimeout.toNanos();
+		this.flushTimer = Timer.builder("booking.write-behind.flush")
+				.description("Time spent storing a batch of queued bookings").register(meterRegistry);
+		this.batchSizes = DistributionSummary.builder("booking.write-behind.batch")
+				.description("Number of bookings stored per batch").register(meterRegistry);
+		this.failed = Counter.builder("booking.write-behind.failed")
+				.description("Queued bookings that could not be stored").register(meterRegistry);
+		this.rejected = Counter.builder("booking.write-behind.rejected")
+				.description("Bookings rejected because the queue was full").register(meterRegistry);
+		meterRegistry.gaugeCollectionSize("booking.write-behind.queue", List.of(), queue);
+		this.writer = new Thread(this::run, "booking-write-behind");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Queues an admitted booking to be stored, waiting while the queue is full.
+	 *
+	 * @param booking the booking, with its id assigned.
+	 * @throws RejectedExecutionException if the queue stayed full for the offer
+	 *                                    timeout or the writer is closed.
+	 */
+	public void submit(Booking booking) {
+		if (closed) {
+			throw new RejectedExecutionException("Booking writer is shut down.");
+		}
+		try {
+			if (queue.offer(booking, offerNanos, TimeUnit.NANOSECONDS)) {
+				return;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		rejected.increment();
+		throw new RejectedExecutionException("Too many bookings waiting to be stored.");
+	}
+
+	/**
+	 * Returns the number of bookings waiting to be stored.
+	 *
+	 * @return the queue length.
+	 */
+	public int pending() {
+		return queue.size();
+	}
+
+	/**
+	 * Stops accepting bookings and waits for the writer to store the ones
+	 * already queued.
+	 */
+	@PreDestroy
+	public void close() {
+		closed = true;
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (!queue.isEmpty()) {
+			logger.error("Booking writer stopped with {} bookings not stored", queue.size());
+		}
+	}
+
+	private void run() {
+		List<Booking> batch = new ArrayList<>(batchSize);
+		while (!closed || !queue.isEmpty()) {
+			try {
+				collect(batch);
+			} catch (InterruptedException e) {
+				closed = true;
+			}
+			if (!batch.isEmpty()) {
+				flush(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Waits for a first booking, then gathers more until the batch is full or
+	 * the flush interval has passed.
+	 */
+	private void collect(List<Booking> batch) throws InterruptedException {
+		Booking first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+		if (first == null) {
+			return;
+		}
+		batch.add(first);
+		long deadline = System.nanoTime() + flushNanos;
+		while (batch.size() < batchSize) {
+			if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+				continue;
+			}
+			long wait = deadline - System.nanoTime();
+			if (wait <= 0 || closed) {
+				return;
+			}
+			Booking next = queue.poll(wait, TimeUnit.NANOSECONDS);
+			if (next == null) {
+				return;
+			}
+			batch.add(next);
+		}
+	}
+
+	private void flush(List<Booking> batch) {
+		long start = System.nanoTime();
+		try {
+			transactionTemplate.executeWithoutResult(status -> insert(batch));
+		} catch (DataAccessException e) {
+			// One bad row fails the whole batch, so store the rest one at a time
+			logger.warn("Batch of {} bookings failed, storing them one by one", batch.size(), e);
+			for (Booking booking : batch) {
+				try {
+					transactionTemplate.executeWithoutResult(status -> insert(List.of(booking)));
+				} catch (DataAccessException ex) {
+					failed.increment();
+					scheduleIndex.remove(booking);
+					logger.error("Booking {} in room: {} on {} could not be stored", booking.getId(),
+							booking.getRoom(), booking.getDate(), ex);
+				}
+			}
+		}
+		flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		batchSizes.record(batch.size());
+	}
+
+	private void insert(List<Booking> bookings) {
+		bookingStore.insertAll(bookings);
+		for (Booking booking : bookings) {
+			eventPublisher.publishEvent(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED, booking));
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.acme.meetingroom.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.acme.meetingroom.entity.Booking;
+
+/**
+ * Immutable schedule of one room on one date held as parallel primitive
+ * arrays: the booking ids, the employee ids from the {@link BookingDictionary},
+ * the start and end seconds of the day side by side, and the series ids if any
+ * booking belongs to a series. The room and date are known from the cache key
+ * and are not repeated per booking.
+ */
+final class PackedSchedule {
+
+	private static final PackedSchedule EMPTY = new PackedSchedule(new long[0], new int[0], new int[0], null);
+
+	private final long[] ids;
+
+	private final int[] employees;
+
+	private final int[] bounds;
+
+	/**
+	 * Series ids, 0 for a single booking, or null if no booking is part of a
+	 * series.
+	 */
+	private final long[] seriesIds;
+
+	private PackedSchedule(long[] ids, int[] employees, int[] bounds, long[] seriesIds) {
+		this.ids = ids;
+		this.employees = employees;
+		this.bounds = bounds;
+		this.seriesIds = seriesIds;
+	}
+
+	/**
+	 * Packs the bookings of one room and date, keeping their order.
+	 *
+	 * @param bookings   the bookings to pack.
+	 * @param dictionary the dictionary interning employee emails.
+	 * @return the packed schedule.
+	 */
+	static PackedSchedule of(List<Booking> bookings, BookingDictionary dictionary) {
+		int size = bookings.size();
+		if (size == 0) {
+			return EMPTY;
+		}
+		long[] ids = new long[size];
+		int[] employees = new int[size];
+		int[] bounds = new int[2 * size];
+		long[] seriesIds = null;
+		for (int i = 0; i < size; i++) {
+			Booking booking = bookings.get(i);
+			ids[i] = booking.getId();
+			employees[i] = dictionary.employeeId(booking.getEmployeeEmail());
+			bounds[2 * i] = booking.getTimeFrom().toSecondOfDay();
+			bounds[2 * i + 1] = booking.getTimeTo().toSecondOfDay();
+			if (booking.getSeriesId() != null) {
+				if (seriesIds == null) {
+					seriesIds = new long[size];
+				}
+				seriesIds[i] = booking.getSeriesId();
+			}
+		}
+		return new PackedSchedule(ids, employees, bounds, seriesIds);
+	}
+
+	/**
+	 * Rebuilds detached bookings from the packed schedule.
+	 *
+	 * @param room       the room of the schedule.
+	 * @param date       the date of the schedule.
+	 * @param dictionary the dictionary the schedule was packed with.
+	 * @return an unmodifiable list of new bookings.
+	 */
+	List<Booking> toBookings(String room, LocalDate date, BookingDictionary dictionary) {
+		List<Booking> bookings = new ArrayList<>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			Booking booking = new Booking(room, dictionary.employee(employees[i]), date,
+					LocalTime.ofSecondOfDay(bounds[2 * i]), LocalTime.ofSecondOfDay(bounds[2 * i + 1]));
+			booking.setId(ids[i]);
+			if (seriesIds != null && seriesIds[i] != 0) {
+				booking.setSeriesId(seriesIds[i]);
+			}
+			bookings.add(booking);
+		}
+		return Collections.unmodifiableList(bookings);
+	}
+}
@@ -0,0 +1,44 @@
+package com.acme.meetingroom.service;
+
+import java.util.Optional;
+
+import com.acme.meetingroom.entity.RecurringSeries;
+
+/**
+ * Service interface for managing recurring meeting room bookings.
+ */
+public interface RecurringSeriesService {
+
+    /**
+     * Creates a recurring series and one booking per occurrence. All occurrences are
+     * checked for conflicts in one pass and inserted together; the series is created
+     * only if every occurrence is free.
+     *
+     * @param series the series to create.
+     * @return the created {@link RecurringSeries}.
+     * @throws IllegalArgumentException if the time range is invalid, or the rule yields no
+     *                                  occurrence or more than the allowed number.
+     * @throws IllegalStateException    if any occurrence overlaps an existing booking; the
+     *                                  message lists the conflicting dates.
+     */
+    RecurringSeries createSeries(RecurringSeries series);
+
+    /**
+     * Retrieves a series by its identifier.
+     *
+     * @param seriesId the unique identifier of the series.
+     * @return the series, or empty if no series exists with the specified ID.
+     */
+    Optional<RecurringSeries> findSeries(Long seriesId);
+
+    /**
+     * Cancels the upcoming occurrences of a series with a single bulk delete. Past
+     * occurrences are kept; the series itself is removed once no occurrence is left.
+     *
+     * @param seriesId the unique identifier of the series.
+     * @return the number of cancelled occurrences.
+     * @throws com.acme.meetingroom.exception.SeriesNotFoundException if no series exists
+     *                                                                with the specified ID.
+     */
+    int cancelSeries(Long seriesId);
+}
@@ -0,0 +1,232 @@
+package com.acme.meetingroom.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.entity.RecurringSeries;
+import com.acme.meetingroom.event.BookingChangedEvent;
+import com.acme.meetingroom.exception.SeriesNotFoundException;
+import com.acme.meetingroom.repository.BookingStore;
+import com.acme.meetingroom.repository.RecurringSeriesRepository;
+import com.acme.meetingroom.utils.BookingValidator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Implementation of the {@link RecurringSeriesService} interface. Expands a
+ * recurrence rule into occurrence dates, admits them together under the same
+ * per room/date locks as single bookings and stores them as one batch.
+ */
+@Service
+public class RecurringSeriesServiceImpl implements RecurringSeriesService {
+	private static final Logger logger = LoggerFactory.getLogger(RecurringSeriesServiceImpl.class);
+
+	private final RecurringSeriesRepository seriesRepository;
+
+	private final BookingStore bookingStore;
+
+	private final BookingValidator bookingValidator;
+
+	private final RoomScheduleIndex scheduleIndex;
+
+	private final BookingHolds holds;
+
+	private final BookingAdmissionControl admissionControl;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final int maxOccurrences;
+
+	private final Counter conflicts;
+
+	/**
+	 * Constructs a new instance of {@link RecurringSeriesServiceImpl}.
+	 *
+	 * @param seriesRepository  the repository used for managing series.
+	 * @param bookingStore      the storage engine holding the occurrences.
+	 * @param scheduleIndex     the in-memory index used for conflict detection.
+	 * @param holds             the short-lived holds taking part in conflict
+	 *                          checks.
+	 * @param admissionControl  the per room/date locks serializing admission.
+	 * @param eventPublisher    the publisher notified of committed changes.
+	 * @param maxOccurrences    the maximum number of occurrences of a series.
+	 * @param meterRegistry     the registry rejected series are counted in.
+	 */
+	public RecurringSeriesServiceImpl(RecurringSeriesRepository seriesRepository,
+			BookingStore bookingStore, BookingValidator bookingValidator, RoomScheduleIndex scheduleIndex,
+			BookingHolds holds, BookingAdmissionControl admissionControl, ApplicationEventPublisher eventPublisher,
+			@Value("${booking.series.max-occurrences:1000}") int maxOccurrences, MeterRegistry meterRegistry) {
+		this.seriesRepository = seriesRepository;
+		this.bookingStore = bookingStore;
+		this.bookingValidator = bookingValidator;
+		this.scheduleIndex = scheduleIndex;
+		this.holds = holds;
+		this.admissionControl = admissionControl;
+		this.eventPublisher = eventPublisher;
+		this.maxOccurrences = maxOccurrences;
+		this.conflicts = BookingServiceImpl.conflictCounter(meterRegistry, "series");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional
+	public RecurringSeries createSeries(RecurringSeries series) {
+		bookingValidator.validateBookingTimeFromTimeTo(series.getRoom(), series.getStartDate(), series.getTimeFrom(),
+				series.getTimeTo());
+		List<LocalDate> dates = expand(series, maxOccurrences);
+		if (dates.isEmpty()) {
+			throw new IllegalArgumentException("The series has no occurrences.");
+		}
+		Set<RoomDate> keys = new LinkedHashSet<>();
+		for (LocalDate date : dates) {
+			keys.add(new RoomDate(series.getRoom(), date));
+		}
+		int[] stripes = admissionControl.acquireAll(keys);
+		try {
+			List<LocalDate> conflictingDates = findConflicts(series, dates);
+			if (!conflictingDates.isEmpty()) {
+				conflicts.increment();
+				logger.error("Series for room: {} conflicts with existing bookings on {}", series.getRoom(),
+						conflictingDates);
+				throw new IllegalStateException("Room is already booked on " + conflictingDates + ".");
+			}
+			// Always insert, whatever id the caller sent
+			series.setId(null);
+			RecurringSeries saved = seriesRepository.save(series);
+			List<Booking> occurrences = new ArrayList<>(dates.size());
+			for (LocalDate date : dates) {
+				Booking occurrence = new Booking(saved.getRoom(), saved.getEmployeeEmail(), date, saved.getTimeFrom(),
+						saved.getTimeTo());
+				occurrence.setSeriesId(saved.getId());
+				occurrences.add(occurrence);
+			}
+			// Insert the occurrences together so the store can write them in one batch
+			for (Booking booking : bookingStore.saveAll(occurrences)) {
+				eventPublisher.publishEvent(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED, booking));
+			}
+			logger.info("Series {} created with {} occurrences in room: {}", saved.getId(), dates.size(),
+					saved.getRoom());
+			return saved;
+		} finally {
+			for (int stripe : stripes) {
+				admissionControl.releaseAfterCompletion(stripe);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Optional<RecurringSeries> findSeries(Long seriesId) {
+		return seriesRepository.findById(seriesId);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional
+	public int cancelSeries(Long seriesId) {
+		RecurringSeries series = seriesRepository.findById(seriesId)
+				.orElseThrow(() -> new SeriesNotFoundException("Series not found with id: " + seriesId));
+		LocalDate today = LocalDate.now();
+		// Read the upcoming occurrences only to announce them; the delete itself is one statement
+		List<Booking> upcoming = bookingStore.findBySeriesFrom(seriesId, today);
+		int deleted = bookingStore.deleteBySeriesFrom(seriesId, today);
+		for (Booking booking : upcoming) {
+			eventPublisher.publishEvent(new BookingChangedEvent(this, BookingChangedEvent.Type.CANCELLED, booking));
+		}
+		if (!bookingStore.existsBySeries(seriesId)) {
+			seriesRepository.delete(series);
+		}
+		logger.info("Series {} cancelled, {} occurrences deleted", seriesId, deleted);
+		return deleted;
+	}
+
+	/**
+	 * Returns the dates among the occurrences on which the room is already
+	 * booked or held. Dates covered by the in-memory index are answered from it;
+	 * any other case is answered by one range query over the whole series.
+	 */
+	private List<LocalDate> findConflicts(RecurringSeries series, List<LocalDate> dates) {
+		List<LocalDate> conflicts = new ArrayList<>();
+		if (scheduleIndex.covers(dates.get(0))) {
+			for (LocalDate date : dates) {
+				if (scheduleIndex.hasOverlap(series.getRoom(), date, series.getTimeFrom(), series.getTimeTo())
+						|| holds.hasOverlap(series.getRoom(), date, series.getTimeFrom(), series.getTimeTo())) {
+					conflicts.add(date);
+				}
+			}
+			return conflicts;
+		}
+		Set<LocalDate> booked = new HashSet<>();
+		for (Booking booking : bookingStore.findOverlapping(series.getRoom(), dates.get(0),
+				dates.get(dates.size() - 1), series.getTimeFrom(), series.getTimeTo())) {
+			booked.add(booking.getDate());
+		}
+		for (LocalDate date : dates) {
+			if (booked.contains(date)
+					|| holds.hasOverlap(series.getRoom(), date, series.getTimeFrom(), series.getTimeTo())) {
+				conflicts.add(date);
+			}
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Expands the recurrence rule of a series into its occurrence dates, in
+	 * order. A monthly series skips months that do not have its start day, and
+	 * the count includes occurrences that fall on exception dates.
+	 *
+	 * @param series         the series to expand.
+	 * @param maxOccurrences the maximum number of occurrences.
+	 * @return the occurrence dates.
+	 * @throws IllegalArgumentException if the rule yields more than
+	 *                                  {@code maxOccurrences} dates.
+	 */
+	static List<LocalDate> expand(RecurringSeries series, int maxOccurrences) {
+		LocalDate start = series.getStartDate();
+		List<LocalDate> dates = new ArrayList<>();
+		int produced = 0;
+		for (long step = 0;; step++) {
+			long units = step * series.getInterval();
+			LocalDate date = switch (series.getFrequency()) {
+			case DAILY -> start.plusDays(units);
+			case WEEKLY -> start.plusWeeks(units);
+			case MONTHLY -> start.plusMonths(units);
+			};
+			if (series.getUntilDate() != null && date.isAfter(series.getUntilDate())) {
+				break;
+			}
+			if (series.getCount() != null && produced >= series.getCount()) {
+				break;
+			}
+			if (date.getDayOfMonth() != start.getDayOfMonth()
+					&& series.getFrequency() == RecurringSeries.Frequency.MONTHLY) {
+				continue;
+			}
+			produced++;
+			if (produced > maxOccurrences) {
+				throw new IllegalArgumentException("A series can have at most " + maxOccurrences + " occurrences.");
+			}
+			if (!series.getExceptions().contains(date)) {
+				dates.add(date);
+			}
+		}
+		return dates;
+	}
+}
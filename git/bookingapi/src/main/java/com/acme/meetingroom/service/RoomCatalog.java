@@ -0,0 +1,466 @@
+package com.acme.meetingroom.service;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.meetingroom.entity.Room;
+import com.acme.meetingroom.repository.RoomRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Catalog of the meeting rooms, mapping room names to the integer ids bookings
+ * are stored under. Every room is held in memory after its first lookup, so
+ * {@link RoomIdConverter} swaps names and ids without a query. Lookups that
+ * miss read the {@code rooms} table with plain JDBC on the caller's connection,
+ * as they may happen while Hibernate is binding another statement. Names that
+ * are not found are remembered for {@code booking.room-catalog.miss-ttl}, so
+ * repeated lookups of a mistyped room do not query the table every time. The
+ * in-memory schedules, such as the {@link RoomScheduleIndex}, are keyed by the
+ * same ids.
+ * <p>
+ * By default rooms are added through {@link #save} and bookings of unknown
+ * rooms are rejected. With {@code booking.room-catalog.auto-create} a room is
+ * created on its first booking instead, committed in a transaction of its own
+ * whatever becomes of the booking. Callers create the room with
+ * {@link #prepare} before the booking transaction starts, so that it is not
+ * created while that transaction holds a pooled connection: when all of them
+ * are held by bookings of new rooms, none would be left to create one.
+ * <p>
+ * Room searches are answered from an attribute index: a bitset of room ids per
+ * capacity, in a sorted map, and per piece of equipment, so a search is a few
+ * bitset unions and intersections. Every {@code booking.room-catalog.refresh-interval}
+ * the index is reloaded from the {@code rooms} table, which picks up rooms
+ * created and attributes changed on other cluster members.
+ */
+@Component
+public class RoomCatalog implements SmartInitializingSingleton {
+	private static final Logger logger = LoggerFactory.getLogger(RoomCatalog.class);
+
+	/**
+	 * Id of no room. Bookings are never stored under it, so it matches none.
+	 */
+	public static final int UNKNOWN = 0;
+
+	private final RoomRepository roomRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	/**
+	 * Template of the transactions rooms are created in, apart from any
+	 * transaction of the caller.
+	 */
+	private final TransactionTemplate creator;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final boolean autoCreate;
+
+	private final Duration refreshInterval;
+
+	private final List<String> configuredRooms;
+
+	private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+	/**
+	 * Names of every room held in memory, in name order.
+	 */
+	private final NavigableSet<String> names = new ConcurrentSkipListSet<>();
+
+	/**
+	 * Names recently looked up and not found.
+	 */
+	private final Cache<String, Boolean> misses;
+
+	private final ScheduledExecutorService refresher;
+
+	private final ConcurrentMap<Integer, Room> rooms = new ConcurrentHashMap<>();
+
+	/**
+	 * Ids of all rooms, of the rooms by capacity and of the rooms by piece of
+	 * equipment, guarded by this.
+	 */
+	private final BitSet all = new BitSet();
+
+	private final NavigableMap<Integer, BitSet> byCapacity = new TreeMap<>();
+
+	private final Map<String, BitSet> byEquipment = new HashMap<>();
+
+	/**
+	 * Constructs a new instance of {@link RoomCatalog}.
+	 *
+	 * @param roomRepository     the repository rooms are stored through.
+	 * @param transactionManager the manager of the transactions rooms are
+	 *                           loaded, created and saved in.
+	 * @param jdbcTemplate       the template rooms are looked up and created
+	 *                           with.
+	 * @param autoCreate         whether the first booking of an unknown room
+	 *                           creates it.
+	 * @param missTtl            how long a name that was not found is taken
+	 *                           to be unknown without a query.
+	 * @param refreshInterval    how often every room is reloaded.
+	 * @param configuredRooms    rooms to create at startup.
+	 */
+	public RoomCatalog(RoomRepository roomRepository, PlatformTransactionManager transactionManager,
+			JdbcTemplate jdbcTemplate, @Value("${booking.room-catalog.auto-create:false}") boolean autoCreate,
+			@Value("${booking.room-catalog.miss-ttl:PT5S}") Duration missTtl,
+			@Value("${booking.room-catalog.refresh-interval:PT30S}") Duration refreshInterval,
+			@Value("${booking.rooms:}") List<String> configuredRooms) {
+		this.roomRepository = roomRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.creator = new TransactionTemplate(transactionManager);
+		creator.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.jdbcTemplate = jdbcTemplate;
+		this.autoCreate = autoCreate;
+		this.refreshInterval = refreshInterval;
+		this.configuredRooms = configuredRooms;
+		this.misses = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(missTtl).build();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("room-catalog-refresh-");
+		threadFactory.setDaemon(true);
+		this.refresher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	/**
+	 * Loads every room and creates the configured ones once all singletons are
+	 * created, before the web server starts accepting requests, and schedules
+	 * the reloading of the rooms.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		long start = System.nanoTime();
+		refresh();
+		for (String room : configuredRooms) {
+			if (!room.isBlank() && !ids.containsKey(room.trim())) {
+				register(room.trim());
+			}
+		}
+		logger.info("Room catalog loaded {} rooms in {} ms", rooms.size(), (System.nanoTime() - start) / 1_000_000);
+		long period = refreshInterval.toMillis();
+		refresher.scheduleWithFixedDelay(this::refreshQuietly, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops reloading the rooms.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		refresher.shutdownNow();
+	}
+
+	/**
+	 * Reloads every room from the database, picking up the rooms created and
+	 * the attributes changed by other instances.
+	 */
+	public void refresh() {
+		transactionTemplate.execute(status -> roomRepository.findAll()).forEach(this::cache);
+	}
+
+	/**
+	 * Reloads one room from the database, picking up its creation or the
+	 * change of its attributes by another instance without waiting for the
+	 * next reload of every room.
+	 *
+	 * @param room the name of the room.
+	 */
+	public void refresh(String room) {
+		query("name = ?", room);
+	}
+
+	/**
+	 * Returns the id of a room.
+	 *
+	 * @param room the name of the room.
+	 * @return the id, or {@link #UNKNOWN} if no room has that name.
+	 */
+	public int idOf(String room) {
+		if (room == null || room.isEmpty()) {
+			return UNKNOWN;
+		}
+		Integer id = ids.get(room);
+		if (id != null) {
+			return id;
+		}
+		if (misses.getIfPresent(room) != null) {
+			return UNKNOWN;
+		}
+		Optional<Room> found = query("name = ?", room);
+		if (found.isEmpty()) {
+			misses.put(room, Boolean.TRUE);
+		}
+		return found.map(Room::getId).orElse(UNKNOWN);
+	}
+
+	/**
+	 * Returns the name of a room.
+	 *
+	 * @param id the id of the room.
+	 * @return the name.
+	 * @throws IllegalStateException if no room has that id.
+	 */
+	public String nameOf(int id) {
+		Room room = rooms.get(id);
+		if (room == null) {
+			room = query("id = ?", id).orElseThrow(() -> new IllegalStateException("No room has id " + id));
+		}
+		return room.getName();
+	}
+
+	/**
+	 * Returns the names of every room loaded so far: all rooms in the database
+	 * as of the last reload, and the rooms created or looked up since.
+	 *
+	 * @return the names in name order, as a live read-only view.
+	 */
+	public NavigableSet<String> names() {
+		return Collections.unmodifiableNavigableSet(names);
+	}
+
+	/**
+	 * Tells whether bookings of a room are accepted: it exists or would be
+	 * created by its first booking.
+	 *
+	 * @param room the name of the room.
+	 * @return true if the room may be booked.
+	 */
+	public boolean isBookable(String room) {
+		return autoCreate || idOf(room) != UNKNOWN;
+	}
+
+	/**
+	 * Creates a room about to be booked if it is unknown and rooms are created
+	 * on their first booking. Call it before the booking transaction starts.
+	 *
+	 * @param room the name of the room; blank names are ignored.
+	 */
+	public void prepare(String room) {
+		if (autoCreate) {
+			resolve(room);
+		}
+	}
+
+	/**
+	 * Returns the id of a room about to be booked, creating the room if it is
+	 * unknown and rooms are created on their first booking. Rooms are normally
+	 * created by {@link #prepare} before the booking transaction; one created
+	 * here inside a transaction takes a second connection from the pool.
+	 *
+	 * @param room the name of the room.
+	 * @return the id, or {@link #UNKNOWN} for an empty name.
+	 * @throws IllegalArgumentException if the room does not exist and is not
+	 *                                  created.
+	 */
+	public int resolve(String room) {
+		int id = idOf(room);
+		if (id != UNKNOWN || room == null || room.isBlank()) {
+			return id;
+		}
+		if (!autoCreate) {
+			throw new IllegalArgumentException("Room " + room + " does not exist.");
+		}
+		return register(room).getId();
+	}
+
+	/**
+	 * Creates a room or replaces the attributes of an existing one.
+	 *
+	 * @param name       the name of the room.
+	 * @param attributes the capacity, floor and equipment of the room.
+	 * @return the stored room.
+	 */
+	public synchronized Room save(String name, Room attributes) {
+		Set<String> equipment = new TreeSet<>();
+		if (attributes.getEquipment() != null) {
+			attributes.getEquipment().stream().filter(item -> item != null && !item.isBlank())
+					.map(RoomCatalog::normalize).forEach(equipment::add);
+		}
+		return cache(transactionTemplate.execute(status -> {
+			Room room = roomRepository.findByName(name).orElseGet(() -> new Room(name));
+			room.setCapacity(attributes.getCapacity());
+			room.setFloor(attributes.getFloor());
+			room.setEquipment(equipment);
+			return roomRepository.save(room);
+		}));
+	}
+
+	/**
+	 * Finds the rooms that seat at least a number of people and have every
+	 * listed piece of equipment. Rooms of unknown capacity only match when no
+	 * minimum is given.
+	 *
+	 * @param minCapacity the minimum capacity, or null for any.
+	 * @param equipment   the required equipment, in any case.
+	 * @return the matching rooms, in name order.
+	 */
+	public List<Room> find(Integer minCapacity, Collection<String> equipment) {
+		BitSet matching;
+		synchronized (this) {
+			if (minCapacity == null) {
+				matching = (BitSet) all.clone();
+			} else {
+				matching = new BitSet();
+				for (BitSet capacity : byCapacity.tailMap(minCapacity, true).values()) {
+					matching.or(capacity);
+				}
+			}
+			for (String item : equipment) {
+				BitSet with = byEquipment.get(normalize(item));
+				if (with == null) {
+					return List.of();
+				}
+				matching.and(with);
+			}
+		}
+		return matching.stream().mapToObj(rooms::get).sorted(Comparator.comparing(Room::getName)).toList();
+	}
+
+	/**
+	 * Reloads every room, logging rather than throwing failures so that the
+	 * next reload still runs.
+	 */
+	private void refreshQuietly() {
+		try {
+			refresh();
+		} catch (RuntimeException e) {
+			logger.warn("Room catalog refresh failed", e);
+		}
+	}
+
+	/**
+	 * Creates a room unless it exists, which another thread or instance may
+	 * have done since it was looked up. The room is committed in a transaction
+	 * of its own on a pooled connection.
+	 */
+	private Room register(String room) {
+		Optional<Room> existing = load(room);
+		if (existing.isPresent()) {
+			return existing.get();
+		}
+		try {
+			return cache(creator.execute(status -> {
+				KeyHolder key = new GeneratedKeyHolder();
+				jdbcTemplate.update(connection -> {
+					PreparedStatement insert = connection.prepareStatement("insert into rooms (name) values (?)",
+							new String[] { "id" });
+					insert.setString(1, room);
+					return insert;
+				}, key);
+				Room created = new Room(room);
+				created.setId(key.getKey().intValue());
+				return created;
+			}));
+		} catch (DuplicateKeyException e) {
+			return load(room).orElseThrow(() -> e);
+		}
+	}
+
+	private Optional<Room> load(String room) {
+		Integer id = ids.get(room);
+		return id != null ? Optional.of(rooms.get(id)) : query("name = ?", room);
+	}
+
+	/**
+	 * Reads a room and caches it.
+	 */
+	private Optional<Room> query(String condition, Object value) {
+		List<Room> found = jdbcTemplate.query("select id, name, capacity, floor from rooms where " + condition,
+				(resultSet, row) -> {
+					Room room = new Room(resultSet.getString("name"));
+					room.setId(resultSet.getInt("id"));
+					room.setCapacity(resultSet.getObject("capacity", Integer.class));
+					room.setFloor(resultSet.getObject("floor", Integer.class));
+					return room;
+				}, value);
+		for (Room room : found) {
+			room.setEquipment(new TreeSet<>(jdbcTemplate.queryForList(
+					"select equipment from room_equipment where room_id = ?", String.class, room.getId())));
+			cache(room);
+		}
+		return found.stream().findFirst();
+	}
+
+	/**
+	 * Adds a room to the maps and the attribute index, replacing an earlier
+	 * version of it.
+	 */
+	private synchronized Room cache(Room room) {
+		room.setEquipment(new TreeSet<>(room.getEquipment()));
+		Room previous = rooms.put(room.getId(), room);
+		if (previous != null) {
+			unindex(previous);
+		}
+		index(room);
+		// Published last, so that a room found by name is also found by id
+		ids.put(room.getName(), room.getId());
+		names.add(room.getName());
+		misses.invalidate(room.getName());
+		return room;
+	}
+
+	private void index(Room room) {
+		int id = room.getId();
+		all.set(id);
+		if (room.getCapacity() != null) {
+			byCapacity.computeIfAbsent(room.getCapacity(), capacity -> new BitSet()).set(id);
+		}
+		for (String item : room.getEquipment()) {
+			byEquipment.computeIfAbsent(item, key -> new BitSet()).set(id);
+		}
+	}
+
+	private void unindex(Room room) {
+		if (room.getCapacity() != null) {
+			clear(byCapacity, room.getCapacity(), room.getId());
+		}
+		for (String item : room.getEquipment()) {
+			clear(byEquipment, item, room.getId());
+		}
+	}
+
+	private static <K> void clear(Map<K, BitSet> index, K key, int id) {
+		BitSet ids = index.get(key);
+		ids.clear(id);
+		if (ids.isEmpty()) {
+			index.remove(key);
+		}
+	}
+
+	private static String normalize(String item) {
+		return item.trim().toLowerCase(Locale.ROOT);
+	}
+}
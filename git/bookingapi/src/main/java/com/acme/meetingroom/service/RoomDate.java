@@ -0,0 +1,56 @@
+package com.acme.meetingroom.service;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable key identifying the schedule of a single meeting room on a single
+ * date. Used to partition in-memory booking state by (room, date).
+ */
+public final class RoomDate {
+
+	private final String room;
+
+	private final LocalDate date;
+
+	/**
+	 * Constructs a new RoomDate key.
+	 *
+	 * @param room the name or identifier of the meeting room.
+	 * @param date the date of the schedule.
+	 */
+	public RoomDate(String room, LocalDate date) {
+		this.room = Objects.requireNonNull(room, "room");
+		this.date = Objects.requireNonNull(date, "date");
+	}
+
+	public String getRoom() {
+		return room;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof RoomDate)) {
+			return false;
+		}
+		RoomDate other = (RoomDate) o;
+		return room.equals(other.room) && date.equals(other.date);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * room.hashCode() + date.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return room + "@" + date;
+	}
+}
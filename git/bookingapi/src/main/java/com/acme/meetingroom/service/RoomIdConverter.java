@@ -0,0 +1,55 @@
+package com.acme.meetingroom.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.acme.meetingroom.entity.Booking;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores the room of a {@link Booking} as the id of the room in the
+ * {@link RoomCatalog}, so the bookings table and its indexes hold a four-byte
+ * key instead of the name. A name without an id converts to
+ * {@link RoomCatalog#UNKNOWN} and matches no booking; ids are only created
+ * when bookings are stored.
+ * <p>
+ * Hibernate creates the converter through the Spring bean container while the
+ * entity manager factory is being built, before the catalog can exist, so the
+ * catalog is looked up on first use.
+ */
+@Converter
+public class RoomIdConverter implements AttributeConverter<String, Integer> {
+
+	private final ObjectProvider<RoomCatalog> roomCatalogProvider;
+
+	private volatile RoomCatalog roomCatalog;
+
+	/**
+	 * Constructs a new instance of {@link RoomIdConverter}.
+	 *
+	 * @param roomCatalogProvider the provider of the catalog of rooms.
+	 */
+	public RoomIdConverter(ObjectProvider<RoomCatalog> roomCatalogProvider) {
+		this.roomCatalogProvider = roomCatalogProvider;
+	}
+
+	@Override
+	public Integer convertToDatabaseColumn(String room) {
+		return room != null ? roomCatalog().idOf(room) : null;
+	}
+
+	@Override
+	public String convertToEntityAttribute(Integer id) {
+		return id != null ? roomCatalog().nameOf(id) : null;
+	}
+
+	private RoomCatalog roomCatalog() {
+		RoomCatalog catalog = roomCatalog;
+		if (catalog == null) {
+			catalog = roomCatalogProvider.getObject();
+			roomCatalog = catalog;
+		}
+		return catalog;
+	}
+}
@@ -0,0 +1,117 @@
+package com.acme.meetingroom.service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.acme.meetingroom.utils.ConsistentHashRing;
+
+/**
+ * Static membership of a cluster of booking service instances and the
+ * assignment of rooms to them. Each room is owned by exactly one member,
+ * chosen by a {@link ConsistentHashRing} over the member URLs, and every
+ * change to a room is made by its owner so that the admission locks, the
+ * {@link RoomScheduleIndex} and the caches of the owner see every booking of
+ * the room.
+ * <p>
+ * Members are listed in {@code booking.cluster.members} as base URLs, the same
+ * list on every instance, and each instance names its own URL in
+ * {@code booking.cluster.self}. Without members the instance runs alone and
+ * owns every room. The membership is read at startup only: every instance must
+ * be restarted with the new list when it changes, so that new owners warm
+ * their index from the database.
+ */
+@Component
+public class RoomOwnership {
+
+	private final List<String> members;
+
+	private final String self;
+
+	private final ConsistentHashRing ring;
+
+	/**
+	 * Constructs a new instance of {@link RoomOwnership}.
+	 *
+	 * @param members      the base URLs of all members, including this one;
+	 *                     empty to run alone.
+	 * @param self         the base URL of this instance among the members.
+	 * @param virtualNodes the number of ring points per member.
+	 * @throws IllegalStateException if this instance is not among the members.
+	 */
+	public RoomOwnership(@Value("${booking.cluster.members:}") List<String> members,
+			@Value("${booking.cluster.self:}") String self,
+			@Value("${booking.cluster.virtual-nodes:128}") int virtualNodes) {
+		Set<String> normalized = new LinkedHashSet<>();
+		for (String member : members) {
+			if (!member.isBlank()) {
+				normalized.add(normalize(member));
+			}
+		}
+		this.members = List.copyOf(normalized);
+		this.self = normalize(self);
+		if (this.members.isEmpty()) {
+			this.ring = null;
+		} else if (!this.members.contains(this.self)) {
+			throw new IllegalStateException(
+					"booking.cluster.self (" + self + ") must be one of booking.cluster.members " + this.members);
+		} else {
+			this.ring = new ConsistentHashRing(this.members, virtualNodes);
+		}
+	}
+
+	/**
+	 * Tells whether this instance is part of a cluster of several members.
+	 *
+	 * @return true if rooms may be owned by other instances.
+	 */
+	public boolean isClustered() {
+		return ring != null && members.size() > 1;
+	}
+
+	/**
+	 * Returns the base URL of this instance.
+	 *
+	 * @return the URL, empty when running alone.
+	 */
+	public String self() {
+		return self;
+	}
+
+	/**
+	 * Returns the base URLs of the other members.
+	 *
+	 * @return the peers, in configuration order.
+	 */
+	public List<String> peers() {
+		return members.stream().filter(member -> !member.equals(self)).toList();
+	}
+
+	/**
+	 * Returns the member owning a room.
+	 *
+	 * @param room the name or identifier of the meeting room.
+	 * @return the base URL of the owner.
+	 */
+	public String ownerOf(String room) {
+		return ring != null ? ring.nodeFor(room) : self;
+	}
+
+	/**
+	 * Tells whether this instance owns a room.
+	 *
+	 * @param room the name or identifier of the meeting room.
+	 * @return true if changes to the room are made here.
+	 */
+	public boolean isLocal(String room) {
+		return !isClustered() || ownerOf(room).equals(self);
+	}
+
+	private static String normalize(String url) {
+		String trimmed = url.trim();
+		return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+	}
+}
@@ -0,0 +1,133 @@
+package com.acme.meetingroom.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.event.BookingChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache of immutable room/day schedules. Schedules are
+ * stored as {@link PackedSchedule}s keyed by room id and epoch day, and are
+ * turned back into bookings on every read. Entries expire a
+ * fixed time after they were loaded and the least recently used ones are
+ * evicted once the maximum size is reached. A committed
+ * {@link BookingChangedEvent} invalidates exactly the schedule of the room and
+ * date it touches.
+ * <p>
+ * Hit, miss, load and eviction counters are published to the meter registry
+ * as the {@code cache.*} metrics tagged {@code cache=roomSchedules}.
+ */
+@Component
+public class RoomScheduleCache {
+
+	/**
+	 * Name under which the cache statistics are published.
+	 */
+	public static final String CACHE_NAME = "roomSchedules";
+
+	private final Cache<Long, PackedSchedule> cache;
+
+	private final BookingDictionary dictionary;
+
+	private final RoomCatalog roomCatalog;
+
+	/**
+	 * Constructs a new instance of {@link RoomScheduleCache}.
+	 *
+	 * @param maximumSize      the maximum number of cached room/day schedules.
+	 * @param expireAfterWrite how long a loaded schedule may be served.
+	 * @param dictionary       the dictionary interning employees.
+	 * @param roomCatalog      the catalog of the rooms and their ids.
+	 * @param meterRegistry    the registry the cache statistics are bound to.
+	 */
+	public RoomScheduleCache(@Value("${booking.schedule-cache.maximum-size:10000}") long maximumSize,
+			@Value("${booking.schedule-cache.expire-after-write:PT5M}") Duration expireAfterWrite,
+			BookingDictionary dictionary, RoomCatalog roomCatalog, MeterRegistry meterRegistry) {
+		this.dictionary = dictionary;
+		this.roomCatalog = roomCatalog;
+		this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * Returns the cached schedule for the given room and date, loading it on a
+	 * miss. Concurrent misses for the same key share a single load. Rooms that
+	 * are not in the {@link RoomCatalog}, such as names made up by a client, are
+	 * read through the loader without caching, so reads cannot fill the cache
+	 * with them.
+	 *
+	 * @param key    the room and date.
+	 * @param loader loads the schedule from the source of truth.
+	 * @return an unmodifiable list of bookings, rebuilt on every call.
+	 */
+	public List<Booking> get(RoomDate key, Function<RoomDate, List<Booking>> loader) {
+		Long packed = keyOf(key);
+		if (packed == null) {
+			return List.copyOf(loader.apply(key));
+		}
+		PackedSchedule schedule = cache.get(packed, k -> PackedSchedule.of(loader.apply(key), dictionary));
+		return schedule.toBookings(key.getRoom(), key.getDate(), dictionary);
+	}
+
+	/**
+	 * Drops the cached schedule of the given room and date.
+	 *
+	 * @param key the room and date.
+	 */
+	public void invalidate(RoomDate key) {
+		Long packed = keyOf(key);
+		if (packed != null) {
+			cache.invalidate(packed);
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the hit, miss and eviction counters.
+	 *
+	 * @return the cache statistics.
+	 */
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	/**
+	 * Invalidates the schedule touched by a committed booking change. Runs
+	 * before the other listeners, so nothing can announce a change of the
+	 * schedule while the old one is still cached.
+	 *
+	 * @param event the booking change.
+	 */
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		Booking booking = event.getBooking();
+		invalidate(new RoomDate(booking.getRoom(), booking.getDate()));
+	}
+
+	/**
+	 * Packs a room and date into one key: the room id in the high half and the
+	 * epoch day in the low half. Returns null for a room not in the catalog.
+	 */
+	private Long keyOf(RoomDate key) {
+		int roomId = roomCatalog.idOf(key.getRoom());
+		if (roomId == RoomCatalog.UNKNOWN) {
+			return null;
+		}
+		return (long) roomId << 32 | (key.getDate().toEpochDay() & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,442 @@
+package com.acme.meetingroom.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.acme.meetingroom.dto.RoomAvailability;
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.event.BookingChangedEvent;
+import com.acme.meetingroom.repository.BookingStore;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory interval index of bookings, partitioned by (room, date). Each
+ * partition keeps the booked intervals in packed arrays sorted by start time,
+ * so an overlap check is a single binary search instead of a database query,
+ * and an occupancy bitset with one bit per minute of the day, so the free time
+ * of every room on a date can be found in one pass without touching the
+ * database. Partitions are keyed by the epoch day and the room id from the
+ * {@link RoomCatalog}, and hold no objects per booking. The rooms searched for
+ * availability are the rooms of the catalog, so a room is reported free as
+ * soon as it is created or picked up by a reload of the catalog, before its
+ * first booking.
+ * <p>
+ * The index is warmed at startup with every booking dated today or later, from
+ * the {@link BookingStore} or from the {@link BookingEventLog} if one is
+ * configured, and is kept current from committed {@link BookingChangedEvent}s.
+ * Dates before the warm-up horizon are not covered and callers must fall back
+ * to the store for them. Every midnight the days that have passed are dropped
+ * and the horizon moves to the new day, so the index does not grow for the
+ * life of the process. The store remains the source of truth; its unique index
+ * on (room, date, time_from) is the final guard against duplicates.
+ */
+@Component
+public class RoomScheduleIndex implements SmartInitializingSingleton {
+	private static final Logger logger = LoggerFactory.getLogger(RoomScheduleIndex.class);
+
+	private final BookingStore bookingStore;
+
+	private final RoomCatalog roomCatalog;
+
+	private final Optional<BookingEventLog> eventLog;
+
+	private static final int MINUTES_PER_DAY = 24 * 60;
+
+	/**
+	 * Schedules grouped by epoch day, then by room id.
+	 */
+	private final ConcurrentMap<Integer, ConcurrentMap<Integer, Schedule>> days = new ConcurrentHashMap<>();
+
+	/**
+	 * First date covered by the index, or {@code null} until warm-up completes.
+	 */
+	private volatile LocalDate horizon;
+
+	private final ScheduledExecutorService pruner;
+
+	/**
+	 * Constructs a new instance of {@link RoomScheduleIndex}.
+	 *
+	 * @param bookingStore      the storage engine used to warm the index.
+	 * @param roomCatalog       the catalog of the rooms and their ids.
+	 * @param eventLog          the optional log to warm the index from.
+	 */
+	public RoomScheduleIndex(BookingStore bookingStore, RoomCatalog roomCatalog,
+			Optional<BookingEventLog> eventLog) {
+		this.bookingStore = bookingStore;
+		this.roomCatalog = roomCatalog;
+		this.eventLog = eventLog;
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("room-schedule-index-");
+		threadFactory.setDaemon(true);
+		this.pruner = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	/**
+	 * Warms the index once all singletons are created, before the web server
+	 * starts accepting requests, and schedules the pruning of past days for
+	 * every midnight.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		warm(LocalDate.now());
+		LocalDateTime now = LocalDateTime.now();
+		long untilMidnight = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toMillis();
+		pruner.scheduleAtFixedRate(() -> prune(LocalDate.now()), untilMidnight, Duration.ofDays(1).toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops pruning past days.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		pruner.shutdownNow();
+	}
+
+	/**
+	 * Loads every booking dated on or after the given date into the index. With
+	 * an initialized {@link BookingEventLog} the bookings are replayed from the
+	 * log and reconciled with the store, and only the bookings the log misses
+	 * are read from it; otherwise they are read from the store and used to
+	 * start the log.
+	 *
+	 * @param from the first date to cover.
+	 */
+	public void warm(LocalDate from) {
+		long start = System.nanoTime();
+		int[] count = new int[1];
+		Consumer<Booking> load = booking -> {
+			add(booking);
+			count[0]++;
+		};
+		BookingEventLog log = eventLog.orElse(null);
+		String source;
+		if (log != null && log.isInitialized()) {
+			Map<Long, Booking> replayed = new HashMap<>();
+			long lastId = log.replay(from, booking -> replayed.put(booking.getId(), booking));
+			reconcile(log, replayed, lastId, from);
+			replayed.values().forEach(load);
+			source = "event log";
+		} else {
+			List<Booking> bookings = bookingStore.findFrom(from);
+			bookings.forEach(load);
+			if (log != null) {
+				log.bootstrap(bookings);
+			}
+			source = "database";
+		}
+		horizon = from;
+		logger.info("Room schedule index warmed from the {} with {} bookings from {} in {} ms", source, count[0],
+				from, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Brings the bookings replayed from the log in line with the store. A change
+	 * committed just before a crash may be missing from the log. The bookings
+	 * stored after the highest id the log holds are read in one query, and the
+	 * bookings in the store are counted. Only if the count still differs from
+	 * the replayed bookings, because a lost change was a cancellation or had a
+	 * lower id from the pooled sequence, whose ids commit out of order, are the
+	 * ids in the store compared with the replayed ones: replayed bookings no
+	 * longer stored are dropped and the stored bookings the log misses are read
+	 * in one batch. The log is repaired with the same changes.
+	 */
+	private void reconcile(BookingEventLog log, Map<Long, Booking> replayed, long lastId, LocalDate from) {
+		List<Booking> missing = new ArrayList<>(bookingStore.findFromAfterId(from, lastId));
+		List<Booking> phantoms = List.of();
+		if (bookingStore.countFrom(from) != replayed.size() + missing.size()) {
+			Set<Long> stored = new HashSet<>(bookingStore.findIdsFrom(from));
+			phantoms = replayed.values().stream().filter(booking -> !stored.contains(booking.getId())).toList();
+			missing.forEach(booking -> stored.remove(booking.getId()));
+			stored.removeAll(replayed.keySet());
+			missing.addAll(bookingStore.findAllById(stored));
+		}
+		for (Booking phantom : phantoms) {
+			replayed.remove(phantom.getId());
+			log.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CANCELLED, phantom));
+		}
+		for (Booking booking : missing) {
+			replayed.put(booking.getId(), booking);
+			log.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED, booking));
+		}
+		if (!phantoms.isEmpty() || !missing.isEmpty()) {
+			logger.info("Booking event log reconciled with the store: {} bookings dropped, {} added", phantoms.size(),
+					missing.size());
+		}
+	}
+
+	/**
+	 * Drops the schedules of the days before the given date and moves the
+	 * horizon up to it, so that callers read those days from the store. The
+	 * horizon moves first, so no caller trusts a day that is being dropped.
+	 *
+	 * @param today the first date to keep.
+	 */
+	public void prune(LocalDate today) {
+		LocalDate first = horizon;
+		if (first != null && first.isBefore(today)) {
+			horizon = today;
+		}
+		int cutoff = dayOf(today);
+		int before = days.size();
+		days.keySet().removeIf(day -> day < cutoff);
+		logger.info("Room schedule index dropped {} days before {}", before - days.size(), today);
+	}
+
+	/**
+	 * Tells whether the index holds the complete schedule for the given date.
+	 *
+	 * @param date the date to check.
+	 * @return true if conflict checks for this date can be answered from memory.
+	 */
+	public boolean covers(LocalDate date) {
+		LocalDate first = horizon;
+		return first != null && !date.isBefore(first);
+	}
+
+	/**
+	 * Returns every room the index answers for: the rooms of the
+	 * {@link RoomCatalog}. Rooms without a booking on a date are free all day.
+	 *
+	 * @return the rooms in name order, as a live read-only view.
+	 */
+	public NavigableSet<String> rooms() {
+		return roomCatalog.names();
+	}
+
+	/**
+	 * Checks whether a booked interval of the room on the given date overlaps
+	 * the requested half-open interval. Intervals that only touch at an end
+	 * point do not overlap, matching the store.
+	 *
+	 * @param room     the name or identifier of the meeting room.
+	 * @param date     the date of the booking.
+	 * @param timeFrom the requested start time.
+	 * @param timeTo   the requested end time.
+	 * @return true if an overlapping booking exists; false otherwise.
+	 */
+	public boolean hasOverlap(String room, LocalDate date, LocalTime timeFrom, LocalTime timeTo) {
+		int roomId = roomCatalog.idOf(room);
+		Map<Integer, Schedule> day = roomId != RoomCatalog.UNKNOWN ? days.get(dayOf(date)) : null;
+		Schedule schedule = day != null ? day.get(roomId) : null;
+		return schedule != null && schedule.overlaps(timeFrom.toSecondOfDay(), timeTo.toSecondOfDay());
+	}
+
+	/**
+	 * Finds every known room with a free stretch of at least the given length
+	 * inside the half-open window on a date. Each room is answered from its
+	 * occupancy bitset by jumping between booked and free runs, so the cost is
+	 * proportional to the number of rooms and bookings in the window.
+	 *
+	 * @param date        the date to search.
+	 * @param timeFrom    the start of the window (inclusive).
+	 * @param timeTo      the end of the window (exclusive).
+	 * @param minDuration the minimum free stretch in minutes.
+	 * @return the first qualifying free stretch of every available room, in room
+	 *         name order.
+	 */
+	public List<RoomAvailability> findAvailable(LocalDate date, LocalTime timeFrom, LocalTime timeTo,
+			int minDuration) {
+		int from = minuteOf(timeFrom);
+		int to = minuteOf(timeTo);
+		Map<Integer, Schedule> day = days.get(dayOf(date));
+		if (day == null) {
+			day = Map.of();
+		}
+		List<RoomAvailability> available = new ArrayList<>();
+		for (String room : roomCatalog.names()) {
+			Schedule schedule = day.get(roomCatalog.idOf(room));
+			int start = from;
+			int end = to;
+			if (schedule != null) {
+				long run = schedule.freeRun(from, to, minDuration);
+				if (run < 0) {
+					continue;
+				}
+				start = (int) (run >>> 32);
+				end = (int) run;
+			}
+			available.add(new RoomAvailability(room, timeOf(start), timeOf(end)));
+		}
+		return available;
+	}
+
+	/**
+	 * Adds a booking to the index. A booking submitted before it is stored may
+	 * be the first one of its room, which is then created as by
+	 * {@link RoomCatalog#resolve}.
+	 *
+	 * @param booking the booking to add.
+	 */
+	public void add(Booking booking) {
+		int roomId = roomCatalog.resolve(booking.getRoom());
+		ConcurrentMap<Integer, Schedule> day = days.computeIfAbsent(dayOf(booking.getDate()),
+				key -> new ConcurrentHashMap<>());
+		day.compute(roomId, (key, schedule) -> {
+			Schedule target = schedule != null ? schedule : new Schedule();
+			target.add(booking);
+			return target;
+		});
+	}
+
+	/**
+	 * Removes a booking from the index.
+	 *
+	 * @param booking the booking to remove.
+	 */
+	public void remove(Booking booking) {
+		int roomId = roomCatalog.idOf(booking.getRoom());
+		ConcurrentMap<Integer, Schedule> day = roomId != RoomCatalog.UNKNOWN ? days.get(dayOf(booking.getDate()))
+				: null;
+		if (day != null) {
+			day.computeIfPresent(roomId, (key, schedule) -> schedule.remove(booking) ? null : schedule);
+		}
+	}
+
+	/**
+	 * Applies committed booking changes to the index.
+	 *
+	 * @param event the booking change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		if (event.getType() == BookingChangedEvent.Type.CREATED) {
+			add(event.getBooking());
+		} else {
+			remove(event.getBooking());
+		}
+	}
+
+	private static int dayOf(LocalDate date) {
+		return Math.toIntExact(date.toEpochDay());
+	}
+
+	private static int minuteOf(LocalTime time) {
+		return time.getHour() * 60 + time.getMinute();
+	}
+
+	private static LocalTime timeOf(int minute) {
+		return LocalTime.of(minute / 60, minute % 60);
+	}
+
+	/**
+	 * Booked intervals of one room on one date, sorted by start time. Each
+	 * interval is stored as its start and end second of the day side by side in
+	 * {@code bounds}, with the booking id at the same position in {@code ids}.
+	 * The service never admits overlapping bookings, so the interval with the
+	 * greatest start before a requested end is the only candidate for an
+	 * overlap, and clearing the minutes of a removed booking never frees time
+	 * held by another one.
+	 */
+	private static final class Schedule {
+
+		private int[] bounds = new int[2 * 2];
+
+		private long[] ids = new long[2];
+
+		private int size;
+
+		private final BitSet minutes = new BitSet(MINUTES_PER_DAY);
+
+		/**
+		 * Returns the first free run of at least {@code minDuration} minutes in
+		 * [from, to) packed as start &lt;&lt; 32 | end, or -1 if there is none.
+		 */
+		synchronized long freeRun(int from, int to, int minDuration) {
+			int start = minutes.nextClearBit(from);
+			while (start + minDuration <= to) {
+				int end = minutes.nextSetBit(start);
+				if (end < 0 || end > to) {
+					end = to;
+				}
+				if (end - start >= minDuration) {
+					return (long) start << 32 | end;
+				}
+				start = minutes.nextClearBit(end);
+			}
+			return -1;
+		}
+
+		synchronized boolean overlaps(int from, int to) {
+			int candidate = lowerThan(to);
+			return candidate >= 0 && bounds[2 * candidate + 1] > from;
+		}
+
+		synchronized void add(Booking booking) {
+			int from = booking.getTimeFrom().toSecondOfDay();
+			int position = lowerThan(from) + 1;
+			if (position == size || bounds[2 * position] != from) {
+				if (size == ids.length) {
+					ids = Arrays.copyOf(ids, size * 2);
+					bounds = Arrays.copyOf(bounds, size * 4);
+				}
+				System.arraycopy(ids, position, ids, position + 1, size - position);
+				System.arraycopy(bounds, 2 * position, bounds, 2 * position + 2, 2 * (size - position));
+				size++;
+			}
+			ids[position] = booking.getId();
+			bounds[2 * position] = from;
+			bounds[2 * position + 1] = booking.getTimeTo().toSecondOfDay();
+			minutes.set(minuteOf(booking.getTimeFrom()), minuteOf(booking.getTimeTo()));
+		}
+
+		/**
+		 * Removes the booking and returns true if the schedule became empty.
+		 */
+		synchronized boolean remove(Booking booking) {
+			int from = booking.getTimeFrom().toSecondOfDay();
+			int position = lowerThan(from) + 1;
+			if (position < size && bounds[2 * position] == from && ids[position] == booking.getId()) {
+				minutes.clear(minuteOf(booking.getTimeFrom()), bounds[2 * position + 1] / 60);
+				System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+				System.arraycopy(bounds, 2 * position + 2, bounds, 2 * position, 2 * (size - position - 1));
+				size--;
+			}
+			return size == 0;
+		}
+
+		/**
+		 * Returns the position of the interval with the greatest start before
+		 * the given second, or -1 if every interval starts at or after it.
+		 */
+		private int lowerThan(int second) {
+			int low = 0;
+			int high = size - 1;
+			while (low <= high) {
+				int middle = (low + high) >>> 1;
+				if (bounds[2 * middle] < second) {
+					low = middle + 1;
+				} else {
+					high = middle - 1;
+				}
+			}
+			return high;
+		}
+	}
+}
@@ -0,0 +1,283 @@
+package com.acme.meetingroom.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.event.BookingChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans committed booking changes out to server-sent event subscribers of a
+ * room/day schedule.
+ * <p>
+ * An idle subscriber holds no thread: it is an async {@link SseEmitter} plus a
+ * small bounded buffer. The committing thread only serializes the change once
+ * and appends it to the buffers of the affected subscribers; a small shared
+ * pool drains buffers that have pending events. A subscriber whose buffer is
+ * full is too slow to keep up and is disconnected, so that it cannot hold back
+ * the others; clients are expected to reconnect and re-read the schedule.
+ */
+@Component
+public class ScheduleStreamRegistry implements SmartLifecycle {
+	private static final Logger logger = LoggerFactory.getLogger(ScheduleStreamRegistry.class);
+
+	private final ConcurrentMap<RoomDate, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+	private final AtomicInteger subscriberCount = new AtomicInteger();
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	private final ExecutorService dispatcher;
+
+	private final ObjectMapper objectMapper;
+
+	private final long timeoutMillis;
+
+	private final int bufferSize;
+
+	private final Counter dropped;
+
+	private volatile boolean running;
+
+	/**
+	 * Constructs a new instance of {@link ScheduleStreamRegistry}.
+	 *
+	 * @param objectMapper    the mapper used to serialize each change once.
+	 * @param meterRegistry   the registry for subscriber and drop metrics.
+	 * @param timeout         how long a stream stays open before the client has
+	 *                        to reconnect.
+	 * @param bufferSize      the number of undelivered events a subscriber may
+	 *                        have before it is disconnected.
+	 * @param dispatchThreads the number of threads writing events to clients.
+	 */
+	public ScheduleStreamRegistry(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+			@Value("${booking.stream.timeout:PT30M}") Duration timeout,
+			@Value("${booking.stream.subscriber-buffer:32}") int bufferSize,
+			@Value("${booking.stream.dispatch-threads:4}") int dispatchThreads) {
+		this.objectMapper = objectMapper;
+		this.timeoutMillis = timeout.toMillis();
+		this.bufferSize = bufferSize;
+		this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), new CustomizableThreadFactory("schedule-stream-"));
+		this.dropped = meterRegistry.counter("booking.stream.dropped");
+		meterRegistry.gauge("booking.stream.subscribers", subscriberCount);
+	}
+
+	/**
+	 * Opens a new event stream of changes to the given room/day schedule.
+	 *
+	 * @param key the room and date.
+	 * @return the emitter to return from the controller.
+	 */
+	public SseEmitter subscribe(RoomDate key) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		register(key, emitter);
+		return emitter;
+	}
+
+	/**
+	 * Registers an emitter for changes to the given room/day schedule. The
+	 * emitter is unregistered when it completes, times out or fails.
+	 *
+	 * @param key     the room and date.
+	 * @param emitter the emitter receiving the changes.
+	 */
+	public void register(RoomDate key, SseEmitter emitter) {
+		Subscriber subscriber = new Subscriber(key, emitter, bufferSize);
+		emitter.onCompletion(() -> unregister(subscriber));
+		emitter.onTimeout(() -> unregister(subscriber));
+		emitter.onError(e -> unregister(subscriber));
+		subscriberCount.incrementAndGet();
+		// Add inside compute so a concurrent removal of the last subscriber cannot drop the set under us
+		subscribers.compute(key, (k, set) -> {
+			Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+			if (!subscriber.closed.get()) {
+				target.add(subscriber);
+			}
+			return target.isEmpty() ? null : target;
+		});
+	}
+
+	/**
+	 * Returns the number of open streams.
+	 *
+	 * @return the subscriber count.
+	 */
+	public int getSubscriberCount() {
+		return subscriberCount.get();
+	}
+
+	/**
+	 * Returns the number of subscribers disconnected for falling behind.
+	 *
+	 * @return the drop count.
+	 */
+	public long getDroppedCount() {
+		return (long) dropped.count();
+	}
+
+	/**
+	 * Publishes a committed booking change to the subscribers of its room and
+	 * date.
+	 *
+	 * @param event the booking change.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		Booking booking = event.getBooking();
+		Set<Subscriber> targets = subscribers.get(new RoomDate(booking.getRoom(), booking.getDate()));
+		if (targets == null || targets.isEmpty()) {
+			return;
+		}
+		Change change;
+		try {
+			change = new Change(sequence.incrementAndGet(), event.getType().name().toLowerCase(),
+					objectMapper.writeValueAsString(booking));
+		} catch (JsonProcessingException e) {
+			logger.error("Could not serialize booking change {}", event, e);
+			return;
+		}
+		for (Subscriber subscriber : targets) {
+			if (subscriber.buffer.offer(change)) {
+				subscriber.scheduleDrain();
+			} else {
+				// The client is not reading fast enough; cut it loose rather than buffer without bound
+				dropped.increment();
+				unregister(subscriber);
+				subscriber.emitter.complete();
+			}
+		}
+	}
+
+	@Override
+	public void start() {
+		running = true;
+	}
+
+	/**
+	 * Completes all open streams. Runs before the web server's graceful
+	 * shutdown, which would otherwise wait for the streams to end.
+	 */
+	@Override
+	public void stop() {
+		running = false;
+		subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Stops the dispatcher.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		dispatcher.shutdownNow();
+	}
+
+	private void unregister(Subscriber subscriber) {
+		if (subscriber.closed.compareAndSet(false, true)) {
+			subscribers.computeIfPresent(subscriber.key, (key, set) -> {
+				set.remove(subscriber);
+				return set.isEmpty() ? null : set;
+			});
+			subscriberCount.decrementAndGet();
+		}
+	}
+
+	/**
+	 * A booking change serialized once for all subscribers.
+	 */
+	private static final class Change {
+
+		private final long id;
+
+		private final String name;
+
+		private final String data;
+
+		Change(long id, String name, String data) {
+			this.id = id;
+			this.name = name;
+			this.data = data;
+		}
+	}
+
+	private final class Subscriber {
+
+		private final RoomDate key;
+
+		private final SseEmitter emitter;
+
+		private final BlockingQueue<Change> buffer;
+
+		private final AtomicBoolean draining = new AtomicBoolean();
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		Subscriber(RoomDate key, SseEmitter emitter, int bufferSize) {
+			this.key = key;
+			this.emitter = emitter;
+			this.buffer = new ArrayBlockingQueue<>(bufferSize);
+		}
+
+		void scheduleDrain() {
+			if (draining.compareAndSet(false, true)) {
+				dispatcher.execute(this::drain);
+			}
+		}
+
+		/**
+		 * Writes buffered changes until the buffer is empty. At most one drain per
+		 * subscriber runs at a time, which keeps events in order.
+		 */
+		private void drain() {
+			do {
+				Change change;
+				while ((change = buffer.poll()) != null) {
+					if (closed.get()) {
+						return;
+					}
+					try {
+						emitter.send(SseEmitter.event().id(Long.toString(change.id)).name(change.name)
+								.data(change.data));
+					} catch (IOException | IllegalStateException e) {
+						unregister(this);
+						emitter.completeWithError(e);
+						return;
+					}
+				}
+				draining.set(false);
+			} while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.acme.meetingroom.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.acme.meetingroom.event.BookingChangedEvent;
+
+/**
+ * Version counters of room/day schedules, used as entity tags for conditional
+ * GET requests. A schedule's version changes after every committed create or
+ * cancel for its room and date, so an unchanged tag means an unchanged
+ * schedule.
+ * <p>
+ * Versions are drawn from a single counter and qualified with a per-instance
+ * epoch, so a tag handed out before a restart never matches afterwards.
+ * Entries for past dates are dropped once a day.
+ */
+@Component
+public class ScheduleVersions {
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private final ConcurrentMap<RoomDate, Long> versions = new ConcurrentHashMap<>();
+
+	private volatile LocalDate prunedUntil = LocalDate.now();
+
+	/**
+	 * Returns the strong entity tag of the given schedule. Read it before
+	 * loading the schedule, so that a concurrent change can only make the tag
+	 * older than the body, never newer.
+	 *
+	 * @param key the room and date.
+	 * @return the quoted entity tag.
+	 */
+	public String etag(RoomDate key) {
+		return "\"" + epoch + "-" + versions.getOrDefault(key, 0L) + "\"";
+	}
+
+	/**
+	 * Bumps the version of the schedule touched by a committed booking change.
+	 * Runs after the schedule cache has been invalidated, so that a request
+	 * seeing the new version cannot be served the old cached schedule.
+	 *
+	 * @param event the booking change.
+	 */
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		versions.put(new RoomDate(event.getBooking().getRoom(), event.getBooking().getDate()),
+				clock.incrementAndGet());
+		LocalDate today = LocalDate.now();
+		if (today.isAfter(prunedUntil)) {
+			prunedUntil = today;
+			versions.keySet().removeIf(key -> key.getDate().isBefore(today));
+		}
+	}
+}
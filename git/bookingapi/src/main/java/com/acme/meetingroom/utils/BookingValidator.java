@@ -13,25 +13,67 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.entity.RecurringSeries;
+import com.acme.meetingroom.entity.Room;
+import com.acme.meetingroom.service.RoomCatalog;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Validates booking requests. Every rejection is counted in the
+ * {@code booking.validation.failures} counter, tagged with its error key.
+ */
 @Component
 public class BookingValidator {
 	private static final Logger logger = LoggerFactory.getLogger(BookingValidator.class);
 
+	/**
+	 * Error key of a start time after the end time.
+	 */
+	public static final String TIME_RANGE_ERROR = "Time range validation error";
+
+	/**
+	 * Error key of a booking shorter than the minimum duration.
+	 */
+	public static final String BOOKING_DURATION_ERROR = "Booking duration validation error";
+
+	private final MeterRegistry meterRegistry;
+
+	private final RoomCatalog roomCatalog;
+
+	/**
+	 * Constructs a new instance of {@link BookingValidator}.
+	 *
+	 * @param meterRegistry the registry the validation failures are counted in.
+	 * @param roomCatalog   the catalog of the rooms that may be booked.
+	 */
+	public BookingValidator(MeterRegistry meterRegistry, RoomCatalog roomCatalog) {
+		this.meterRegistry = meterRegistry;
+		this.roomCatalog = roomCatalog;
+	}
+
 	public void validateBookingTimeFromTimeTo(String room, LocalDate date, LocalTime timeFrom, LocalTime timeTo) {
 		if (timeTo.isBefore(timeFrom)) {
 			logger.error("Invalid booking duration for room: {}, date: {}.Start time is greater than end time.", room,
 					date);
+			countFailure(TIME_RANGE_ERROR);
 			throw new IllegalArgumentException("Invalid booking duration. Start time is greater than end time.");
 		}
 		if (timeFrom.until(timeTo, MINUTES) < 60) {
 			logger.error("Invalid booking duration for room: {}, date: {}.Must be at least 1 hour.", room, date);
+			countFailure(BOOKING_DURATION_ERROR);
 			throw new IllegalArgumentException("Invalid booking duration. Must be at least 1 hour.");
 		}
 	}
 
 	public Map<String, String> validateBooking(Booking booking) {
 		Map<String, String> errors = new HashMap<>();
+		if (StringUtils.isBlank(booking.getRoom())) {
+			errors.put("Room validation error", "Room is empty");
+		} else if (!roomCatalog.isBookable(booking.getRoom())) {
+			errors.put("Room validation error", "Room does not exist");
+		}
 		if (StringUtils.isEmpty(booking.getEmployeeEmail())) {
 			errors.put("Employee email validation error", "Employee email is empty");
 		}
@@ -46,11 +88,53 @@ public class BookingValidator {
 		} else if (booking.getDate() != null && booking.getDate().isBefore(LocalDate.now())) {
 			errors.put("Date value invalid", "Date is in the past");
 		}
-		return errors;
+		return counted(errors);
+	}
+
+	public Map<String, String> validateSeries(RecurringSeries series) {
+		Map<String, String> errors = new HashMap<>();
+		if (StringUtils.isBlank(series.getRoom())) {
+			errors.put("Room validation error", "Room is empty");
+		} else if (!roomCatalog.isBookable(series.getRoom())) {
+			errors.put("Room validation error", "Room does not exist");
+		}
+		if (StringUtils.isEmpty(series.getEmployeeEmail())) {
+			errors.put("Employee email validation error", "Employee email is empty");
+		}
+		if (series.getTimeFrom() == null) {
+			errors.put("Time from validation error", "Time from is empty");
+		}
+		if (series.getTimeTo() == null) {
+			errors.put("Time to validation error", "Time to is empty");
+		}
+		if (series.getFrequency() == null) {
+			errors.put("Frequency validation error", "Frequency is empty");
+		}
+		if (series.getInterval() < 1) {
+			errors.put("Interval validation error", "Interval must be at least 1");
+		}
+		if (series.getStartDate() == null) {
+			errors.put("Start date validation error", "Start date is empty");
+		} else if (series.getStartDate().isBefore(LocalDate.now())) {
+			errors.put("Start date value invalid", "Start date is in the past");
+		}
+		if ((series.getUntilDate() == null) == (series.getCount() == null)) {
+			errors.put("Recurrence end validation error", "Exactly one of until date and count is required");
+		} else if (series.getCount() != null && series.getCount() < 1) {
+			errors.put("Count validation error", "Count must be at least 1");
+		} else if (series.getUntilDate() != null && series.getStartDate() != null
+				&& series.getUntilDate().isBefore(series.getStartDate())) {
+			errors.put("Until date validation error", "Until date is before start date");
+		}
+		if (series.getExceptions() == null || series.getExceptions().contains(null)) {
+			errors.put("Exceptions validation error", "Exception dates must not be empty");
+		}
+		return counted(errors);
 	}
 
 	public void validatePastBooking(Booking booking) {
 		if (booking.getDate().isBefore(LocalDate.now())) {
+			countFailure("Past booking validation error");
 			throw new IllegalStateException("Cannot cancel past bookings");
 		}
 	}
@@ -61,14 +145,90 @@ public class BookingValidator {
 		if (room == null || room.trim().isEmpty()) {
 			logger.error("Invalid room: {} supplied. Room is empty.", room);
 			errors.put("Room validation error", "Room parameter is empty");
-			return errors;
+			return counted(errors);
 		}
 		// Validate date parameter
 		if (date.isBefore(LocalDate.now())) {
 			logger.error("Invalid date: {},supplied. Date supplied is in the past.", date);
 			errors.put("Date validation error", "Date parameter is in the past");
-			return errors;
+			return counted(errors);
 		}
 		return null;
 	}
+
+	public Map<String, String> validateAvailabilityQuery(LocalDate date, LocalTime timeFrom, LocalTime timeTo,
+			int minDuration) {
+		Map<String, String> errors = new HashMap<>();
+		if (date.isBefore(LocalDate.now())) {
+			logger.error("Invalid date: {},supplied. Date supplied is in the past.", date);
+			errors.put("Date validation error", "Date parameter is in the past");
+			return counted(errors);
+		}
+		if (!timeFrom.isBefore(timeTo)) {
+			logger.error("Invalid window from: {}, to: {}. Start time is not before end time.", timeFrom, timeTo);
+			errors.put("Time window validation error", "Start time must be before end time");
+			return counted(errors);
+		}
+		if (minDuration <= 0 || minDuration > timeFrom.until(timeTo, MINUTES)) {
+			logger.error("Invalid minimum duration: {} for window from: {}, to: {}.", minDuration, timeFrom, timeTo);
+			errors.put("Duration validation error", "Minimum duration must be positive and fit in the window");
+			return counted(errors);
+		}
+		return null;
+	}
+
+	public Map<String, String> validateDateRange(String room, LocalDate from, LocalDate to) {
+		Map<String, String> errors = new HashMap<>();
+		if (room != null && room.trim().isEmpty()) {
+			logger.error("Invalid room: {} supplied. Room is empty.", room);
+			errors.put("Room validation error", "Room parameter is empty");
+			return counted(errors);
+		}
+		if (to.isBefore(from)) {
+			logger.error("Invalid date range from: {}, to: {}. End date is before start date.", from, to);
+			errors.put("Date range validation error", "End date is before start date");
+			return counted(errors);
+		}
+		return null;
+	}
+
+	public Map<String, String> validateRoom(String name, Room room) {
+		Map<String, String> errors = new HashMap<>();
+		if (StringUtils.isBlank(name)) {
+			errors.put("Room validation error", "Room is empty");
+		}
+		if (room.getCapacity() != null && room.getCapacity() < 1) {
+			errors.put("Capacity validation error", "Capacity must be at least 1");
+		}
+		if (errors.isEmpty()) {
+			return null;
+		}
+		logger.error("Invalid room: {} supplied with capacity: {}.", name, room.getCapacity());
+		return counted(errors);
+	}
+
+	public Map<String, String> validatePageSize(int size, int maxSize) {
+		Map<String, String> errors = new HashMap<>();
+		if (size < 1 || size > maxSize) {
+			logger.error("Invalid page size: {} supplied. Must be between 1 and {}.", size, maxSize);
+			errors.put("Page size validation error", "Page size must be between 1 and " + maxSize);
+			return counted(errors);
+		}
+		return null;
+	}
+
+	/**
+	 * Counts every error of a validation result and returns it unchanged.
+	 */
+	private Map<String, String> counted(Map<String, String> errors) {
+		for (String key : errors.keySet()) {
+			countFailure(key);
+		}
+		return errors;
+	}
+
+	private void countFailure(String key) {
+		Counter.builder("booking.validation.failures").description("Rejected booking requests by error key")
+				.tag("error", key).register(meterRegistry).increment();
+	}
 }
@@ -0,0 +1,139 @@
+package com.acme.meetingroom.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source that bounds the number of connections in use and the number of
+ * callers queued for one. A permit is taken before a connection is borrowed
+ * from the pool and returned when the connection is closed.
+ * <p>
+ * With virtual threads every request can reach the database at once. The
+ * limiter queues callers fairly in front of the pool and rejects new callers
+ * immediately once the queue is full, so an overload turns into fast
+ * failures instead of thousands of threads timing out inside the pool.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+	private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitingDataSource.class);
+
+	private final Semaphore permits;
+
+	private final int maxWaiting;
+
+	private final long acquireTimeoutNanos;
+
+	private final AtomicInteger waiting = new AtomicInteger();
+
+	/**
+	 * Constructs a new ConcurrencyLimitingDataSource.
+	 *
+	 * @param target         the pooled data source to protect.
+	 * @param maxConcurrency the maximum number of connections in use at once.
+	 * @param maxWaiting     the maximum number of callers waiting for a permit.
+	 * @param acquireTimeout how long a caller may wait for a permit.
+	 */
+	public ConcurrencyLimitingDataSource(DataSource target, int maxConcurrency, int maxWaiting,
+			Duration acquireTimeout) {
+		super(target);
+		this.permits = new Semaphore(maxConcurrency, true);
+		this.maxWaiting = maxWaiting;
+		this.acquireTimeoutNanos = acquireTimeout.toNanos();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection());
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection(username, password));
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of callers currently waiting for a connection.
+	 *
+	 * @return the queue length.
+	 */
+	public int getWaiting() {
+		return waiting.get();
+	}
+
+	/**
+	 * Returns the number of connections that can be borrowed without waiting.
+	 *
+	 * @return the free permits.
+	 */
+	public int getAvailable() {
+		return permits.availablePermits();
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			// Unlike tryAcquire(), a timed acquire does not barge ahead of queued callers
+			if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+				return;
+			}
+			if (waiting.incrementAndGet() > maxWaiting) {
+				waiting.decrementAndGet();
+				logger.warn("Database admission queue is full ({} waiting)", maxWaiting);
+				throw new SQLTransientConnectionException("Database admission queue is full");
+			}
+			try {
+				if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+					throw new SQLTransientConnectionException("Timed out waiting for a database connection permit");
+				}
+			} finally {
+				waiting.decrementAndGet();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted waiting for a database connection permit", e);
+		}
+	}
+
+	/**
+	 * Wraps a pooled connection so that closing it releases the permit once.
+	 */
+	private Connection limited(Connection connection) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					if ("close".equals(method.getName()) && method.getParameterCount() == 0
+							&& released.compareAndSet(false, true)) {
+						permits.release();
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+}
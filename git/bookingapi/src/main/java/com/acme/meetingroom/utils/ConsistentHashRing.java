@@ -0,0 +1,75 @@
+package com.acme.meetingroom.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring mapping string keys to nodes. Every node is placed on
+ * the ring at {@code virtualNodes} points derived from its name, and a key
+ * belongs to the first node at or after its own hash, wrapping around. Adding
+ * or removing a node therefore only moves the keys of the ring segments it
+ * gains or loses, and the virtual nodes keep the share of each node close to
+ * even.
+ * <p>
+ * The hash is 64-bit FNV-1a with a final avalanche mix, computed from the UTF-8
+ * bytes, so every JVM given the same nodes agrees on the owner of a key.
+ * Instances are immutable and safe to share between threads.
+ */
+public class ConsistentHashRing {
+
+	private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+	/**
+	 * Constructs a ring over the given nodes.
+	 *
+	 * @param nodes        the names of the nodes; must not be empty.
+	 * @param virtualNodes the number of points of each node on the ring.
+	 * @throws IllegalArgumentException if there are no nodes or the number of
+	 *                                  virtual nodes is not positive.
+	 */
+	public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+		if (nodes.isEmpty() || virtualNodes < 1) {
+			throw new IllegalArgumentException("A ring needs at least one node and one virtual node per node.");
+		}
+		for (String node : nodes) {
+			for (int i = 0; i < virtualNodes; i++) {
+				ring.put(hash(node + "#" + i), node);
+			}
+		}
+	}
+
+	/**
+	 * Returns the node owning a key.
+	 *
+	 * @param key the key.
+	 * @return the name of the owning node.
+	 */
+	public String nodeFor(String key) {
+		Map.Entry<Long, String> owner = ring.ceilingEntry(hash(key));
+		return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+	}
+
+	/**
+	 * Returns the 64-bit hash of a string.
+	 *
+	 * @param key the string.
+	 * @return the hash.
+	 */
+	static long hash(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		// FNV leaves similar keys close together; mix so they spread over the ring
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,152 @@
+package com.acme.meetingroom.utils;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timer wheel that hands items to a callback once their deadline has
+ * passed. One worker thread advances the wheel a bucket per tick and only
+ * looks at the items hashed into that bucket, so scheduling is O(1) and the
+ * cost of a tick does not depend on how many items are pending. Deadlines are
+ * honoured with a precision of one tick.
+ * <p>
+ * There is no cancellation: the callback is expected to ignore items that are
+ * no longer relevant, and such items stay in the wheel until their deadline.
+ *
+ * @param <T> the type of the scheduled items.
+ */
+public class HashedTimerWheel<T> implements AutoCloseable {
+	private static final Logger logger = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+	private final long tickNanos;
+
+	private final ArrayDeque<Timeout<T>>[] buckets;
+
+	private final int mask;
+
+	private final Consumer<T> onExpiry;
+
+	/**
+	 * Items scheduled since the last tick, moved into their buckets by the
+	 * worker so that the buckets are only ever touched by one thread.
+	 */
+	private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+	private final long startNanos;
+
+	private final Thread worker;
+
+	/**
+	 * Number of ticks processed, read and written by the worker only.
+	 */
+	private long tick;
+
+	/**
+	 * Constructs and starts a new {@link HashedTimerWheel}.
+	 *
+	 * @param name       the name of the worker thread.
+	 * @param tick       the duration of one tick.
+	 * @param wheelSize  the number of buckets, rounded up to a power of two.
+	 * @param onExpiry   receives every item once its deadline has passed, on the
+	 *                   worker thread.
+	 */
+	@SuppressWarnings("unchecked")
+	public HashedTimerWheel(String name, Duration tick, int wheelSize, Consumer<T> onExpiry) {
+		int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+		this.tickNanos = tick.toNanos();
+		this.buckets = new ArrayDeque[size];
+		for (int i = 0; i < size; i++) {
+			buckets[i] = new ArrayDeque<>();
+		}
+		this.mask = size - 1;
+		this.onExpiry = onExpiry;
+		this.startNanos = System.nanoTime();
+		this.worker = new Thread(this::run, name);
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	/**
+	 * Schedules an item to expire after a delay.
+	 *
+	 * @param item  the item to hand to the callback.
+	 * @param delay how long to wait.
+	 */
+	public void schedule(T item, Duration delay) {
+		pending.add(new Timeout<>(item, System.nanoTime() + delay.toNanos()));
+	}
+
+	/**
+	 * Stops the worker thread. Pending items are dropped.
+	 */
+	@Override
+	public void close() {
+		worker.interrupt();
+	}
+
+	private void run() {
+		while (!Thread.currentThread().isInterrupted()) {
+			long wait = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+			if (wait > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(wait);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+			transferPending();
+			expire(buckets[(int) (tick & mask)]);
+			tick++;
+		}
+	}
+
+	/**
+	 * Moves newly scheduled items into the bucket of the tick at whose end their
+	 * deadline has passed, counting the full turns of the wheel before that.
+	 */
+	private void transferPending() {
+		for (Timeout<T> timeout = pending.poll(); timeout != null; timeout = pending.poll()) {
+			long ticks = Math.max((timeout.deadline - startNanos + tickNanos - 1) / tickNanos - 1, tick);
+			timeout.rounds = (ticks - tick) / buckets.length;
+			buckets[(int) (ticks & mask)].add(timeout);
+		}
+	}
+
+	private void expire(ArrayDeque<Timeout<T>> bucket) {
+		for (Iterator<Timeout<T>> iterator = bucket.iterator(); iterator.hasNext();) {
+			Timeout<T> timeout = iterator.next();
+			if (timeout.rounds > 0) {
+				timeout.rounds--;
+				continue;
+			}
+			iterator.remove();
+			try {
+				onExpiry.accept(timeout.item);
+			} catch (RuntimeException e) {
+				logger.error("Expiry callback failed for {}", timeout.item, e);
+			}
+		}
+	}
+
+	private static final class Timeout<T> {
+
+		private final T item;
+
+		private final long deadline;
+
+		private long rounds;
+
+		Timeout(T item, long deadline) {
+			this.item = item;
+			this.deadline = deadline;
+		}
+	}
+}
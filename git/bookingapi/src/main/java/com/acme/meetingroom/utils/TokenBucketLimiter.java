@@ -0,0 +1,126 @@
+package com.acme.meetingroom.utils;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets, one per key, refilled at a fixed rate up to a burst
+ * size. A bucket is a single {@code long}: the time at which it would be full
+ * again (the generic cell rate algorithm), so taking a token is one
+ * compare-and-set and a full bucket carries no information.
+ * <p>
+ * Memory is bounded. Full buckets are dropped, at most once per sweep
+ * interval, when the number of keys reaches its maximum; keys that still find
+ * no room share a fixed array of striped buckets by hash until the next sweep.
+ * A token taken while its bucket is being dropped may go uncounted.
+ */
+public class TokenBucketLimiter {
+
+	private final long interval;
+
+	private final long tolerance;
+
+	private final int maxKeys;
+
+	private final long sweepInterval;
+
+	private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+	private final AtomicLong[] stripes;
+
+	private final int mask;
+
+	private final AtomicLong nextSweep;
+
+	/**
+	 * Constructs a new {@link TokenBucketLimiter}.
+	 *
+	 * @param permitsPerSecond the rate at which buckets refill.
+	 * @param burst            the number of tokens of a full bucket.
+	 * @param maxKeys          the number of keys with a bucket of their own.
+	 * @param stripes          the number of buckets shared by the other keys,
+	 *                         rounded up to a power of two.
+	 * @param sweepInterval    the minimum time between two sweeps of full
+	 *                         buckets.
+	 */
+	public TokenBucketLimiter(double permitsPerSecond, int burst, int maxKeys, int stripes, Duration sweepInterval) {
+		if (permitsPerSecond <= 0 || burst < 1) {
+			throw new IllegalArgumentException("Rate and burst must be positive");
+		}
+		int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+		long now = System.nanoTime();
+		this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+		this.tolerance = interval * (burst - 1);
+		this.maxKeys = maxKeys;
+		this.sweepInterval = sweepInterval.toNanos();
+		this.stripes = new AtomicLong[size];
+		for (int i = 0; i < size; i++) {
+			this.stripes[i] = new AtomicLong(now);
+		}
+		this.mask = size - 1;
+		this.nextSweep = new AtomicLong(now);
+	}
+
+	/**
+	 * Takes a token from the bucket of a key if it has one.
+	 *
+	 * @param key the key, for example the client making a request.
+	 * @return zero if a token was taken, otherwise how long to wait in
+	 *         nanoseconds before the bucket has a token again.
+	 */
+	public long tryAcquire(String key) {
+		long now = System.nanoTime();
+		AtomicLong bucket = buckets.get(key);
+		if (bucket == null) {
+			if (buckets.size() >= maxKeys) {
+				sweep(now);
+			}
+			bucket = buckets.size() < maxKeys ? buckets.computeIfAbsent(key, ignored -> new AtomicLong(now))
+					: stripes[key.hashCode() & mask];
+		}
+		return take(bucket, now);
+	}
+
+	/**
+	 * Takes a token from a bucket, holding the time at which it is full again.
+	 */
+	private long take(AtomicLong bucket, long now) {
+		while (true) {
+			long full = bucket.get();
+			// Tokens of a bucket that is already full are counted from now
+			long start = full - now > 0 ? full : now;
+			long wait = start - now - tolerance;
+			if (wait > 0) {
+				return wait;
+			}
+			if (bucket.compareAndSet(full, start + interval)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Drops the full buckets, unless another sweep ran less than a sweep
+	 * interval ago.
+	 *
+	 * @param now the current {@link System#nanoTime()}.
+	 */
+	private void sweep(long now) {
+		long due = nextSweep.get();
+		if (now - due >= 0 && nextSweep.compareAndSet(due, now + sweepInterval)) {
+			buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+		}
+	}
+
+	/**
+	 * Returns the number of keys with a bucket of their own.
+	 *
+	 * @return the number of keys.
+	 */
+	public int size() {
+		return buckets.size();
+	}
+}
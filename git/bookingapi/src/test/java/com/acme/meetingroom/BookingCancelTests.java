@@ -0,0 +1,66 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.exception.BookingConflictException;
+import com.acme.meetingroom.repository.BookingStore;
+import com.acme.meetingroom.service.BookingServiceImpl;
+
+/**
+ * Cancellations of upcoming bookings whose delete matches nothing, as when
+ * another transaction holds the row, are tried again and then reported as a
+ * conflict rather than as a missing booking.
+ */
+@SpringBootTest(properties = "booking.room-catalog.auto-create=true")
+class BookingCancelTests {
+
+	@Autowired
+	private BookingServiceImpl bookingService;
+
+	@MockitoSpyBean
+	private BookingStore bookingStore;
+
+	@Test
+	void testMissedDeleteIsTriedAgain() {
+		Booking booking = bookingService.createBooking("CancelRoom1", "cancel@example.com",
+				LocalDate.now().plusDays(1), LocalTime.of(9, 0), LocalTime.of(10, 0));
+		doReturn(List.of()).doCallRealMethod().when(bookingStore).deleteByIdsFrom(eq(List.of(booking.getId())),
+				any(), isNull());
+
+		bookingService.cancelBooking(booking.getId());
+
+		verify(bookingStore, times(2)).deleteByIdsFrom(eq(List.of(booking.getId())), any(), isNull());
+		assertThat(bookingStore.findById(booking.getId())).isEmpty();
+	}
+
+	@Test
+	void testUpcomingBookingThatCannotBeDeletedIsAConflict() {
+		Booking booking = bookingService.createBooking("CancelRoom2", "cancel@example.com",
+				LocalDate.now().plusDays(1), LocalTime.of(9, 0), LocalTime.of(10, 0));
+		doReturn(List.of()).when(bookingStore).deleteByIdsFrom(eq(List.of(booking.getId())), any(), isNull());
+
+		assertThrows(BookingConflictException.class, () -> bookingService.cancelBooking(booking.getId()));
+
+		assertThat(bookingStore.findById(booking.getId())).isPresent();
+		doCallRealMethod().when(bookingStore).deleteByIdsFrom(eq(List.of(booking.getId())), any(), isNull());
+		bookingService.cancelBooking(booking.getId());
+	}
+}
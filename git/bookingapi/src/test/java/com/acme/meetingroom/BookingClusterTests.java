@@ -0,0 +1,363 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.acme.meetingroom.controller.RoomRouter;
+import com.acme.meetingroom.dto.BookingBatchResult;
+import com.acme.meetingroom.dto.BookingBatchResult.Status;
+import com.acme.meetingroom.dto.RoomAvailability;
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.entity.Room;
+import com.acme.meetingroom.utils.ConsistentHashRing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs three instances on localhost sharing one H2 database file, and sends
+ * requests about the same rooms to all of them.
+ */
+class BookingClusterTests {
+
+	private static final int INSTANCES = 3;
+
+	private static final String SECRET = "cluster-test-secret";
+
+	private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+	private static final List<String> urls = new ArrayList<>();
+
+	private static final TestRestTemplate restTemplate = new TestRestTemplate(new RestTemplateBuilder());
+
+	@BeforeAll
+	static void startInstances() throws IOException {
+		Path directory = Files.createTempDirectory("booking-cluster");
+		List<Integer> ports = new ArrayList<>();
+		for (int i = 0; i < INSTANCES; i++) {
+			try (ServerSocket socket = new ServerSocket(0)) {
+				ports.add(socket.getLocalPort());
+			}
+		}
+		for (int port : ports) {
+			urls.add("http://localhost:" + port);
+		}
+		// Started one after the other so that only the first one creates the schema
+		for (int port : ports) {
+			contexts.add(new SpringApplicationBuilder(MeetingRoomApplication.class).run("--server.port=" + port,
+					"--spring.datasource.url=jdbc:h2:file:" + directory.resolve("bookings") + ";AUTO_SERVER=TRUE",
+					"--spring.jpa.show-sql=false", "--booking.cluster.members=" + String.join(",", urls),
+					"--booking.cluster.self=http://localhost:" + port, "--booking.cluster.secret=" + SECRET,
+					"--booking.room-catalog.auto-create=true"));
+		}
+	}
+
+	@AfterAll
+	static void stopInstances() {
+		contexts.forEach(ConfigurableApplicationContext::close);
+	}
+
+	@Test
+	void testRoomsAreSpreadOverTheMembers() {
+		ConsistentHashRing ring = new ConsistentHashRing(urls, 128);
+		Map<String, Long> rooms = IntStream.range(0, 3000)
+				.mapToObj(i -> ring.nodeFor("Room-" + i))
+				.collect(Collectors.groupingBy(owner -> owner, Collectors.counting()));
+		assertThat(rooms).hasSize(INSTANCES)
+				.allSatisfy((owner, count) -> assertThat(count).isBetween(700L, 1300L));
+	}
+
+	@Test
+	void testOverlappingBookingsThroughEveryInstanceAreAdmittedOnce() throws Exception {
+		LocalDate date = LocalDate.now().plusDays(5);
+		int rooms = 6;
+		int attempts = 12;
+		ExecutorService executor = Executors.newFixedThreadPool(rooms * attempts);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+			for (int room = 0; room < rooms; room++) {
+				for (int attempt = 0; attempt < attempts; attempt++) {
+					// Different start times, so the unique index cannot be what rejects them
+					Booking booking = new Booking("ClusterRoom" + room, "employee" + attempt + "@example.com", date,
+							LocalTime.of(9, attempt), LocalTime.of(10, attempt));
+					String url = urls.get(attempt % INSTANCES) + "/api/bookings";
+					responses.add(executor.submit(() -> {
+						start.await();
+						return restTemplate.postForEntity(url, booking, String.class);
+					}));
+				}
+			}
+			start.countDown();
+			int created = 0;
+			for (Future<ResponseEntity<String>> response : responses) {
+				HttpStatus status = HttpStatus.valueOf(response.get().getStatusCode().value());
+				assertThat(status).isIn(HttpStatus.CREATED, HttpStatus.CONFLICT);
+				if (status == HttpStatus.CREATED) {
+					created++;
+				}
+			}
+			assertThat(created).isEqualTo(rooms);
+		} finally {
+			executor.shutdownNow();
+		}
+		for (int room = 0; room < rooms; room++) {
+			for (String url : urls) {
+				Booking[] schedule = restTemplate.getForObject(
+						url + "/api/bookings?room=ClusterRoom" + room + "&date=" + date, Booking[].class);
+				assertThat(schedule).hasSize(1);
+			}
+		}
+	}
+
+	@Test
+	void testCancellationThroughAnotherInstanceFreesTheSlot() {
+		LocalDate date = LocalDate.now().plusDays(6);
+		for (int room = 0; room < 4; room++) {
+			Booking booking = new Booking("ClusterCancelRoom" + room, "employee@example.com", date,
+					LocalTime.of(9, 0), LocalTime.of(10, 0));
+			ResponseEntity<Booking> created = restTemplate.postForEntity(urls.get(0) + "/api/bookings", booking,
+					Booking.class);
+			assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+			ResponseEntity<Void> cancelled = restTemplate.exchange(
+					urls.get(1) + "/api/bookings/" + created.getBody().getId(), HttpMethod.DELETE, null, Void.class);
+			assertThat(cancelled.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+			// The owner saw the cancellation, wherever it came in
+			assertThat(restTemplate.postForEntity(urls.get(2) + "/api/bookings", booking, Booking.class)
+					.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	void testBulkCancellationReachesEveryOwner() {
+		LocalDate date = LocalDate.now().plusDays(8);
+		List<Booking> bookings = new ArrayList<>();
+		for (int room = 0; room < 6; room++) {
+			Booking booking = new Booking("ClusterBulkRoom" + room, "bulk@example.com", date, LocalTime.of(9, 0),
+					LocalTime.of(10, 0));
+			assertThat(restTemplate.postForEntity(urls.get(room % INSTANCES) + "/api/bookings", booking,
+					Booking.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+			bookings.add(booking);
+		}
+
+		ResponseEntity<Map> cancelled = restTemplate.exchange(
+				urls.get(0) + "/api/bookings?employeeEmail=bulk@example.com", HttpMethod.DELETE, null, Map.class);
+		assertThat(cancelled.getBody()).containsEntry("cancelled", 6);
+
+		// Every owner saw the cancellation of its rooms
+		for (int room = 0; room < 6; room++) {
+			assertThat(restTemplate.postForEntity(urls.get(1) + "/api/bookings", bookings.get(room), Booking.class)
+					.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	void testBulkCancellationReportsUnreachableMembers() throws IOException {
+		int port;
+		int deadPort;
+		try (ServerSocket socket = new ServerSocket(0); ServerSocket dead = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+			deadPort = dead.getLocalPort();
+		}
+		String self = "http://localhost:" + port;
+		String dead = "http://localhost:" + deadPort;
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MeetingRoomApplication.class).run(
+				"--server.port=" + port, "--spring.datasource.url=jdbc:h2:mem:partial-cancel",
+				"--spring.jpa.show-sql=false", "--booking.cluster.members=" + self + "," + dead,
+				"--booking.cluster.self=" + self, "--booking.cluster.secret=" + SECRET,
+				"--booking.room-catalog.auto-create=true")) {
+			ConsistentHashRing ring = new ConsistentHashRing(List.of(self, dead), 128);
+			List<String> local = IntStream.range(0, 20).mapToObj(i -> "ClusterPartialRoom" + i)
+					.filter(room -> ring.nodeFor(room).equals(self)).limit(2).toList();
+			for (String room : local) {
+				assertThat(restTemplate.postForEntity(self + "/api/bookings", new Booking(room, "partial@example.com",
+						LocalDate.now().plusDays(8), LocalTime.of(9, 0), LocalTime.of(10, 0)), String.class)
+						.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+			}
+
+			ResponseEntity<Map> cancelled = restTemplate.exchange(
+					self + "/api/bookings?employeeEmail=partial@example.com", HttpMethod.DELETE, null, Map.class);
+			assertThat(cancelled.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+			assertThat(cancelled.getBody()).containsEntry("cancelled", 2).containsEntry("unavailable", List.of(dead));
+		}
+	}
+
+	@Test
+	void testBatchIsSplitByOwner() {
+		LocalDate date = LocalDate.now().plusDays(9);
+		List<Booking> bookings = new ArrayList<>();
+		for (int room = 0; room < 6; room++) {
+			bookings.add(new Booking("ClusterBatchRoom" + room, "employee@example.com", date, LocalTime.of(9, 0),
+					LocalTime.of(10, 0)));
+		}
+		bookings.add(new Booking("ClusterBatchRoom4", "other@example.com", date, LocalTime.of(9, 30),
+				LocalTime.of(10, 30)));
+		bookings.add(new Booking("ClusterBatchRoom5", "other@example.com", date, LocalTime.of(10, 0),
+				LocalTime.of(9, 0)));
+
+		BookingBatchResult[] results = restTemplate.postForObject(urls.get(0) + "/api/bookings/batch", bookings,
+				BookingBatchResult[].class);
+		assertThat(results).extracting(BookingBatchResult::getIndex).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+		assertThat(results).extracting(BookingBatchResult::getStatus).containsExactly(Status.CREATED,
+				Status.CREATED, Status.CREATED, Status.CREATED, Status.CREATED, Status.CREATED, Status.CONFLICT,
+				Status.INVALID);
+		assertThat(results[3].getBooking().getRoom()).isEqualTo("ClusterBatchRoom3");
+	}
+
+	@Test
+	void testHoldPlacedOnOneInstanceIsConfirmedOnAnother() {
+		LocalDate date = LocalDate.now().plusDays(7);
+		for (int room = 0; room < 4; room++) {
+			Booking booking = new Booking("ClusterHoldRoom" + room, "employee@example.com", date, LocalTime.of(9, 0),
+					LocalTime.of(10, 0));
+			ResponseEntity<Map> held = restTemplate.postForEntity(urls.get(0) + "/api/holds", booking, Map.class);
+			assertThat(held.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+			ResponseEntity<Booking> confirmed = restTemplate.postForEntity(
+					urls.get(room % INSTANCES) + "/api/holds/" + held.getBody().get("token") + "/confirm", null,
+					Booking.class);
+			assertThat(confirmed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		}
+	}
+
+	@Test
+	void testAvailabilityCoversTheRoomsOfEveryInstance() {
+		LocalDate date = LocalDate.now().plusDays(8);
+		List<String> booked = new ArrayList<>();
+		for (int room = 0; room < 6; room++) {
+			Booking booking = new Booking("ClusterFreeRoom" + room, "employee@example.com", date, LocalTime.of(9, 0),
+					LocalTime.of(10, 0));
+			assertThat(restTemplate.postForEntity(urls.get(room % INSTANCES) + "/api/bookings", booking, String.class)
+					.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+			booked.add(booking.getRoom());
+		}
+		for (String url : urls) {
+			RoomAvailability[] busy = restTemplate.getForObject(
+					url + "/api/rooms/available?date=" + date + "&from=09:00&to=10:00", RoomAvailability[].class);
+			assertThat(busy).extracting(RoomAvailability::getRoom).doesNotContainAnyElementsOf(booked);
+
+			RoomAvailability[] free = restTemplate.getForObject(
+					url + "/api/rooms/available?date=" + date + "&from=10:00&to=11:00", RoomAvailability[].class);
+			assertThat(free).extracting(RoomAvailability::getRoom).containsAll(booked).doesNotHaveDuplicates()
+					.isSorted();
+		}
+	}
+
+	@Test
+	void testRoomStoredOnOneInstanceIsFoundOnEvery() {
+		String room = "ClusterStoredRoom";
+		Room attributes = new Room();
+		attributes.setCapacity(77);
+		restTemplate.put(urls.get(0) + "/api/rooms/" + room, attributes);
+		LocalDate date = LocalDate.now().plusDays(12);
+		for (String url : urls) {
+			assertThat(restTemplate.getForObject(url + "/api/rooms?minCapacity=77", Room[].class))
+					.extracting(Room::getName).containsExactly(room);
+			assertThat(restTemplate.getForObject(url + "/api/rooms/available?date=" + date + "&from=09:00&to=10:00",
+					RoomAvailability[].class)).extracting(RoomAvailability::getRoom).contains(room);
+		}
+
+		// Only members may ask for a reload
+		assertThat(restTemplate.postForEntity(urls.get(1) + "/api/rooms/" + room + "/refresh", null, String.class)
+				.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+	}
+
+	@Test
+	void testForwardedRequestsMustBeSignedByTheOwnersPeer() throws Exception {
+		ConsistentHashRing ring = new ConsistentHashRing(urls, 128);
+		String room = "ClusterForgedRoom";
+		String owner = ring.nodeFor(room);
+		String other = urls.stream().filter(url -> !url.equals(owner)).findFirst().orElseThrow();
+		String sender = urls.stream().filter(url -> !url.equals(owner) && !url.equals(other)).findFirst()
+				.orElseThrow();
+		Booking booking = new Booking(room, "employee@example.com", LocalDate.now().plusDays(10), LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		ObjectMapper objectMapper = contexts.get(0).getBean(ObjectMapper.class);
+		String body = objectMapper.writeValueAsString(booking);
+
+		// Claiming to be a peer without its signature is refused
+		HttpHeaders forged = new HttpHeaders();
+		forged.setContentType(MediaType.APPLICATION_JSON);
+		forged.set(RoomRouter.FORWARDED_HEADER, sender);
+		assertThat(restTemplate.postForEntity(other + "/api/bookings", new HttpEntity<>(body, forged), String.class)
+				.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+		assertThat(restTemplate.postForEntity(other + "/api/bookings",
+				new HttpEntity<>(body, signed(sender, "/api/bookings/batch", body)), String.class).getStatusCode())
+				.isEqualTo(HttpStatus.FORBIDDEN);
+
+		// The signature covers the body
+		String otherBody = objectMapper.writeValueAsString(new Booking(room, "intruder@example.com",
+				LocalDate.now().plusDays(10), LocalTime.of(9, 0), LocalTime.of(10, 0)));
+		assertThat(restTemplate.postForEntity(other + "/api/bookings",
+				new HttpEntity<>(otherBody, signed(sender, "/api/bookings", body)), String.class).getStatusCode())
+				.isEqualTo(HttpStatus.FORBIDDEN);
+
+		// A signed request about a room the receiver does not own is not handled there
+		HttpHeaders signed = signed(sender, "/api/bookings", body);
+		assertThat(restTemplate.postForEntity(other + "/api/bookings", new HttpEntity<>(body, signed), String.class)
+				.getStatusCode().value()).isEqualTo(421);
+
+		// Nor is it accepted twice
+		assertThat(restTemplate.postForEntity(other + "/api/bookings", new HttpEntity<>(body, signed), String.class)
+				.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+		assertThat(restTemplate.postForEntity(other + "/api/bookings", booking, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.CREATED);
+	}
+
+	private static HttpHeaders signed(String sender, String path, String body) throws Exception {
+		long sentAt = System.currentTimeMillis();
+		String requestId = UUID.randomUUID().toString();
+		String digest = Base64.getEncoder().encodeToString(
+				MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		String signature = Base64.getEncoder().encodeToString(mac.doFinal(
+				("POST\n" + path + "\n" + sender + "\n" + sentAt + "\n" + requestId + "\n" + digest)
+						.getBytes(StandardCharsets.UTF_8)));
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.set(RoomRouter.FORWARDED_HEADER, sender);
+		headers.set(RoomRouter.FORWARDED_AT_HEADER, Long.toString(sentAt));
+		headers.set(RoomRouter.REQUEST_ID_HEADER, requestId);
+		headers.set(RoomRouter.SIGNATURE_HEADER, signature);
+		return headers;
+	}
+}
@@ -0,0 +1,101 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.repository.BookingRepository;
+import com.acme.meetingroom.service.BookingService;
+
+/**
+ * Stress test for concurrent booking admission. Many threads race to book
+ * overlapping slots in a handful of rooms; afterwards no room may hold two
+ * overlapping bookings.
+ */
+@SpringBootTest(properties = "booking.room-catalog.auto-create=true")
+class BookingConcurrencyTests {
+	private static final Logger logger = LoggerFactory.getLogger(BookingConcurrencyTests.class);
+
+	private static final int THREADS = 64;
+
+	private static final int ATTEMPTS_PER_THREAD = 50;
+
+	private static final int ROOMS = 8;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Test
+	void testNoDoubleBookingUnderContention() throws InterruptedException {
+		LocalDate date = LocalDate.now().plusDays(30);
+		AtomicInteger created = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			executor.execute(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				try {
+					start.await();
+					for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+						String room = "StressRoom" + random.nextInt(ROOMS);
+						LocalTime timeFrom = LocalTime.of(8, 0).plusMinutes(30L * random.nextInt(20));
+						LocalTime timeTo = timeFrom.plusMinutes(60L + 30L * random.nextInt(3));
+						try {
+							bookingService.createBooking(room, "stress@example.com", date, timeFrom, timeTo);
+							created.incrementAndGet();
+						} catch (IllegalStateException e) {
+							conflicts.incrementAndGet();
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+		double seconds = (System.nanoTime() - begin) / 1e9;
+		int attempts = THREADS * ATTEMPTS_PER_THREAD;
+		logger.info("{} threads made {} booking attempts in {} s ({} ops/s): {} created, {} conflicts", THREADS,
+				attempts, String.format("%.2f", seconds), String.format("%.0f", attempts / seconds), created.get(),
+				conflicts.get());
+
+		assertThat(created.get() + conflicts.get()).isEqualTo(attempts);
+		int stored = 0;
+		for (int r = 0; r < ROOMS; r++) {
+			List<Booking> bookings = new ArrayList<>(bookingRepository.findByRoomAndDate("StressRoom" + r, date));
+			stored += bookings.size();
+			for (int i = 0; i < bookings.size(); i++) {
+				for (int j = i + 1; j < bookings.size(); j++) {
+					Booking a = bookings.get(i);
+					Booking b = bookings.get(j);
+					assertThat(a.getTimeFrom().isBefore(b.getTimeTo()) && b.getTimeFrom().isBefore(a.getTimeTo()))
+							.as("double booking %s and %s", a, b).isFalse();
+				}
+			}
+		}
+		assertThat(stored).isEqualTo(created.get());
+	}
+}
@@ -4,10 +4,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,15 +17,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.acme.meetingroom.entity.Booking;
 import com.acme.meetingroom.repository.BookingRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"booking.room-catalog.auto-create=true" })
 @Transactional
 class BookingE2ETests {
 
@@ -181,7 +191,7 @@ class BookingE2ETests {
 		booking2.setRoom(room);
 		booking2.setEmployeeEmail(employeeEmail2);
 		booking2.setDate(date);
-		booking2.setTimeFrom(LocalTime.of(11, 0));
+		booking2.setTimeFrom(LocalTime.of(10, 30));
 		booking2.setTimeTo(LocalTime.of(13, 0));
 
 		ResponseEntity<String> conflictResponse = restTemplate.postForEntity(BASE_URL, booking2, String.class);
@@ -189,6 +199,225 @@ class BookingE2ETests {
 		assertThat(conflictResponse.getBody()).contains("Room is already booked for this slot.");
 	}
 
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	void testCreateBookingsBatch() {
+		LocalDate date = LocalDate.now().plusDays(5);
+		List<Booking> batch = List.of(
+				new Booking("BatchRoom", "employee1@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+				new Booking("BatchRoom", "employee2@example.com", date, LocalTime.of(9, 30), LocalTime.of(11, 0)),
+				new Booking("BatchRoom", "", date, LocalTime.of(12, 0), LocalTime.of(13, 0)),
+				new Booking("BatchRoom", "employee3@example.com", date, LocalTime.of(14, 0), LocalTime.of(14, 30)),
+				new Booking("OtherBatchRoom", "employee4@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+
+		ResponseEntity<List> response = restTemplate.postForEntity(BASE_URL + "/batch", batch, List.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		List<Map<String, Object>> results = response.getBody();
+		assertThat(results).extracting(result -> result.get("status")).containsExactly("CREATED", "CONFLICT",
+				"INVALID", "INVALID", "CREATED");
+		assertThat(bookingRepository.findByRoomAndDate("BatchRoom", date)).hasSize(1);
+
+		// Items already stored are reported as conflicts on the next run
+		ResponseEntity<List> rerun = restTemplate.postForEntity(BASE_URL + "/batch", batch.subList(0, 1), List.class);
+		assertThat(((List<Map<String, Object>>) rerun.getBody()).get(0).get("status")).isEqualTo("CONFLICT");
+	}
+
+	@Test
+	void testCreateBookingsEmptyBatch() {
+		ResponseEntity<String> response = restTemplate.postForEntity(BASE_URL + "/batch", List.of(), String.class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void testConditionalGetOfSchedule() {
+		LocalDate date = LocalDate.now().plusDays(6);
+		String getUrl = BASE_URL + "?room=EtagRoom&date=" + date;
+		ResponseEntity<String> first = restTemplate.getForEntity(getUrl, String.class);
+		String etag = first.getHeaders().getETag();
+		assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(etag).isNotNull();
+
+		HttpHeaders conditional = new HttpHeaders();
+		conditional.setIfNoneMatch(etag);
+		ResponseEntity<String> unchanged = restTemplate.exchange(getUrl, HttpMethod.GET,
+				new HttpEntity<>(conditional), String.class);
+		assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(unchanged.getBody()).isNull();
+
+		restTemplate.postForEntity(BASE_URL,
+				new Booking("EtagRoom", "employee@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+				Booking.class);
+		ResponseEntity<String> changed = restTemplate.exchange(getUrl, HttpMethod.GET, new HttpEntity<>(conditional),
+				String.class);
+		assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(changed.getHeaders().getETag()).isNotEqualTo(etag);
+		assertThat(changed.getBody()).contains("EtagRoom");
+	}
+
+	@Test
+	void testFindAvailableRooms() {
+		LocalDate date = LocalDate.now().plusDays(6);
+		restTemplate.postForEntity(BASE_URL,
+				new Booking("WindowRoomBusy", "employee@example.com", date, LocalTime.of(14, 0), LocalTime.of(15, 0)),
+				Booking.class);
+		restTemplate.postForEntity(BASE_URL,
+				new Booking("WindowRoomFree", "employee@example.com", date, LocalTime.of(15, 0), LocalTime.of(16, 0)),
+				Booking.class);
+		String roomsUrl = "http://localhost:" + port + "/api/rooms/available?date=" + date;
+
+		ResponseEntity<String> available = restTemplate.getForEntity(roomsUrl + "&from=14:00&to=15:00", String.class);
+		assertThat(available.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(available.getBody()).contains("WindowRoomFree").doesNotContain("WindowRoomBusy");
+
+		ResponseEntity<String> invalid = restTemplate.getForEntity(roomsUrl + "&from=15:00&to=14:00", String.class);
+		assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void testGetScheduleAsCbor() throws IOException {
+		LocalDate date = LocalDate.now().plusDays(6);
+		restTemplate.postForEntity(BASE_URL,
+				new Booking("CborRoom", "employee@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+				Booking.class);
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+		ResponseEntity<byte[]> response = restTemplate.exchange(BASE_URL + "?room=CborRoom&date=" + date,
+				HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+
+		ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+		List<Booking> bookings = cbor.readValue(response.getBody(), new TypeReference<List<Booking>>() {
+		});
+		assertThat(bookings).singleElement().satisfies(booking -> {
+			assertThat(booking.getRoom()).isEqualTo("CborRoom");
+			assertThat(booking.getDate()).isEqualTo(date);
+			assertThat(booking.getTimeFrom()).isEqualTo(LocalTime.of(9, 0));
+		});
+
+		// JSON stays the default for clients that accept anything
+		headers.setAccept(List.of(MediaType.ALL));
+		ResponseEntity<String> json = restTemplate.exchange(BASE_URL + "?room=CborRoom&date=" + date,
+				HttpMethod.GET, new HttpEntity<>(headers), String.class);
+		assertThat(json.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+	}
+
+	@Test
+	void testHoldAndConfirm() {
+		String holdsUrl = BASE_URL.replace("/bookings", "/holds");
+		LocalDate date = LocalDate.now().plusDays(6);
+		ResponseEntity<Map> held = restTemplate.postForEntity(holdsUrl,
+				new Booking("HoldE2ERoom", "employee@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+				Map.class);
+		assertThat(held.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		String token = (String) held.getBody().get("token");
+
+		// The held slot can be neither booked nor held by someone else
+		ResponseEntity<String> booked = restTemplate.postForEntity(BASE_URL,
+				new Booking("HoldE2ERoom", "other@example.com", date, LocalTime.of(9, 30), LocalTime.of(10, 30)),
+				String.class);
+		assertThat(booked.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		ResponseEntity<String> heldAgain = restTemplate.postForEntity(holdsUrl,
+				new Booking("HoldE2ERoom", "other@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+				String.class);
+		assertThat(heldAgain.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+		ResponseEntity<Booking> confirmed = restTemplate.postForEntity(holdsUrl + "/" + token + "/confirm", null,
+				Booking.class);
+		assertThat(confirmed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(confirmed.getBody().getEmployeeEmail()).isEqualTo("employee@example.com");
+		assertThat(restTemplate.postForEntity(holdsUrl + "/" + token + "/confirm", null, String.class)
+				.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(restTemplate.exchange(holdsUrl + "/" + token, HttpMethod.DELETE, null, String.class)
+				.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void testSubmitBookingAsync() {
+		LocalDate date = LocalDate.now().plusDays(6);
+		ResponseEntity<Booking> accepted = restTemplate.postForEntity(BASE_URL + "/async",
+				new Booking("AsyncE2ERoom", "employee@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+				Booking.class);
+		assertThat(accepted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+		assertThat(accepted.getBody().getId()).isNotNull();
+
+		ResponseEntity<String> conflict = restTemplate.postForEntity(BASE_URL + "/async",
+				new Booking("AsyncE2ERoom", "other@example.com", date, LocalTime.of(9, 30), LocalTime.of(10, 30)),
+				String.class);
+		assertThat(conflict.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		ResponseEntity<String> invalid = restTemplate.postForEntity(BASE_URL + "/async",
+				new Booking("AsyncE2ERoom", "other@example.com", date, LocalTime.of(11, 0), LocalTime.of(11, 30)),
+				String.class);
+		assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void testStreamBookingsInRange() {
+		LocalDate date = LocalDate.now().plusDays(7);
+		for (int day = 0; day < 3; day++) {
+			restTemplate.postForEntity(BASE_URL, new Booking("RangeRoom", "employee@example.com", date.plusDays(day),
+					LocalTime.of(9, 0), LocalTime.of(10, 0)), Booking.class);
+		}
+		ResponseEntity<String> range = restTemplate.getForEntity(
+				BASE_URL + "/range?room=RangeRoom&from=" + date + "&to=" + date.plusDays(1), String.class);
+		assertThat(range.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(range.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+		String[] lines = range.getBody().split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(lines[0]).startsWith("{").contains("\"date\":\"" + date + "\"");
+		assertThat(lines[1]).contains("\"date\":\"" + date.plusDays(1) + "\"");
+
+		ResponseEntity<String> invalid = restTemplate.getForEntity(
+				BASE_URL + "/range?from=" + date + "&to=" + date.minusDays(1), String.class);
+		assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void testListEmployeeBookingsPageByPage() {
+		LocalDate date = LocalDate.now().plusDays(8);
+		for (int hour = 9; hour < 12; hour++) {
+			restTemplate.postForEntity(BASE_URL, new Booking("ListRoom", "lister@example.com", date,
+					LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0)), Booking.class);
+		}
+		ResponseEntity<Map> first = restTemplate
+				.getForEntity(BASE_URL + "/employee?employeeEmail=lister@example.com&size=2", Map.class);
+		assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat((List<?>) first.getBody().get("bookings")).hasSize(2);
+		String cursor = (String) first.getBody().get("nextCursor");
+		assertThat(cursor).isNotNull();
+
+		ResponseEntity<Map> last = restTemplate.getForEntity(
+				BASE_URL + "/employee?employeeEmail=lister@example.com&size=2&cursor=" + cursor, Map.class);
+		assertThat((List<?>) last.getBody().get("bookings")).hasSize(1);
+		assertThat(last.getBody().get("nextCursor")).isNull();
+
+		ResponseEntity<String> invalid = restTemplate
+				.getForEntity(BASE_URL + "/all?cursor=bogus&size=2", String.class);
+		assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		ResponseEntity<String> oversized = restTemplate.getForEntity(BASE_URL + "/all?size=100000", String.class);
+		assertThat(oversized.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void testCreateAndCancelSeries() {
+		String seriesUrl = "http://localhost:" + port + "/api/series";
+		LocalDate start = LocalDate.now().plusDays(9);
+		Map<String, Object> series = Map.of("room", "SeriesRoomE2E", "employeeEmail", "team@example.com",
+				"timeFrom", "09:00", "timeTo", "10:00", "frequency", "WEEKLY", "startDate", start.toString(), "count", 3);
+		ResponseEntity<Map> created = restTemplate.postForEntity(seriesUrl, series, Map.class);
+		assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(restTemplate.postForEntity(seriesUrl, series, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.CONFLICT);
+		assertThat(restTemplate.postForEntity(seriesUrl, Map.of("room", "SeriesRoomE2E"), String.class)
+				.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+		String deleteUrl = seriesUrl + "/" + created.getBody().get("id");
+		assertThat(restTemplate.exchange(deleteUrl, HttpMethod.DELETE, null, Void.class).getStatusCode())
+				.isEqualTo(HttpStatus.NO_CONTENT);
+		assertThat(restTemplate.exchange(deleteUrl, HttpMethod.DELETE, null, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
 	@Test
 	void testGetBookingInvalidRoom() {
 		String room = "";
@@ -237,6 +466,42 @@ class BookingE2ETests {
 		assertThat(cancelResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
 	}
 
+	@Test
+	@SuppressWarnings("rawtypes")
+	void testCancelBookingsInBulk() {
+		LocalDate date = LocalDate.now().plusDays(7);
+		Long first = restTemplate.postForEntity(BASE_URL,
+				new Booking("BulkE2ERoom", "bulk-e2e@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+				Booking.class).getBody().getId();
+		Long second = restTemplate.postForEntity(BASE_URL,
+				new Booking("BulkE2ERoom", "bulk-e2e@example.com", date, LocalTime.of(11, 0), LocalTime.of(12, 0)),
+				Booking.class).getBody().getId();
+		restTemplate.postForEntity(BASE_URL,
+				new Booking("BulkE2ERoom", "bulk-e2e@example.com", date.plusDays(1), LocalTime.of(9, 0),
+						LocalTime.of(10, 0)),
+				Booking.class);
+
+		ResponseEntity<Map> byIds = restTemplate.exchange(BASE_URL + "?ids=" + first + "," + second + ",99999",
+				HttpMethod.DELETE, null, Map.class);
+		assertThat(byIds.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(byIds.getBody()).containsEntry("cancelled", 2);
+
+		ResponseEntity<Map> byRoom = restTemplate.exchange(
+				BASE_URL + "?room=BulkE2ERoom&from=" + date + "&to=" + date.plusDays(1), HttpMethod.DELETE, null,
+				Map.class);
+		assertThat(byRoom.getBody()).containsEntry("cancelled", 1);
+		assertThat(restTemplate.exchange(BASE_URL + "?employeeEmail=bulk-e2e@example.com", HttpMethod.DELETE, null,
+				Map.class).getBody()).containsEntry("cancelled", 0);
+
+		// Exactly one selector is accepted
+		assertThat(restTemplate.exchange(BASE_URL, HttpMethod.DELETE, null, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(restTemplate.exchange(BASE_URL + "?ids=1&employeeEmail=bulk-e2e@example.com", HttpMethod.DELETE,
+				null, String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(restTemplate.exchange(BASE_URL + "?room=BulkE2ERoom&from=" + date, HttpMethod.DELETE, null,
+				String.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
 	@Test
 	void testCancelNonExistentBooking() {
 		String cancelUrl = BASE_URL + "/99999"; // Non-existent ID
@@ -0,0 +1,183 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.unit.DataSize;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.event.BookingChangedEvent;
+import com.acme.meetingroom.repository.BookingRepository;
+import com.acme.meetingroom.repository.BookingStore;
+import com.acme.meetingroom.service.BookingEventLog;
+import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.RoomCatalog;
+import com.acme.meetingroom.service.RoomScheduleIndex;
+
+@SpringBootTest(properties = "booking.room-catalog.auto-create=true")
+class BookingEventLogTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	@TempDir
+	Path directory;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private BookingStore bookingStore;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private RoomCatalog roomCatalog;
+
+	@Test
+	void testReplayAfterCompactionAndRestart() throws IOException {
+		// Small segments force several roll-overs and background compactions
+		BookingEventLog log = open();
+		log.bootstrap(List.of(booking(1, "LogRoom", TODAY.plusDays(1), 8)));
+		List<Long> expected = new ArrayList<>(List.of(1L));
+		for (long id = 2; id <= 500; id++) {
+			Booking booking = booking(id, "LogRoom" + id % 7, TODAY.plusDays(id % 30), 9);
+			log.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED, booking));
+			if (id % 5 == 0) {
+				log.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CANCELLED, booking));
+			} else {
+				expected.add(id);
+			}
+		}
+		log.compact();
+		// A booking in the past is not replayed
+		log.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED,
+				booking(501, "LogRoom", TODAY.minusDays(1), 9)));
+		log.close();
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files.filter(file -> file.toString().endsWith(".bin"))).hasSize(1);
+		}
+
+		BookingEventLog reopened = open();
+		List<Booking> replayed = new ArrayList<>();
+		assertThat(reopened.replay(TODAY, replayed::add)).isEqualTo(501);
+		assertThat(replayed).extracting(Booking::getId).containsExactlyInAnyOrderElementsOf(expected);
+		Booking sample = replayed.stream().filter(booking -> booking.getId() == 42).findFirst().orElseThrow();
+		assertThat(sample.getRoom()).isEqualTo("LogRoom0");
+		assertThat(sample.getDate()).isEqualTo(TODAY.plusDays(12));
+		assertThat(sample.getTimeTo()).isEqualTo(LocalTime.of(10, 0));
+		reopened.close();
+	}
+
+	@Test
+	void testTornRecordIsIgnored() throws IOException {
+		BookingEventLog log = open();
+		log.bootstrap(List.of());
+		log.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED,
+				booking(1, "TornRoom", TODAY, 9)));
+		log.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED,
+				booking(2, "TornRoom", TODAY, 11)));
+		log.close();
+		// A header of a record whose payload never made it to the file
+		Path segment = directory.resolve("events-00000000.log");
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			ByteBuffer torn = ByteBuffer.allocate(8).putInt(40).putInt(12345).flip();
+			channel.write(torn, firstFreeOffset(segment));
+		}
+
+		BookingEventLog reopened = open();
+		List<Booking> replayed = new ArrayList<>();
+		reopened.replay(TODAY, replayed::add);
+		assertThat(replayed).extracting(Booking::getId).containsExactly(1L, 2L);
+		// Appending continues after the last intact record
+		reopened.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED,
+				booking(3, "TornRoom", TODAY, 13)));
+		reopened.close();
+		List<Booking> again = new ArrayList<>();
+		BookingEventLog third = open();
+		third.replay(TODAY, again::add);
+		assertThat(again).extracting(Booking::getId).containsExactly(1L, 2L, 3L);
+		third.close();
+	}
+
+	@Test
+	void testIndexWarmsFromLogAndReconcilesWithDatabase() throws IOException {
+		LocalDate date = TODAY.plusDays(2);
+		BookingEventLog log = open();
+		log.bootstrap(List.of());
+		// Committed with a lower id than a logged booking but missing from the log, as with out-of-order commits
+		bookingService.createBooking("LowerIdRoom", "employee@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		Booking logged = bookingService.createBooking("LoggedRoom", "employee@example.com", date,
+				LocalTime.of(9, 0), LocalTime.of(10, 0));
+		log.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED, logged));
+		// Logged and then cancelled without reaching the log, as after a crash right after commit
+		Booking cancelled = bookingService.createBooking("PhantomRoom", "employee@example.com", date,
+				LocalTime.of(9, 0), LocalTime.of(10, 0));
+		log.onBookingChanged(new BookingChangedEvent(this, BookingChangedEvent.Type.CREATED, cancelled));
+		bookingRepository.deleteById(cancelled.getId());
+		log.close();
+		// In the database but missing from the log
+		bookingService.createBooking("DbOnlyRoom", "employee@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+
+		BookingEventLog reopened = open();
+		RoomScheduleIndex index = new RoomScheduleIndex(bookingStore, roomCatalog, Optional.of(reopened));
+		index.warm(TODAY);
+		assertThat(index.hasOverlap("LoggedRoom", date, LocalTime.of(9, 30), LocalTime.of(10, 30))).isTrue();
+		assertThat(index.hasOverlap("LowerIdRoom", date, LocalTime.of(9, 30), LocalTime.of(10, 30))).isTrue();
+		assertThat(index.hasOverlap("DbOnlyRoom", date, LocalTime.of(9, 30), LocalTime.of(10, 30))).isTrue();
+		assertThat(index.hasOverlap("PhantomRoom", date, LocalTime.of(9, 30), LocalTime.of(10, 30))).isFalse();
+		index.shutdown();
+		reopened.close();
+
+		// The log was repaired, so it now agrees with the database on its own
+		BookingEventLog repaired = open();
+		List<Booking> replayed = new ArrayList<>();
+		repaired.replay(TODAY, replayed::add);
+		assertThat(replayed).extracting(Booking::getRoom).contains("LoggedRoom", "LowerIdRoom", "DbOnlyRoom")
+				.doesNotContain("PhantomRoom");
+		repaired.close();
+	}
+
+	private BookingEventLog open() throws IOException {
+		return new BookingEventLog(directory, DataSize.ofKilobytes(4), Duration.ofHours(1));
+	}
+
+	/**
+	 * Returns the offset after the intact records of a segment, which is where
+	 * the zero padding of the mapped file starts.
+	 */
+	private static long firstFreeOffset(Path segment) throws IOException {
+		ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(segment));
+		int position = 0;
+		while (content.getInt(position) > 0) {
+			position += 8 + content.getInt(position);
+		}
+		return position;
+	}
+
+	private static Booking booking(long id, String room, LocalDate date, int hour) {
+		Booking booking = new Booking(room, "employee@example.com", date, LocalTime.of(hour, 0),
+				LocalTime.of(hour + 1, 0));
+		booking.setId(id);
+		return booking;
+	}
+}
@@ -0,0 +1,112 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.acme.meetingroom.dto.BookingHold;
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.exception.HoldNotFoundException;
+import com.acme.meetingroom.exception.RequestThrottledException;
+import com.acme.meetingroom.service.BookingHolds;
+import com.acme.meetingroom.service.BookingService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = "booking.room-catalog.auto-create=true")
+class BookingHoldTests {
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Test
+	void testHoldBlocksBookingsAndOtherHolds() {
+		LocalDate date = LocalDate.now().plusDays(2);
+		bookingService.placeHold("HoldRoom1", "first@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0));
+
+		assertThrows(IllegalStateException.class, () -> bookingService.createBooking("HoldRoom1",
+				"second@example.com", date, LocalTime.of(9, 30), LocalTime.of(10, 30)));
+		assertThrows(IllegalStateException.class, () -> bookingService.placeHold("HoldRoom1", "second@example.com",
+				date, LocalTime.of(8, 0), LocalTime.of(9, 30)));
+		// Adjacent ranges are free
+		bookingService.createBooking("HoldRoom1", "second@example.com", date, LocalTime.of(10, 0),
+				LocalTime.of(11, 0));
+		bookingService.placeHold("HoldRoom1", "second@example.com", date, LocalTime.of(8, 0), LocalTime.of(9, 0));
+	}
+
+	@Test
+	void testConfirmAndReleaseHold() {
+		LocalDate date = LocalDate.now().plusDays(2);
+		BookingHold hold = bookingService.placeHold("HoldRoom2", "first@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+
+		Booking booking = bookingService.confirmHold(hold.getToken());
+		assertThat(booking.getId()).isNotNull();
+		assertThat(bookingService.findBookingsByRoomAndDate("HoldRoom2", date)).singleElement()
+				.satisfies(stored -> assertThat(stored.getEmployeeEmail()).isEqualTo("first@example.com"));
+		assertThrows(HoldNotFoundException.class, () -> bookingService.confirmHold(hold.getToken()));
+
+		BookingHold released = bookingService.placeHold("HoldRoom2", "first@example.com", date,
+				LocalTime.of(11, 0), LocalTime.of(12, 0));
+		bookingService.releaseHold(released.getToken());
+		assertThrows(HoldNotFoundException.class, () -> bookingService.releaseHold(released.getToken()));
+		bookingService.createBooking("HoldRoom2", "second@example.com", date, LocalTime.of(11, 0),
+				LocalTime.of(12, 0));
+	}
+
+	@Test
+	void testExpiredHoldFreesTheSlot() throws InterruptedException {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BookingHolds holds = new BookingHolds(Duration.ofMillis(200), Duration.ofMillis(10), 64, 10, 100, registry);
+		try {
+			LocalDate date = LocalDate.now().plusDays(2);
+			BookingHold hold = holds.place("HoldRoom3", "first@example.com", date, LocalTime.of(9, 0),
+					LocalTime.of(10, 0));
+			assertThat(holds.hasOverlap("HoldRoom3", date, LocalTime.of(9, 30), LocalTime.of(9, 45))).isTrue();
+
+			long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+			while (holds.size() > 0 && System.nanoTime() - deadline < 0) {
+				Thread.sleep(10);
+			}
+			assertThat(holds.size()).isZero();
+			assertThat(holds.hasOverlap("HoldRoom3", date, LocalTime.of(9, 30), LocalTime.of(9, 45))).isFalse();
+			assertThat(holds.claim(hold.getToken())).isEmpty();
+			assertThat(registry.get("booking.holds.expired").counter().count()).isEqualTo(1);
+			assertThat(registry.get("booking.holds.active").gauge().value()).isZero();
+		} finally {
+			holds.close();
+		}
+	}
+
+	@Test
+	void testHoldsAreCappedPerEmployeeAndInTotal() {
+		BookingHolds holds = new BookingHolds(Duration.ofMinutes(1), Duration.ofMillis(10), 64, 2, 3,
+				new SimpleMeterRegistry());
+		try {
+			LocalDate date = LocalDate.now().plusDays(2);
+			BookingHold first = holds.place("CapRoom", "first@example.com", date, LocalTime.of(8, 0),
+					LocalTime.of(9, 0));
+			holds.place("CapRoom", "first@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0));
+			assertThrows(RequestThrottledException.class, () -> holds.place("CapRoom", "first@example.com", date,
+					LocalTime.of(10, 0), LocalTime.of(11, 0)));
+
+			holds.place("CapRoom", "second@example.com", date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+			assertThrows(RequestThrottledException.class, () -> holds.place("CapRoom", "third@example.com", date,
+					LocalTime.of(11, 0), LocalTime.of(12, 0)));
+
+			// Claiming a hold frees a place under both limits
+			assertThat(holds.claim(first.getToken())).isPresent();
+			holds.place("CapRoom", "first@example.com", date, LocalTime.of(11, 0), LocalTime.of(12, 0));
+			assertThat(holds.size()).isEqualTo(3);
+		} finally {
+			holds.close();
+		}
+	}
+}
@@ -0,0 +1,199 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.acme.meetingroom.entity.Booking;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Drives the workloads the service has to sustain against an instance on
+ * localhost and fails when a latency or error-rate objective is missed:
+ * kiosks polling room schedules, bursts of bookings contending for the same
+ * slots, and bookings created and cancelled in a loop. Each scenario runs on
+ * {@code -Dload.concurrency} workers (32) for {@code -Dload.duration-seconds}
+ * (10) after a short warm-up and logs throughput and latency percentiles. The
+ * p99 objectives are set with {@code -Dload.kiosk.p99-ms} (100),
+ * {@code -Dload.contended.p99-ms} (250) and {@code -Dload.churn.p99-ms} (250),
+ * the error rate with {@code -Dload.max-error-rate} (0.001). Needs
+ * {@code -Dload-tests=true}.
+ */
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+class BookingLoadTests {
+	private static final Logger logger = LoggerFactory.getLogger(BookingLoadTests.class);
+
+	private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+
+	private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 10));
+
+	private static final Duration WARMUP = Duration.ofSeconds(3);
+
+	private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.001"));
+
+	private static final int KIOSK_ROOMS = 20;
+
+	private static final int CONTENDED_DAYS = 10;
+
+	private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+	private static ConfigurableApplicationContext context;
+
+	private static String bookingsUrl;
+
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+			.executor(Runnable::run).build();
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	@BeforeAll
+	static void startInstance() {
+		context = new SpringApplicationBuilder(MeetingRoomApplication.class).properties("server.port=0",
+				"spring.jpa.show-sql=false", "spring.datasource.url=jdbc:h2:mem:booking-load;DB_CLOSE_DELAY=-1",
+				"logging.level.com.acme.meetingroom.service=OFF", "logging.level.com.acme.meetingroom.utils=OFF",
+				"booking.room-catalog.auto-create=true").run();
+		bookingsUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+				+ "/api/bookings";
+	}
+
+	@AfterAll
+	static void stopInstance() {
+		context.close();
+	}
+
+	@Test
+	void testKioskPolling() throws Exception {
+		LocalDate today = LocalDate.now();
+		for (int room = 0; room < KIOSK_ROOMS; room++) {
+			for (int hour = 8; hour < 18; hour += 2) {
+				assertThat(post(new Booking("KioskRoom" + room, "kiosk@example.com", today.plusDays(1),
+						LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0)))).isEqualTo(201);
+			}
+		}
+		run("kiosk", () -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			String url = bookingsUrl + "?room=KioskRoom" + random.nextInt(KIOSK_ROOMS) + "&date="
+					+ today.plusDays(random.nextInt(3));
+			return get(url).statusCode() == 200;
+		}, 100);
+	}
+
+	@Test
+	void testContendedBookingBursts() throws Exception {
+		LocalDate first = LocalDate.now().plusDays(40);
+		AtomicLong created = new AtomicLong();
+		run("contended", () -> {
+			// Ninety minute bookings starting every half hour, so most of them overlap another one
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			LocalTime timeFrom = LocalTime.of(8, 0).plusMinutes(30L * random.nextInt(8));
+			int status = post(new Booking("ContendedRoom", "contended@example.com",
+					first.plusDays(random.nextInt(CONTENDED_DAYS)), timeFrom, timeFrom.plusMinutes(90)));
+			if (status == 201) {
+				created.incrementAndGet();
+			}
+			return status == 201 || status == 409;
+		}, 250);
+
+		// Whatever the interleaving, no two admitted bookings overlap
+		long stored = 0;
+		for (int day = 0; day < CONTENDED_DAYS; day++) {
+			Booking[] schedule = objectMapper.readValue(
+					get(bookingsUrl + "?room=ContendedRoom&date=" + first.plusDays(day)).body(), Booking[].class);
+			Arrays.sort(schedule, Comparator.comparing(Booking::getTimeFrom));
+			for (int i = 1; i < schedule.length; i++) {
+				assertThat(schedule[i].getTimeFrom()).isAfterOrEqualTo(schedule[i - 1].getTimeTo());
+			}
+			stored += schedule.length;
+		}
+		assertThat(stored).isEqualTo(created.get());
+	}
+
+	@Test
+	void testCancellationChurn() throws Exception {
+		AtomicLong slots = new AtomicLong();
+		Queue<String> live = new ConcurrentLinkedQueue<>();
+		run("churn", () -> {
+			String id = live.size() > CONCURRENCY ? live.poll() : null;
+			if (id != null) {
+				return delete(bookingsUrl + "/" + id) == 204;
+			}
+			// Every slot is booked once, so creations never conflict
+			long slot = slots.getAndIncrement();
+			LocalTime timeFrom = LocalTime.of(8 + (int) (slot / 100 % 12), 0);
+			HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(bookingsUrl))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+							new Booking("ChurnRoom" + slot % 100, "churn@example.com",
+									LocalDate.now().plusDays(100 + slot / 1200), timeFrom, timeFrom.plusHours(1)))))
+					.build());
+			Matcher matcher = ID.matcher(response.body());
+			if (response.statusCode() != 201 || !matcher.find()) {
+				return false;
+			}
+			live.add(matcher.group(1));
+			return true;
+		}, 250);
+	}
+
+	/**
+	 * Warms up, runs a scenario and checks its p99 latency and error rate
+	 * against the objectives.
+	 */
+	private static void run(String scenario, Callable<Boolean> request, int defaultP99Millis) throws Exception {
+		double p99Target = Double.parseDouble(System.getProperty("load." + scenario + ".p99-ms",
+				Integer.toString(defaultP99Millis)));
+		LoadDriver.run(CONCURRENCY, WARMUP, request);
+		LoadDriver.LoadReport report = LoadDriver.run(CONCURRENCY, DURATION, request);
+		logger.info("{}: {} p90={}ms p99.9={}ms", scenario, report, String.format("%.1f", report.percentileMillis(90)),
+				String.format("%.1f", report.percentileMillis(99.9)));
+		assertThat(report.succeeded).as("%s requests", scenario).isPositive();
+		assertThat(report.errorRate()).as("%s error rate", scenario).isLessThanOrEqualTo(MAX_ERROR_RATE);
+		assertThat(report.percentileMillis(99)).as("%s p99 in ms", scenario).isLessThanOrEqualTo(p99Target);
+	}
+
+	private HttpResponse<String> get(String url) throws Exception {
+		return send(HttpRequest.newBuilder(URI.create(url)).build());
+	}
+
+	private int post(Booking booking) throws Exception {
+		return send(HttpRequest.newBuilder(URI.create(bookingsUrl)).header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(booking))).build())
+				.statusCode();
+	}
+
+	private int delete(String url) throws Exception {
+		return send(HttpRequest.newBuilder(URI.create(url)).DELETE().build()).statusCode();
+	}
+
+	private HttpResponse<String> send(HttpRequest request) throws Exception {
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,60 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.acme.meetingroom.entity.Booking;
+
+/**
+ * Checks that request, phase and failure metrics reach the Prometheus scrape
+ * endpoint with their tags and SLO buckets.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"booking.room-catalog.auto-create=true" })
+@AutoConfigureObservability(tracing = false)
+class BookingMetricsTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void testMetricsAreScrapedByPrometheus() {
+		String bookingsUrl = "http://localhost:" + port + "/api/bookings";
+		LocalDate date = LocalDate.now().plusDays(3);
+		Booking booking = new Booking("MetricsRoom", "employee@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		assertThat(restTemplate.postForEntity(bookingsUrl, booking, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.CREATED);
+		assertThat(restTemplate.postForEntity(bookingsUrl, booking, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.CONFLICT);
+		booking.setTimeTo(LocalTime.of(9, 30));
+		assertThat(restTemplate.postForEntity(bookingsUrl, booking, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.BAD_REQUEST);
+		restTemplate.delete(bookingsUrl + "/" + Long.MAX_VALUE);
+
+		ResponseEntity<String> scrape = restTemplate.getForEntity("http://localhost:" + port + "/actuator/prometheus",
+				String.class);
+		assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(scrape.getBody())
+				.containsPattern("http_server_requests_seconds_bucket\\{[^}]*status=\"409\",uri=\"/api/bookings\",le=\"0.025\"}")
+				.containsPattern("booking_create_phase_seconds_bucket\\{phase=\"conflict_check\",le=\"0.001\"}")
+				.containsPattern("booking_create_phase_seconds_count\\{phase=\"save\"} [1-9]")
+				.containsPattern("booking_conflicts_total\\{operation=\"single\"} [1-9]")
+				.containsPattern("booking_validation_failures_total\\{error=\"Booking duration validation error\"} [1-9]")
+				.containsPattern("booking_cancel_seconds_count\\{outcome=\"not_found\"} [1-9]");
+	}
+}
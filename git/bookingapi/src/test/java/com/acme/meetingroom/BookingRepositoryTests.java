@@ -0,0 +1,178 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.entity.Room;
+import com.acme.meetingroom.repository.BookingRepository;
+import com.acme.meetingroom.service.RoomCatalog;
+
+/**
+ * Verifies with H2 {@code EXPLAIN} that the SQL Hibernate generates for the
+ * room/date and date range queries is planned as a scan of a booking index.
+ * The bookings are committed once before the tests, outside their rolled-back
+ * transactions, and deleted after them. Rooms are created in number order, so
+ * their ids sort the same way.
+ */
+@Import(RoomCatalog.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.acme.meetingroom.BookingRepositoryTests$LastStatement")
+class BookingRepositoryTests {
+
+	private static final LocalDate DATE = LocalDate.now().plusDays(3);
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private RoomCatalog roomCatalog;
+
+	@BeforeAll
+	static void seed(@Autowired BookingRepository bookingRepository, @Autowired RoomCatalog roomCatalog,
+			@Autowired JdbcTemplate jdbcTemplate, @Autowired PlatformTransactionManager transactionManager) {
+		List<Booking> bookings = new ArrayList<>();
+		for (int room = 0; room < 20; room++) {
+			roomCatalog.save("PlanRoom" + room, new Room());
+			for (int day = 0; day < 10; day++) {
+				for (int hour = 8; hour < 18; hour++) {
+					bookings.add(new Booking("PlanRoom" + room, "employee@example.com", DATE.plusDays(day),
+							LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0)));
+				}
+			}
+		}
+		new TransactionTemplate(transactionManager)
+				.executeWithoutResult(status -> bookingRepository.saveAllAndFlush(bookings));
+		// Give the planner the column statistics a populated database would have
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	@AfterAll
+	static void cleanUp(@Autowired BookingRepository bookingRepository,
+			@Autowired PlatformTransactionManager transactionManager) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> bookingRepository.deleteAllInBatch());
+	}
+
+	@Test
+	void testOverlapCheckUsesRoomDateIndex() {
+		assertThat(bookingRepository.existsByRoomAndDateAndTimeFromLessThanAndTimeToGreaterThan("PlanRoom7", DATE,
+				LocalTime.of(11, 0), LocalTime.of(10, 30))).isTrue();
+		String plan = explain(LastStatement.sql, roomCatalog.idOf("PlanRoom7"), DATE, LocalTime.of(11, 0),
+				LocalTime.of(10, 30));
+		assertThat(plan).containsIgnoringCase(Booking.ROOM_DATE_INDEX).doesNotContainIgnoringCase("tableScan");
+		assertThat(plan).containsIgnoringCase("FETCH FIRST");
+	}
+
+	@Test
+	void testHalfOpenOverlap() {
+		// Bookings on the hour touch [10:00, 11:00) at both ends without overlapping it
+		assertThat(bookingRepository.existsByRoomAndDateAndTimeFromLessThanAndTimeToGreaterThan("PlanRoom7",
+				DATE.plusDays(25), LocalTime.of(11, 0), LocalTime.of(10, 0))).isFalse();
+		assertThat(bookingRepository.existsByRoomAndDateAndTimeFromLessThanAndTimeToGreaterThan("PlanRoom7", DATE,
+				LocalTime.of(8, 0), LocalTime.of(7, 0))).isFalse();
+		assertThat(bookingRepository.existsByRoomAndDateAndTimeFromLessThanAndTimeToGreaterThan("PlanRoom7", DATE,
+				LocalTime.of(19, 0), LocalTime.of(18, 0))).isFalse();
+	}
+
+	@Test
+	void testFindByRoomAndDateUsesRoomDateIndex() {
+		assertThat(bookingRepository.findByRoomAndDate("PlanRoom7", DATE)).hasSize(10);
+		String plan = explain(LastStatement.sql, roomCatalog.idOf("PlanRoom7"), DATE);
+		assertThat(plan).containsIgnoringCase(Booking.ROOM_DATE_INDEX).doesNotContainIgnoringCase("tableScan");
+	}
+
+	@Test
+	void testDateRangeStreamUsesDateTimeIndex() {
+		try (Stream<Booking> bookings = bookingRepository.streamByDateBetweenOrderByDateAscTimeFromAscRoomAsc(DATE,
+				DATE.plusDays(1))) {
+			assertThat(bookings.filter(booking -> booking.getRoom().startsWith("PlanRoom"))).hasSize(400);
+		}
+		String plan = explain(LastStatement.sql, DATE, DATE.plusDays(1));
+		assertThat(plan).containsIgnoringCase(Booking.DATE_TIME_INDEX).doesNotContainIgnoringCase("tableScan");
+	}
+
+	@Test
+	void testRoomRangeStreamIsInScheduleOrder() {
+		try (Stream<Booking> bookings = bookingRepository.streamByRoomAndDateBetweenOrderByDateAscTimeFromAsc(
+				"PlanRoom7", DATE.plusDays(2), DATE.plusDays(4))) {
+			assertThat(bookings.toList()).hasSize(30).isSortedAccordingTo(
+					Comparator.comparing(Booking::getDate).thenComparing(Booking::getTimeFrom));
+		}
+		String plan = explain(LastStatement.sql, roomCatalog.idOf("PlanRoom7"), DATE.plusDays(2), DATE.plusDays(4));
+		assertThat(plan).containsIgnoringCase(Booking.ROOM_DATE_INDEX).doesNotContainIgnoringCase("tableScan");
+	}
+
+	@Test
+	void testKeysetPageUsesDateTimeIndex() {
+		List<Booking> page = bookingRepository.findPageAfter(DATE.plusDays(4), LocalTime.of(12, 0), "PlanRoom3",
+				Long.MAX_VALUE, Limit.of(5));
+		assertThat(page).extracting(Booking::getRoom).containsExactly("PlanRoom4", "PlanRoom5", "PlanRoom6",
+				"PlanRoom7", "PlanRoom8");
+		assertThat(page).allSatisfy(booking -> assertThat(booking.getTimeFrom()).isEqualTo(LocalTime.of(12, 0)));
+		String plan = explain(LastStatement.sql, DATE.plusDays(4), DATE.plusDays(4), DATE.plusDays(4),
+				LocalTime.of(12, 0), LocalTime.of(12, 0), roomCatalog.idOf("PlanRoom3"), roomCatalog.idOf("PlanRoom3"),
+				Long.MAX_VALUE);
+		assertThat(plan).containsIgnoringCase(Booking.DATE_TIME_INDEX).doesNotContainIgnoringCase("tableScan");
+	}
+
+	@Test
+	void testEmployeePageUsesEmployeeIndex() {
+		assertThat(bookingRepository.findPageByEmployeeAfter("employee@example.com", DATE, LocalTime.MIDNIGHT, 0,
+				Limit.of(3))).extracting(Booking::getTimeFrom).containsOnly(LocalTime.of(8, 0));
+		String plan = explain(LastStatement.sql, "employee@example.com", DATE, DATE, DATE, LocalTime.MIDNIGHT,
+				LocalTime.MIDNIGHT, 0);
+		assertThat(plan).containsIgnoringCase(Booking.EMPLOYEE_DATE_INDEX).doesNotContainIgnoringCase("tableScan");
+	}
+
+	/**
+	 * Runs {@code EXPLAIN} for a captured statement, binding the given arguments
+	 * in order and 1 to any remaining parameter such as a row limit.
+	 */
+	private String explain(String sql, Object... args) {
+		int parameters = (int) sql.chars().filter(c -> c == '?').count();
+		Object[] bound = new Object[parameters];
+		for (int i = 0; i < parameters; i++) {
+			bound[i] = i < args.length ? args[i] : 1;
+		}
+		return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, bound);
+	}
+
+	/**
+	 * Hibernate statement inspector remembering the last query on the bookings
+	 * table.
+	 */
+	public static class LastStatement implements StatementInspector {
+
+		private static final long serialVersionUID = 1L;
+
+		static volatile String sql;
+
+		@Override
+		public String inspect(String statement) {
+			if (statement.toLowerCase().startsWith("select") && statement.toLowerCase().contains("bookings")) {
+				sql = statement;
+			}
+			return statement;
+		}
+	}
+}
@@ -1,25 +1,41 @@
 package com.acme.meetingroom;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import com.acme.meetingroom.dto.BookingPage;
+import com.acme.meetingroom.dto.RoomAvailability;
 import com.acme.meetingroom.entity.Booking;
 import com.acme.meetingroom.exception.BookingNotFoundException;
 import com.acme.meetingroom.service.BookingServiceImpl;
+import com.acme.meetingroom.service.RoomCatalog;
+import com.acme.meetingroom.service.RoomScheduleCache;
+import com.acme.meetingroom.service.RoomScheduleIndex;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "booking.room-catalog.auto-create=true")
 class BookingServiceTests {
 
 	@Autowired
 	private BookingServiceImpl bookingService;
 
+	@Autowired
+	private RoomScheduleIndex scheduleIndex;
+
+	@Autowired
+	private RoomScheduleCache scheduleCache;
+
+	@Autowired
+	private RoomCatalog roomCatalog;
+
 	@Test
 	void testCreateBooking() {
 		Booking booking = bookingService.createBooking("Room1", "employee@example.com", LocalDate.now().plusDays(1),
@@ -47,6 +63,26 @@ class BookingServiceTests {
 				LocalDate.now().plusDays(1), LocalTime.of(11, 0), LocalTime.of(13, 0)));
 	}
 
+	@Test
+	void testSameStartWithDifferentEndOverlaps() {
+		LocalDate date = LocalDate.now().plusDays(1);
+		bookingService.createBooking("Room6", "employee1@example.com", date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+		assertThrows(IllegalStateException.class, () -> bookingService.createBooking("Room6", "employee2@example.com",
+				date, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+		assertThat(bookingService.findBookingsByRoomAndDate("Room6", date)).extracting(Booking::getTimeTo)
+				.containsExactly(LocalTime.of(11, 0));
+	}
+
+	@Test
+	void testAdjacentBookingsDoNotOverlap() {
+		LocalDate date = LocalDate.now().plusDays(1);
+		bookingService.createBooking("Room4", "employee1@example.com", date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+		assertNotNull(bookingService.createBooking("Room4", "employee2@example.com", date, LocalTime.of(11, 0),
+				LocalTime.of(12, 0)));
+		assertNotNull(bookingService.createBooking("Room4", "employee3@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0)));
+	}
+
 	@Test
 	void testCancelExistentBooking() {
 		Booking booking = bookingService.createBooking("Room1", "employee@example.com", LocalDate.now(),
@@ -66,10 +102,174 @@ class BookingServiceTests {
 		assertThrows(BookingNotFoundException.class, () -> bookingService.cancelBooking(booking.getId()));
 	}
 
+	@Test
+	void testCancelledSlotCanBeRebooked() {
+		LocalDate date = LocalDate.now().plusDays(2);
+		Booking booking = bookingService.createBooking("Room3", "employee1@example.com", date, LocalTime.of(14, 0),
+				LocalTime.of(15, 0));
+		assertTrue(scheduleIndex.hasOverlap("Room3", date, LocalTime.of(14, 30), LocalTime.of(16, 0)));
+
+		bookingService.cancelBooking(booking.getId());
+		assertFalse(scheduleIndex.hasOverlap("Room3", date, LocalTime.of(14, 30), LocalTime.of(16, 0)));
+		assertNotNull(bookingService.createBooking("Room3", "employee2@example.com", date, LocalTime.of(14, 30),
+				LocalTime.of(16, 0)));
+	}
+
+	@Test
+	void testScheduleIsCachedUntilChanged() {
+		LocalDate date = LocalDate.now().plusDays(2);
+		Booking booking = bookingService.createBooking("Room5", "employee@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		long hits = scheduleCache.stats().hitCount();
+		assertThat(bookingService.findBookingsByRoomAndDate("Room5", date)).extracting(Booking::getId)
+				.containsExactly(booking.getId());
+		assertThat(bookingService.findBookingsByRoomAndDate("Room5", date)).hasSize(1);
+		assertThat(scheduleCache.stats().hitCount()).isEqualTo(hits + 1);
+
+		bookingService.cancelBooking(booking.getId());
+		assertThat(bookingService.findBookingsByRoomAndDate("Room5", date)).isEmpty();
+	}
+
+	@Test
+	void testUnknownRoomsAreNotCached() {
+		LocalDate date = LocalDate.now().plusDays(2);
+		long misses = scheduleCache.stats().missCount();
+		assertThat(bookingService.findBookingsByRoomAndDate("NeverBookedRoom", date)).isEmpty();
+		assertThat(bookingService.findBookingsByRoomAndDate("NeverBookedRoom", date)).isEmpty();
+		assertThat(scheduleCache.stats().missCount()).isEqualTo(misses);
+		assertThat(roomCatalog.idOf("NeverBookedRoom")).isEqualTo(RoomCatalog.UNKNOWN);
+	}
+
+	@Test
+	void testCachedScheduleKeepsEveryField() {
+		LocalDate date = LocalDate.now().plusDays(2);
+		Booking booking = bookingService.createBooking("PackedRoom", "packed@example.com", date,
+				LocalTime.of(9, 0, 30), LocalTime.of(10, 15));
+		bookingService.findBookingsByRoomAndDate("PackedRoom", date);
+		List<Booking> cached = bookingService.findBookingsByRoomAndDate("PackedRoom", date);
+		assertThat(cached).singleElement().satisfies(found -> {
+			assertThat(found.getId()).isEqualTo(booking.getId());
+			assertThat(found.getRoom()).isEqualTo("PackedRoom");
+			assertThat(found.getEmployeeEmail()).isEqualTo("packed@example.com");
+			assertThat(found.getDate()).isEqualTo(date);
+			assertThat(found.getTimeFrom()).isEqualTo(LocalTime.of(9, 0, 30));
+			assertThat(found.getTimeTo()).isEqualTo(LocalTime.of(10, 15));
+			assertThat(found.getSeriesId()).isNull();
+		});
+		assertTrue(scheduleIndex.hasOverlap("PackedRoom", date, LocalTime.of(8, 0), LocalTime.of(9, 0, 31)));
+		assertFalse(scheduleIndex.hasOverlap("PackedRoom", date, LocalTime.of(8, 0), LocalTime.of(9, 0, 30)));
+	}
+
+	@Test
+	void testFindAvailableRooms() {
+		LocalDate date = LocalDate.now().plusDays(3);
+		bookingService.createBooking("AvailRoom1", "employee@example.com", date, LocalTime.of(13, 0),
+				LocalTime.of(14, 30));
+		Booking late = bookingService.createBooking("AvailRoom2", "employee@example.com", date, LocalTime.of(14, 40),
+				LocalTime.of(16, 0));
+		bookingService.createBooking("AvailRoom3", "employee@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+
+		// Whole window: only the room booked outside it is free
+		assertThat(bookingService.findAvailableRooms(date, LocalTime.of(14, 0), LocalTime.of(15, 0), 60))
+				.filteredOn(availability -> availability.getRoom().startsWith("AvailRoom"))
+				.extracting(RoomAvailability::getRoom).containsExactly("AvailRoom3");
+
+		// A shorter stretch fits before and after the bookings inside the window
+		List<RoomAvailability> rooms = bookingService.findAvailableRooms(date, LocalTime.of(14, 0),
+				LocalTime.of(15, 0), 30);
+		assertThat(rooms).filteredOn(availability -> availability.getRoom().startsWith("AvailRoom"))
+				.extracting(RoomAvailability::getRoom, RoomAvailability::getFreeFrom, RoomAvailability::getFreeTo)
+				.containsExactly(tuple("AvailRoom1", LocalTime.of(14, 30), LocalTime.of(15, 0)),
+						tuple("AvailRoom2", LocalTime.of(14, 0), LocalTime.of(14, 40)),
+						tuple("AvailRoom3", LocalTime.of(14, 0), LocalTime.of(15, 0)));
+
+		bookingService.cancelBooking(late.getId());
+		assertThat(bookingService.findAvailableRooms(date, LocalTime.of(14, 0), LocalTime.of(15, 0), 60))
+				.filteredOn(availability -> availability.getRoom().startsWith("AvailRoom"))
+				.extracting(RoomAvailability::getRoom).containsExactly("AvailRoom2", "AvailRoom3");
+	}
+
+	@Test
+	void testPageThroughEmployeeBookings() {
+		LocalDate date = LocalDate.now().plusDays(4);
+		bookingService.createBooking("PageRoom1", "pager@example.com", date.minusDays(5), LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		List<Long> created = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			created.add(bookingService.createBooking("PageRoom" + (i % 2), "pager@example.com", date.plusDays(i / 2),
+					LocalTime.of(9 + i, 0), LocalTime.of(10 + i, 0)).getId());
+		}
+
+		List<Long> listed = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			BookingPage page = bookingService.findUpcomingBookingsByEmployee("pager@example.com", cursor, 2);
+			page.getBookings().forEach(booking -> listed.add(booking.getId()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+		// The booking in the past is not upcoming
+		assertThat(listed).containsExactlyElementsOf(created);
+		assertThat(pages).isEqualTo(3);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> bookingService.findUpcomingBookingsByEmployee("pager@example.com", "not-a-cursor", 2));
+	}
+
 	@Test
 	void testCancelPastBooking() {
 		Booking booking = bookingService.createBooking("Room1", "employee@example.com", LocalDate.now().minusDays(1),
 				LocalTime.of(10, 0), LocalTime.of(12, 0));
 		assertThrows(IllegalStateException.class, () -> bookingService.cancelBooking(booking.getId()));
 	}
+
+	@Test
+	void testCancelBookingsInBulk() {
+		LocalDate date = LocalDate.now().plusDays(6);
+		Booking past = bookingService.createBooking("BulkRoom1", "bulk@example.com", LocalDate.now().minusDays(2),
+				LocalTime.of(9, 0), LocalTime.of(10, 0));
+		Booking first = bookingService.createBooking("BulkRoom1", "bulk@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		Booking second = bookingService.createBooking("BulkRoom2", "bulk@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		bookingService.createBooking("BulkRoom2", "other-bulk@example.com", date.plusDays(1), LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		bookingService.createBooking("BulkRoom1", "other-bulk@example.com", date.plusDays(1), LocalTime.of(11, 0),
+				LocalTime.of(12, 0));
+
+		// Past and unknown ids are skipped
+		assertEquals(1, bookingService.cancelBookings(List.of(past.getId(), first.getId(), Long.MAX_VALUE)));
+		assertFalse(scheduleIndex.hasOverlap("BulkRoom1", date, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+		assertEquals(1, bookingService.cancelBookingsByEmployee("bulk@example.com"));
+		assertThat(bookingService.findBooking(second.getId())).isEmpty();
+		assertThat(bookingService.findBooking(past.getId())).isPresent();
+
+		assertEquals(1,
+				bookingService.cancelBookingsByRoom("BulkRoom2", LocalDate.now().minusDays(10), date.plusDays(1)));
+		assertThat(bookingService.findBookingsByRoomAndDate("BulkRoom2", date.plusDays(1))).isEmpty();
+		assertThat(bookingService.findBookingsByRoomAndDate("BulkRoom1", date.plusDays(1))).hasSize(1);
+		assertEquals(1,
+				bookingService.cancelBookingsByRoom("BulkRoom1", LocalDate.now().minusDays(10), date.plusDays(1)));
+		assertEquals(0, bookingService.cancelBookingsByRoom("BulkRoom1", LocalDate.now().minusDays(10),
+				LocalDate.now().minusDays(1)));
+		assertThat(bookingService.findBooking(past.getId())).isPresent();
+	}
+
+	@Test
+	void testPruneDropsPastDays() {
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+		LocalDate tomorrow = LocalDate.now().plusDays(1);
+		bookingService.createBooking("PruneRoom", "employee@example.com", yesterday, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		bookingService.createBooking("PruneRoom", "employee@example.com", tomorrow, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		assertTrue(scheduleIndex.hasOverlap("PruneRoom", yesterday, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+
+		scheduleIndex.prune(LocalDate.now());
+		assertFalse(scheduleIndex.hasOverlap("PruneRoom", yesterday, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+		assertFalse(scheduleIndex.covers(yesterday));
+		assertTrue(scheduleIndex.hasOverlap("PruneRoom", tomorrow, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+	}
 }
@@ -0,0 +1,286 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.repository.BookingStore;
+import com.acme.meetingroom.service.RoomCatalog;
+
+/**
+ * Behaviour shared by every {@link BookingStore} engine, run once per engine by
+ * the subclasses. Each test books rooms and employees of its own, so bookings
+ * left in the database by other tests do not get in the way.
+ */
+abstract class BookingStoreContractTests {
+
+	protected static final LocalDate DATE = LocalDate.now().plusDays(3);
+
+	@Autowired
+	protected BookingStore store;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private RoomCatalog roomCatalog;
+
+	private final String prefix = "Store-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+
+	/**
+	 * Creates the rooms in name order, so that they also sort that way by id.
+	 */
+	@BeforeEach
+	void createRooms() {
+		roomCatalog.resolve(room("A"));
+		roomCatalog.resolve(room("B"));
+	}
+
+	@Test
+	void testSaveAssignsIdsAndFindsById() {
+		Booking saved = store.save(booking("A", DATE, 9, 10));
+		assertThat(saved.getId()).isNotNull();
+		assertThat(store.findById(saved.getId())).get().extracting(Booking::getRoom).isEqualTo(room("A"));
+
+		List<Booking> batch = store.saveAll(List.of(booking("A", DATE, 11, 12), booking("B", DATE, 9, 10)));
+		assertThat(batch).extracting(Booking::getId).doesNotContainNull().doesNotHaveDuplicates()
+				.doesNotContain(saved.getId());
+		assertThat(store.findByRoomAndDate(room("A"), DATE)).hasSize(2);
+	}
+
+	@Test
+	void testRejectsSecondBookingStartingAtTheSameTime() {
+		store.save(booking("A", DATE, 9, 10));
+		assertThrows(DataIntegrityViolationException.class, () -> store.save(booking("A", DATE, 9, 11)));
+		assertThrows(DataIntegrityViolationException.class,
+				() -> store.saveAll(List.of(booking("A", DATE, 12, 13), booking("A", DATE, 12, 14))));
+		assertThat(store.findByRoomAndDate(room("A"), DATE)).extracting(Booking::getTimeFrom)
+				.containsExactly(LocalTime.of(9, 0));
+	}
+
+	@Test
+	void testOverlapIsHalfOpen() {
+		store.saveAll(List.of(booking("A", DATE, 9, 10), booking("A", DATE, 12, 14)));
+
+		assertThat(store.existsOverlapping(room("A"), DATE, LocalTime.of(9, 30), LocalTime.of(9, 45))).isTrue();
+		assertThat(store.existsOverlapping(room("A"), DATE, LocalTime.of(13, 0), LocalTime.of(15, 0))).isTrue();
+		assertThat(store.existsOverlapping(room("A"), DATE, LocalTime.of(8, 0), LocalTime.of(9, 0))).isFalse();
+		assertThat(store.existsOverlapping(room("A"), DATE, LocalTime.of(10, 0), LocalTime.of(12, 0))).isFalse();
+		assertThat(store.existsOverlapping(room("A"), DATE.plusDays(1), LocalTime.of(9, 0), LocalTime.of(10, 0)))
+				.isFalse();
+		assertThat(store.existsOverlapping(room("B"), DATE, LocalTime.of(9, 0), LocalTime.of(10, 0))).isFalse();
+
+		assertThat(store.findOverlapping(room("A"), DATE.minusDays(1), DATE.plusDays(1), LocalTime.of(9, 30),
+				LocalTime.of(12, 30))).extracting(Booking::getTimeFrom)
+				.containsExactlyInAnyOrder(LocalTime.of(9, 0), LocalTime.of(12, 0));
+	}
+
+	@Test
+	void testFindsFromDate() {
+		Booking first = store.save(booking("A", DATE, 9, 10));
+		Booking second = store.save(booking("A", DATE.plusDays(1), 9, 10));
+		Booking past = store.save(booking("A", DATE.minusDays(1), 9, 10));
+
+		assertThat(ours(store.findFrom(DATE))).extracting(Booking::getId).containsExactlyInAnyOrder(first.getId(),
+				second.getId());
+		assertThat(store.findIdsFrom(DATE)).contains(first.getId(), second.getId()).doesNotContain(past.getId());
+	}
+
+	@Test
+	void testFindsWhatTheEventLogMisses() {
+		long before = store.countFrom(DATE);
+		Booking first = store.save(booking("A", DATE, 9, 10));
+		Booking second = store.save(booking("A", DATE.plusDays(1), 9, 10));
+		Booking past = store.save(booking("A", DATE.minusDays(1), 9, 10));
+
+		assertThat(store.countFrom(DATE)).isEqualTo(before + 2);
+		assertThat(ours(store.findFromAfterId(DATE, first.getId()))).extracting(Booking::getId)
+				.containsExactly(second.getId());
+		assertThat(store.findAllById(List.of(first.getId(), past.getId(), -1L))).extracting(Booking::getId)
+				.containsExactlyInAnyOrder(first.getId(), past.getId());
+	}
+
+	@Test
+	void testForEachBetweenReadsInScheduleOrder() {
+		store.saveAll(List.of(booking("A", DATE.plusDays(1), 10, 11), booking("A", DATE, 14, 15),
+				booking("A", DATE, 9, 10), booking("B", DATE, 9, 10), booking("A", DATE.plusDays(2), 9, 10)));
+
+		List<String> room = new ArrayList<>();
+		store.forEachBetween(room("A"), DATE, DATE.plusDays(1), booking -> room.add(slot(booking)));
+		assertThat(room).containsExactly("A 0 09:00", "A 0 14:00", "A 1 10:00");
+
+		List<String> all = new ArrayList<>();
+		store.forEachBetween(null, DATE, DATE.plusDays(1), booking -> {
+			if (booking.getRoom().startsWith(prefix)) {
+				all.add(slot(booking));
+			}
+		});
+		assertThat(all).containsExactly("A 0 09:00", "B 0 09:00", "A 0 14:00", "A 1 10:00");
+	}
+
+	@Test
+	void testPagesFollowKeysetOrder() {
+		// A date far enough ahead that no other test books it
+		LocalDate date = LocalDate.now().plusYears(100).plusDays(ThreadLocalRandom.current().nextInt(10_000));
+		store.saveAll(List.of(booking("B", date, 9, 10), booking("A", date, 11, 12), booking("A", date, 9, 10),
+				booking("B", date.plusDays(1), 8, 9)));
+
+		List<Booking> first = store.findPageAfter(date, LocalTime.MIN, "", 0, 2);
+		assertThat(first).extracting(booking -> slot(booking, date)).containsExactly("A 0 09:00", "B 0 09:00");
+		Booking last = first.get(1);
+		List<Booking> second = store.findPageAfter(last.getDate(), last.getTimeFrom(), last.getRoom(), last.getId(),
+				10);
+		assertThat(second).extracting(booking -> slot(booking, date)).containsExactly("A 0 11:00", "B 1 08:00");
+	}
+
+	@Test
+	void testPagesOfAnEmployee() {
+		String employee = prefix + "employee@example.com";
+		List<Booking> bookings = new ArrayList<>();
+		for (int day = 0; day < 3; day++) {
+			for (String room : List.of("B", "A")) {
+				Booking booking = booking(room, DATE.plusDays(day), 9, 10);
+				booking.setEmployeeEmail(employee);
+				bookings.add(booking);
+			}
+		}
+		store.saveAll(bookings);
+
+		List<Booking> first = store.findPageByEmployeeAfter(employee, DATE, LocalTime.MIN, 0, 4);
+		assertThat(first).hasSize(4).extracting(Booking::getDate).isSorted();
+		Booking last = first.get(3);
+		assertThat(store.findPageByEmployeeAfter(employee, last.getDate(), last.getTimeFrom(), last.getId(), 4))
+				.hasSize(2).allSatisfy(booking -> assertThat(booking.getDate()).isEqualTo(DATE.plusDays(2)));
+		assertThat(store.findPageByEmployeeAfter(prefix + "nobody@example.com", DATE, LocalTime.MIN, 0, 4))
+				.isEmpty();
+	}
+
+	@Test
+	void testSeriesOccurrences() {
+		long seriesId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+		List<Booking> occurrences = new ArrayList<>();
+		for (int week = 0; week < 3; week++) {
+			Booking occurrence = booking("A", DATE.plusWeeks(week), 9, 10);
+			occurrence.setSeriesId(seriesId);
+			occurrences.add(occurrence);
+		}
+		store.saveAll(occurrences);
+
+		assertThat(store.findBySeriesFrom(seriesId, DATE.plusDays(1))).hasSize(2);
+		assertThat(store.deleteBySeriesFrom(seriesId, DATE.plusDays(1))).isEqualTo(2);
+		assertThat(store.existsBySeries(seriesId)).isTrue();
+		assertThat(store.findBySeriesFrom(seriesId, DATE)).extracting(Booking::getDate).containsExactly(DATE);
+		assertThat(store.deleteBySeriesFrom(seriesId, DATE)).isEqualTo(1);
+		assertThat(store.existsBySeries(seriesId)).isFalse();
+	}
+
+	@Test
+	void testInsertAllUsesReservedIds() {
+		Booking first = booking("A", DATE, 9, 10);
+		first.setId(store.nextId());
+		Booking second = booking("A", DATE, 10, 11);
+		second.setId(store.nextId());
+		assertThat(second.getId()).isNotEqualTo(first.getId());
+
+		new TransactionTemplate(transactionManager)
+				.executeWithoutResult(status -> store.insertAll(List.of(first, second)));
+		assertThat(store.findById(first.getId())).isPresent();
+		assertThat(store.findById(second.getId())).isPresent();
+		assertThat(store.save(booking("A", DATE, 11, 12)).getId()).isNotIn(first.getId(), second.getId());
+	}
+
+	@Test
+	void testDeleteFreesTheSlot() {
+		Booking saved = store.save(booking("A", DATE, 9, 10));
+		store.delete(saved);
+		assertThat(store.findById(saved.getId())).isEmpty();
+		assertThat(store.existsOverlapping(room("A"), DATE, LocalTime.of(9, 0), LocalTime.of(10, 0))).isFalse();
+		store.save(booking("A", DATE, 9, 10));
+	}
+
+	@Test
+	void testSetBasedDeletesReturnDeletedBookings() {
+		String employee = prefix + "employee@example.com";
+		Booking past = booking("A", DATE.minusDays(1), 9, 10);
+		Booking first = booking("A", DATE, 9, 10);
+		Booking second = booking("B", DATE, 9, 10);
+		Booking third = booking("A", DATE.plusDays(1), 9, 10);
+		Booking fourth = booking("A", DATE.plusDays(2), 9, 10);
+		third.setEmployeeEmail(employee);
+		fourth.setEmployeeEmail(employee);
+		store.saveAll(List.of(past, first, second, third, fourth));
+
+		assertThat(store.deleteByIdsFrom(List.of(past.getId(), first.getId(), second.getId()), DATE,
+				List.of(room("A")))).extracting(Booking::getId).containsExactly(first.getId());
+		assertThat(store.deleteByIdsFrom(List.of(past.getId(), second.getId()), DATE, null))
+				.extracting(booking -> slot(booking)).containsExactly("B 0 09:00");
+		assertThat(store.findById(past.getId())).isPresent();
+
+		assertThat(store.deleteByEmployeeFrom(employee, DATE, List.of(room("B")))).isEmpty();
+		assertThat(store.deleteByEmployeeFrom(employee, DATE.plusDays(2), null)).extracting(Booking::getId)
+				.containsExactly(fourth.getId());
+		assertThat(store.findById(third.getId())).isPresent();
+
+		assertThat(store.deleteByRoomBetween(room("A"), DATE.minusDays(1), DATE.plusDays(1)))
+				.extracting(Booking::getId).containsExactlyInAnyOrder(past.getId(), third.getId());
+		assertThat(store.findByRoomAndDate(room("A"), DATE.plusDays(1))).isEmpty();
+		assertThat(store.deleteByRoomBetween(room("A"), DATE, DATE.plusDays(2))).isEmpty();
+	}
+
+	@Test
+	void testRollbackUndoesWrites() {
+		Booking kept = store.save(booking("A", DATE, 9, 10));
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			store.save(booking("B", DATE, 9, 10));
+			store.delete(store.findById(kept.getId()).orElseThrow());
+			status.setRollbackOnly();
+		});
+		assertThat(store.findById(kept.getId())).isPresent();
+		assertThat(store.findByRoomAndDate(room("B"), DATE)).isEmpty();
+		assertThat(store.existsOverlapping(room("A"), DATE, LocalTime.of(9, 0), LocalTime.of(10, 0))).isTrue();
+	}
+
+	/**
+	 * Returns a booking from hour to hour in one of this test's rooms.
+	 */
+	protected Booking booking(String room, LocalDate date, int from, int to) {
+		return new Booking(room(room), "store@example.com", date, LocalTime.of(from, 0), LocalTime.of(to, 0));
+	}
+
+	/**
+	 * Returns the name of one of this test's rooms.
+	 */
+	protected String room(String room) {
+		return prefix + room;
+	}
+
+	private List<Booking> ours(List<Booking> bookings) {
+		return bookings.stream().filter(booking -> booking.getRoom().startsWith(prefix)).toList();
+	}
+
+	private String slot(Booking booking) {
+		return slot(booking, DATE);
+	}
+
+	/**
+	 * Describes a booking by room, day relative to a date, and start time.
+	 */
+	private String slot(Booking booking, LocalDate date) {
+		return booking.getRoom().substring(prefix.length()) + " " + (booking.getDate().toEpochDay() - date.toEpochDay())
+				+ " " + booking.getTimeFrom();
+	}
+}
@@ -0,0 +1,98 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.repository.BookingRepository;
+import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.BookingWriteBehind;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = "booking.room-catalog.auto-create=true")
+class BookingWriteBehindTests {
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private BookingWriteBehind writeBehind;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void testSubmittedBookingTakesTheSlotAndIsStored() throws InterruptedException {
+		LocalDate date = LocalDate.now().plusDays(3);
+		Booking accepted = bookingService.submitBooking("AsyncRoom1", "first@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		assertThat(accepted.getId()).isNotNull();
+
+		// The slot is taken at once, whether or not the insert has happened yet
+		assertThrows(IllegalStateException.class, () -> bookingService.createBooking("AsyncRoom1",
+				"second@example.com", date, LocalTime.of(9, 30), LocalTime.of(10, 30)));
+		assertThrows(IllegalStateException.class, () -> bookingService.submitBooking("AsyncRoom1",
+				"second@example.com", date, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+
+		awaitTrue(() -> bookingRepository.findById(accepted.getId()).isPresent());
+		assertThat(bookingService.findBookingsByRoomAndDate("AsyncRoom1", date)).singleElement()
+				.satisfies(stored -> {
+					assertThat(stored.getId()).isEqualTo(accepted.getId());
+					assertThat(stored.getEmployeeEmail()).isEqualTo("first@example.com");
+					assertThat(stored.getTimeTo()).isEqualTo(LocalTime.of(10, 0));
+				});
+
+		// Ids reserved for queued bookings never collide with bookings saved through JPA
+		Booking saved = bookingService.createBooking("AsyncRoom1", "second@example.com", date,
+				LocalTime.of(10, 0), LocalTime.of(11, 0));
+		assertThat(saved.getId()).isNotEqualTo(accepted.getId());
+	}
+
+	@Test
+	void testSubmissionsAreStoredInBatches() throws InterruptedException {
+		DistributionSummary batches = meterRegistry.get("booking.write-behind.batch").summary();
+		long batchesBefore = batches.count();
+		LocalDate date = LocalDate.now().plusDays(4);
+		List<Long> ids = new ArrayList<>();
+		for (int room = 0; room < 40; room++) {
+			for (int hour = 8; hour < 13; hour++) {
+				ids.add(bookingService.submitBooking("AsyncBatchRoom" + room, "team@example.com", date,
+						LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0)).getId());
+			}
+		}
+		assertThat(ids).doesNotHaveDuplicates();
+
+		awaitTrue(() -> writeBehind.pending() == 0 && bookingRepository.findAllById(ids).size() == ids.size());
+		assertThat(batches.count() - batchesBefore).isLessThan(ids.size());
+	}
+
+	@Test
+	void testPastDatesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> bookingService.submitBooking("AsyncRoom2",
+				"first@example.com", LocalDate.now().minusDays(1), LocalTime.of(9, 0), LocalTime.of(10, 0)));
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+}
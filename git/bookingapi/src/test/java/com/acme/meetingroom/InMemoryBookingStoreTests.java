@@ -0,0 +1,83 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.repository.InMemoryBookingStore;
+import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.RoomCatalog;
+
+@SpringBootTest(properties = { "booking.storage.engine=memory", "booking.room-catalog.auto-create=true" })
+class InMemoryBookingStoreTests extends BookingStoreContractTests {
+
+	@TempDir
+	Path directory;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private RoomCatalog roomCatalog;
+
+	@Test
+	void testServiceRunsOnTheEngine() {
+		assertThat(store).isInstanceOf(InMemoryBookingStore.class);
+		Booking booking = bookingService.createBooking(room("A"), "employee@example.com", DATE, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		assertThat(store.findById(booking.getId())).isPresent();
+		assertThrows(IllegalStateException.class, () -> bookingService.createBooking(room("A"),
+				"employee@example.com", DATE, LocalTime.of(9, 30), LocalTime.of(10, 30)));
+
+		bookingService.cancelBooking(booking.getId());
+		assertThat(bookingService.findBookingsByRoomAndDate(room("A"), DATE)).isEmpty();
+	}
+
+	@Test
+	void testReadersGetCopies() {
+		Booking stored = store.save(booking("A", DATE, 9, 10));
+		store.findById(stored.getId()).orElseThrow().setTimeFrom(LocalTime.of(12, 0));
+		store.findByRoomAndDate(room("A"), DATE).get(0).setDate(DATE.plusDays(1));
+		store.findFrom(DATE).stream().filter(booking -> booking.getId().equals(stored.getId())).findFirst()
+				.orElseThrow().setRoom(room("B"));
+
+		assertThat(store.findByRoomAndDate(room("A"), DATE)).singleElement().satisfies(booking -> {
+			assertThat(booking.getTimeFrom()).isEqualTo(LocalTime.of(9, 0));
+			assertThat(booking.getDate()).isEqualTo(DATE);
+			assertThat(booking.getRoom()).isEqualTo(room("A"));
+		});
+		assertThat(store.findByRoomAndDate(room("B"), DATE)).isEmpty();
+	}
+
+	@Test
+	void testSnapshotSurvivesRestart() throws IOException {
+		String file = directory.resolve("bookings.bin").toString();
+		InMemoryBookingStore first = new InMemoryBookingStore(roomCatalog, file, Duration.ofHours(1));
+		Booking single = first.save(booking("A", DATE, 9, 10));
+		Booking occurrence = booking("A", DATE, 11, 12);
+		occurrence.setSeriesId(7L);
+		first.save(occurrence);
+		Booking cancelled = first.save(booking("A", DATE, 14, 15));
+		first.delete(cancelled);
+		first.close();
+
+		InMemoryBookingStore second = new InMemoryBookingStore(roomCatalog, file, Duration.ofHours(1));
+		assertThat(second.findByRoomAndDate(room("A"), DATE)).extracting(Booking::getTimeFrom)
+				.containsExactly(LocalTime.of(9, 0), LocalTime.of(11, 0));
+		assertThat(second.findById(single.getId())).get().extracting(Booking::getEmployeeEmail)
+				.isEqualTo(single.getEmployeeEmail());
+		assertThat(second.findBySeriesFrom(7L, DATE)).hasSize(1);
+		assertThat(second.nextId()).isGreaterThan(cancelled.getId());
+		second.close();
+	}
+}
@@ -0,0 +1,17 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.acme.meetingroom.repository.JpaBookingStore;
+
+@SpringBootTest(properties = "booking.room-catalog.auto-create=true")
+class JpaBookingStoreTests extends BookingStoreContractTests {
+
+	@Test
+	void testIsTheDefaultEngine() {
+		assertThat(store).isInstanceOf(JpaBookingStore.class);
+	}
+}
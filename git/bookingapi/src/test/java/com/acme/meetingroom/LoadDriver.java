@@ -0,0 +1,112 @@
+package com.acme.meetingroom;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Closed-loop load generator for tests. A fixed number of workers issue
+ * requests back to back for a given duration; latencies are recorded in an
+ * HdrHistogram.
+ */
+final class LoadDriver {
+
+	private LoadDriver() {
+	}
+
+	/**
+	 * Runs a request in a loop on {@code concurrency} workers.
+	 *
+	 * @param concurrency the number of concurrent workers.
+	 * @param duration    how long to generate load.
+	 * @param request     issues one request and returns true if it succeeded.
+	 * @return the measured throughput and latency distribution.
+	 */
+	static LoadReport run(int concurrency, Duration duration, Callable<Boolean> request) throws Exception {
+		Recorder recorder = new Recorder(3);
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		long deadline = System.nanoTime() + duration.toNanos();
+		List<Future<long[]>> results = new ArrayList<>();
+		for (int i = 0; i < concurrency; i++) {
+			results.add(workers.submit(() -> {
+				long ok = 0;
+				long failed = 0;
+				while (System.nanoTime() < deadline) {
+					long start = System.nanoTime();
+					boolean success;
+					try {
+						success = request.call();
+					} catch (Exception e) {
+						success = false;
+					}
+					recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+					if (success) {
+						ok++;
+					} else {
+						failed++;
+					}
+				}
+				return new long[] { ok, failed };
+			}));
+		}
+		long succeeded = 0;
+		long failed = 0;
+		for (Future<long[]> result : results) {
+			long[] counts = result.get();
+			succeeded += counts[0];
+			failed += counts[1];
+		}
+		workers.shutdown();
+		return new LoadReport(concurrency, duration, succeeded, failed, recorder.getIntervalHistogram());
+	}
+
+	/**
+	 * Throughput and latency of one load run. Latencies are in microseconds.
+	 * The throughput only counts requests that succeeded, so fast rejections
+	 * such as 429 or 503 answers do not inflate it.
+	 */
+	static final class LoadReport {
+
+		final int concurrency;
+
+		final long succeeded;
+
+		final long failed;
+
+		final double throughput;
+
+		final Histogram latencies;
+
+		LoadReport(int concurrency, Duration duration, long succeeded, long failed, Histogram latencies) {
+			this.concurrency = concurrency;
+			this.succeeded = succeeded;
+			this.failed = failed;
+			this.throughput = succeeded / (duration.toNanos() / 1e9);
+			this.latencies = latencies;
+		}
+
+		double errorRate() {
+			long total = succeeded + failed;
+			return total == 0 ? 0 : (double) failed / total;
+		}
+
+		double percentileMillis(double percentile) {
+			return latencies.getValueAtPercentile(percentile) / 1000.0;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("concurrency=%d requests=%d errors=%.2f%% throughput=%.0f/s p50=%.1fms p99=%.1fms max=%.1fms",
+					concurrency, succeeded + failed, errorRate() * 100, throughput, percentileMillis(50),
+					percentileMillis(99), latencies.getMaxValue() / 1000.0);
+		}
+	}
+}
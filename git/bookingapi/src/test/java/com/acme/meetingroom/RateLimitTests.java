@@ -0,0 +1,133 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.acme.meetingroom.controller.RateLimitInterceptor;
+import com.acme.meetingroom.controller.RoomRouter;
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.utils.TokenBucketLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Checks that the rate limit throttles each client on its own, with separate
+ * budgets for reads and writes, and that unregistered client names share the
+ * budget of their address. The budgets refill so slowly that they cannot
+ * recover during the test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"booking.rate-limit.enabled=true", "booking.rate-limit.read.permits-per-second=0.01",
+		"booking.rate-limit.read.burst=3", "booking.rate-limit.write.permits-per-second=0.01",
+		"booking.rate-limit.write.burst=2", "booking.rate-limit.clients=greedy,polite",
+		"booking.room-catalog.auto-create=true" })
+class RateLimitTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void testClientsAreThrottledOnTheirOwn() {
+		String bookingsUrl = "http://localhost:" + port + "/api/bookings";
+		LocalDate date = LocalDate.now().plusDays(4);
+		double throttledWrites = throttled("write");
+		double throttledReads = throttled("read");
+		for (int hour = 9; hour < 11; hour++) {
+			assertThat(post(bookingsUrl, "greedy", new Booking("ThrottledRoom", "employee@example.com", date,
+					LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0))).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		}
+		Booking third = new Booking("ThrottledRoom", "employee@example.com", date, LocalTime.of(11, 0),
+				LocalTime.of(12, 0));
+		ResponseEntity<String> throttled = post(bookingsUrl, "greedy", third);
+		assertThat(throttled.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(Long.parseLong(throttled.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isBetween(1L, 100L);
+
+		// Reads and other clients have budgets of their own
+		String scheduleUrl = bookingsUrl + "?room=ThrottledRoom&date=" + date;
+		assertThat(get(scheduleUrl, "greedy").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(post(bookingsUrl, "polite", third).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		for (int i = 0; i < 2; i++) {
+			assertThat(get(scheduleUrl, "greedy").getStatusCode()).isEqualTo(HttpStatus.OK);
+		}
+		assertThat(get(scheduleUrl, "greedy").getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+		assertThat(throttled("write") - throttledWrites).isEqualTo(1);
+		assertThat(throttled("read") - throttledReads).isEqualTo(1);
+	}
+
+	@Test
+	void testUnregisteredClientsShareTheirAddressBudget() {
+		String bookingsUrl = "http://localhost:" + port + "/api/bookings";
+		LocalDate date = LocalDate.now().plusDays(5);
+		for (int hour = 9; hour < 11; hour++) {
+			assertThat(post(bookingsUrl, "rotating-" + hour, new Booking("RotatingRoom", "employee" + hour
+					+ "@example.com", date, LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0))).getStatusCode())
+					.isEqualTo(HttpStatus.CREATED);
+		}
+		Booking third = new Booking("RotatingRoom", "other@example.com", date, LocalTime.of(11, 0),
+				LocalTime.of(12, 0));
+		assertThat(post(bookingsUrl, "rotating-11", third).getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+		// Claiming to be a cluster member does not skip the limit either
+		HttpHeaders forwarded = new HttpHeaders();
+		forwarded.set(RoomRouter.FORWARDED_HEADER, "http://localhost:" + port);
+		assertThat(restTemplate.exchange(bookingsUrl, HttpMethod.POST, new HttpEntity<>(third, forwarded),
+				String.class).getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+	}
+
+	@Test
+	void testBucketsStayBounded() throws InterruptedException {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(5, 1, 2, 1, Duration.ZERO);
+		assertThat(limiter.tryAcquire("a")).isZero();
+		assertThat(limiter.tryAcquire("a")).isPositive();
+		assertThat(limiter.tryAcquire("b")).isZero();
+		// No room left: the other clients share striped buckets, "c" and "e" the same one
+		assertThat(limiter.tryAcquire("c")).isZero();
+		assertThat(limiter.tryAcquire("e")).isPositive();
+		assertThat(limiter.size()).isEqualTo(2);
+
+		// Once full again, buckets are dropped to make room
+		Thread.sleep(250);
+		assertThat(limiter.tryAcquire("d")).isZero();
+		assertThat(limiter.size()).isEqualTo(1);
+	}
+
+	private double throttled(String budget) {
+		return meterRegistry.get("booking.throttled").tag("budget", budget).counter().count();
+	}
+
+	private ResponseEntity<String> post(String url, String client, Booking booking) {
+		return restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(booking, clientHeader(client)),
+				String.class);
+	}
+
+	private ResponseEntity<String> get(String url, String client) {
+		return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(clientHeader(client)), String.class);
+	}
+
+	private static HttpHeaders clientHeader(String client) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(RateLimitInterceptor.CLIENT_HEADER, client);
+		return headers;
+	}
+}
@@ -0,0 +1,106 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.entity.RecurringSeries;
+import com.acme.meetingroom.entity.RecurringSeries.Frequency;
+import com.acme.meetingroom.exception.SeriesNotFoundException;
+import com.acme.meetingroom.repository.BookingRepository;
+import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.RecurringSeriesService;
+
+@SpringBootTest(properties = "booking.room-catalog.auto-create=true")
+class RecurringSeriesTests {
+
+	@Autowired
+	private RecurringSeriesService seriesService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Test
+	void testWeeklySeriesWithException() {
+		LocalDate start = LocalDate.now().plusDays(1);
+		RecurringSeries series = new RecurringSeries("SeriesRoom1", "team@example.com", LocalTime.of(9, 0),
+				LocalTime.of(10, 0), Frequency.WEEKLY, start, start.plusWeeks(9));
+		series.setExceptions(Set.of(start.plusWeeks(3)));
+		RecurringSeries created = seriesService.createSeries(series);
+
+		assertThat(bookingRepository.findBySeriesIdAndDateGreaterThanEqual(created.getId(), start))
+				.extracting(Booking::getDate).hasSize(9).doesNotContain(start.plusWeeks(3))
+				.allSatisfy(date -> assertThat(date.getDayOfWeek()).isEqualTo(start.getDayOfWeek()));
+		assertThat(bookingService.findBookingsByRoomAndDate("SeriesRoom1", start.plusWeeks(9))).hasSize(1);
+	}
+
+	@Test
+	void testMonthlySeriesSkipsShortMonths() {
+		// The next January 31st is far enough ahead to be in the future
+		LocalDate start = LocalDate.of(LocalDate.now().getYear() + 1, Month.JANUARY, 31);
+		RecurringSeries series = new RecurringSeries("SeriesRoom2", "team@example.com", LocalTime.of(9, 0),
+				LocalTime.of(10, 0), Frequency.MONTHLY, start, null);
+		series.setCount(4);
+		RecurringSeries created = seriesService.createSeries(series);
+
+		assertThat(bookingRepository.findBySeriesIdAndDateGreaterThanEqual(created.getId(), start))
+				.extracting(Booking::getDate).containsExactlyInAnyOrder(start, start.withMonth(3).withDayOfMonth(31),
+						start.withMonth(5).withDayOfMonth(31), start.withMonth(7).withDayOfMonth(31));
+	}
+
+	@Test
+	void testConflictingSeriesIsRejectedAsAWhole() {
+		LocalDate start = LocalDate.now().plusDays(1);
+		bookingService.createBooking("SeriesRoom3", "other@example.com", start.plusDays(4), LocalTime.of(9, 30),
+				LocalTime.of(11, 0));
+		RecurringSeries series = new RecurringSeries("SeriesRoom3", "team@example.com", LocalTime.of(9, 0),
+				LocalTime.of(10, 0), Frequency.DAILY, start, start.plusDays(9));
+		series.setInterval(2);
+
+		IllegalStateException conflict = assertThrows(IllegalStateException.class,
+				() -> seriesService.createSeries(series));
+		assertThat(conflict.getMessage()).contains(start.plusDays(4).toString());
+		assertThat(bookingService.findBookingsByRoomAndDate("SeriesRoom3", start)).isEmpty();
+
+		// Excluding the conflicting date lets the series through
+		series.setExceptions(Set.of(start.plusDays(4)));
+		RecurringSeries created = seriesService.createSeries(series);
+		assertThat(bookingRepository.findBySeriesIdAndDateGreaterThanEqual(created.getId(), start)).hasSize(4);
+	}
+
+	@Test
+	void testCancelSeries() {
+		LocalDate start = LocalDate.now().plusDays(1);
+		RecurringSeries series = new RecurringSeries("SeriesRoom4", "team@example.com", LocalTime.of(14, 0),
+				LocalTime.of(15, 0), Frequency.WEEKLY, start, null);
+		series.setCount(20);
+		RecurringSeries created = seriesService.createSeries(series);
+
+		assertThat(seriesService.cancelSeries(created.getId())).isEqualTo(20);
+		assertThat(bookingRepository.existsBySeriesId(created.getId())).isFalse();
+		// The slots are free again
+		assertThat(bookingService.createBooking("SeriesRoom4", "other@example.com", start.plusWeeks(5),
+				LocalTime.of(14, 0), LocalTime.of(15, 0))).isNotNull();
+		assertThrows(SeriesNotFoundException.class, () -> seriesService.cancelSeries(created.getId()));
+	}
+
+	@Test
+	void testSeriesTooLong() {
+		LocalDate start = LocalDate.now().plusDays(1);
+		RecurringSeries series = new RecurringSeries("SeriesRoom5", "team@example.com", LocalTime.of(9, 0),
+				LocalTime.of(10, 0), Frequency.DAILY, start, start.plusYears(5));
+		assertThrows(IllegalArgumentException.class, () -> seriesService.createSeries(series));
+	}
+}
@@ -0,0 +1,181 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.acme.meetingroom.dto.RoomAvailability;
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.entity.Room;
+import com.acme.meetingroom.repository.RoomRepository;
+import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.RoomCatalog;
+import com.acme.meetingroom.utils.BookingValidator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RoomCatalogTests {
+
+	private static final ParameterizedTypeReference<List<Room>> ROOMS = new ParameterizedTypeReference<>() {
+	};
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private RoomCatalog roomCatalog;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@LocalServerPort
+	private int port;
+
+	private final String prefix = "Catalog-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+
+	@Test
+	void testFindsRoomsByCapacityAndEquipment() {
+		String roomsUrl = "http://localhost:" + port + "/api/rooms";
+		assertThat(put(roomsUrl, "Small", 4, "Whiteboard").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(put(roomsUrl, "Large", 12, "projector", "whiteboard").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(put(roomsUrl, "Medium", 8, "projector").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(put(roomsUrl, "Broken", 0).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+		assertThat(find(roomsUrl + "?minCapacity=6")).containsExactly("Large", "Medium");
+		assertThat(find(roomsUrl + "?equipment=WHITEBOARD")).containsExactly("Large", "Small");
+		assertThat(find(roomsUrl + "?minCapacity=6&equipment=projector,whiteboard")).containsExactly("Large");
+		assertThat(find(roomsUrl + "?equipment=teleporter")).isEmpty();
+
+		// Replacing the attributes moves the room in the index
+		put(roomsUrl, "Large", 12, "projector");
+		assertThat(find(roomsUrl + "?equipment=whiteboard")).containsExactly("Small");
+	}
+
+	@Test
+	void testBookingsReferToTheRoomById() {
+		roomCatalog.save(prefix + "Booked", new Room());
+		Booking booking = bookingService.createBooking(prefix + "Booked", "employee@example.com",
+				LocalDate.now().plusDays(2), LocalTime.of(9, 0), LocalTime.of(10, 0));
+		int roomId = roomCatalog.idOf(prefix + "Booked");
+		assertThat(roomId).isPositive();
+		assertThat(jdbcTemplate.queryForObject("select room_id from bookings where id = ?", Integer.class,
+				booking.getId())).isEqualTo(roomId);
+		assertThat(roomCatalog.idOf(prefix + "Unbooked")).isEqualTo(RoomCatalog.UNKNOWN);
+
+		// The database rejects bookings of rooms that do not exist
+		assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+				"insert into bookings (id, room_id, employee_email, date, time_from, time_to) values (?, ?, ?, ?, ?, ?)",
+				-booking.getId(), Integer.MAX_VALUE, "employee@example.com", LocalDate.now().plusDays(2),
+				LocalTime.of(11, 0), LocalTime.of(12, 0)));
+	}
+
+	@Test
+	void testRejectsUnknownRoomsWithoutAutoCreate() {
+		RoomCatalog catalog = new RoomCatalog(roomRepository, transactionManager, jdbcTemplate, false,
+				Duration.ofSeconds(5), Duration.ofSeconds(30), List.of());
+		BookingValidator validator = new BookingValidator(meterRegistry, catalog);
+		Booking booking = new Booking(prefix + "Unlisted", "employee@example.com", LocalDate.now().plusDays(2),
+				LocalTime.of(9, 0), LocalTime.of(10, 0));
+
+		assertThat(catalog.isBookable(booking.getRoom())).isFalse();
+		assertThat(validator.validateBooking(booking)).containsEntry("Room validation error", "Room does not exist");
+		assertThrows(IllegalArgumentException.class, () -> catalog.resolve(booking.getRoom()));
+
+		catalog.save(booking.getRoom(), new Room());
+		assertThat(validator.validateBooking(booking)).isEmpty();
+		assertThat(catalog.resolve(booking.getRoom())).isEqualTo(roomCatalog.idOf(booking.getRoom()));
+	}
+
+	@Test
+	void testRoomsCreatedElsewhereAreFoundAfterRefresh() {
+		RoomCatalog catalog = new RoomCatalog(roomRepository, transactionManager, jdbcTemplate, false,
+				Duration.ofHours(1), Duration.ofHours(1), List.of());
+		String name = prefix + "Elsewhere";
+		assertThat(catalog.idOf(name)).isEqualTo(RoomCatalog.UNKNOWN);
+
+		// Created by another instance: the miss is remembered until the catalog is reloaded
+		Room attributes = new Room();
+		attributes.setCapacity(30);
+		Room created = roomCatalog.save(name, attributes);
+		assertThat(catalog.idOf(name)).isEqualTo(RoomCatalog.UNKNOWN);
+		assertThat(catalog.find(30, Set.of())).extracting(Room::getName).doesNotContain(name);
+
+		catalog.refresh();
+		assertThat(catalog.idOf(name)).isEqualTo(created.getId());
+		assertThat(catalog.find(30, Set.of())).extracting(Room::getName).contains(name);
+	}
+
+	@Test
+	void testRoomsAreAvailableBeforeTheirFirstBooking() {
+		String roomsUrl = "http://localhost:" + port + "/api/rooms";
+		String availableUrl = roomsUrl + "/available?date=" + LocalDate.now().plusDays(2) + "&from=09:00&to=10:00";
+		assertThat(put(roomsUrl, "Fresh", 6).getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(available(availableUrl)).contains(prefix + "Fresh");
+
+		// Created by another instance: reported once the catalog is reloaded
+		jdbcTemplate.update("insert into rooms (name) values (?)", prefix + "Remote");
+		assertThat(available(availableUrl)).doesNotContain(prefix + "Remote");
+		roomCatalog.refresh();
+		assertThat(available(availableUrl)).contains(prefix + "Remote");
+	}
+
+	private List<String> available(String url) {
+		RoomAvailability[] available = restTemplate.getForObject(url, RoomAvailability[].class);
+		return List.of(available).stream().map(RoomAvailability::getRoom).toList();
+	}
+
+	private ResponseEntity<Map<String, Object>> put(String roomsUrl, String room, int capacity, String... equipment) {
+		Room attributes = new Room();
+		attributes.setCapacity(capacity);
+		attributes.setFloor(1);
+		attributes.setEquipment(Set.of(equipment));
+		return restTemplate.exchange(roomsUrl + "/" + prefix + room, HttpMethod.PUT, new HttpEntity<>(attributes),
+				new ParameterizedTypeReference<>() {
+				});
+	}
+
+	/**
+	 * Returns the names of this test's rooms among the rooms found, without
+	 * the prefix.
+	 */
+	private List<String> find(String url) {
+		ResponseEntity<List<Room>> response = restTemplate.exchange(url, HttpMethod.GET, null, ROOMS);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return response.getBody().stream().map(Room::getName).filter(name -> name.startsWith(prefix))
+				.map(name -> name.substring(prefix.length())).toList();
+	}
+}
@@ -0,0 +1,157 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.acme.meetingroom.entity.Booking;
+import com.acme.meetingroom.service.BookingService;
+import com.acme.meetingroom.service.RoomDate;
+import com.acme.meetingroom.service.ScheduleStreamRegistry;
+
+/**
+ * Load tests for the schedule change stream: fan-out to many simulated
+ * subscribers, disconnection of slow consumers, and delivery to real SSE
+ * clients over HTTP.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"booking.room-catalog.auto-create=true" })
+class ScheduleStreamTests {
+	private static final Logger logger = LoggerFactory.getLogger(ScheduleStreamTests.class);
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private ScheduleStreamRegistry streamRegistry;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void testFanOutToManySubscribers() throws InterruptedException {
+		int subscribers = 10_000;
+		RoomDate key = new RoomDate("StreamRoom", LocalDate.now().plusDays(7));
+		List<CountingEmitter> emitters = new ArrayList<>();
+		for (int i = 0; i < subscribers; i++) {
+			CountingEmitter emitter = new CountingEmitter(null);
+			streamRegistry.register(key, emitter);
+			emitters.add(emitter);
+		}
+
+		long start = System.nanoTime();
+		bookingService.createBooking(key.getRoom(), "employee@example.com", key.getDate(), LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		awaitTrue(() -> emitters.stream().allMatch(emitter -> emitter.sent.get() == 1));
+		logger.info("Delivered one change to {} subscribers in {} ms", subscribers,
+				(System.nanoTime() - start) / 1_000_000);
+		emitters.forEach(SseEmitter::complete);
+	}
+
+	@Test
+	void testSlowSubscriberIsDropped() throws InterruptedException {
+		RoomDate key = new RoomDate("SlowStreamRoom", LocalDate.now().plusDays(7));
+		CountDownLatch stalled = new CountDownLatch(1);
+		CountingEmitter slow = new CountingEmitter(stalled);
+		CountingEmitter fast = new CountingEmitter(null);
+		streamRegistry.register(key, slow);
+		streamRegistry.register(key, fast);
+		long dropped = streamRegistry.getDroppedCount();
+
+		// Each create/cancel pair produces two events; 20 pairs overflow the default buffer of 32
+		for (int i = 0; i < 20; i++) {
+			Booking booking = bookingService.createBooking(key.getRoom(), "employee@example.com", key.getDate(),
+					LocalTime.of(9, 0), LocalTime.of(10, 0));
+			bookingService.cancelBooking(booking.getId());
+		}
+		awaitTrue(() -> fast.sent.get() == 40);
+		stalled.countDown();
+		assertThat(streamRegistry.getDroppedCount()).isEqualTo(dropped + 1);
+		assertThat(slow.sent.get()).isLessThan(40);
+		fast.complete();
+	}
+
+	@Test
+	void testHttpSubscribersReceiveChanges() throws Exception {
+		int clients = 50;
+		LocalDate date = LocalDate.now().plusDays(8);
+		String url = "http://localhost:" + port + "/api/bookings/stream?room=HttpStreamRoom&date=" + date;
+		HttpClient client = HttpClient.newHttpClient();
+		int before = streamRegistry.getSubscriberCount();
+		List<CompletableFuture<String>> received = new ArrayList<>();
+		for (int i = 0; i < clients; i++) {
+			received.add(client.sendAsync(HttpRequest.newBuilder(URI.create(url)).build(),
+					HttpResponse.BodyHandlers.ofLines())
+					.thenApply(response -> {
+						try (Stream<String> lines = response.body()) {
+							return lines.filter(line -> line.startsWith("event:")).findFirst().orElse("");
+						}
+					}));
+		}
+		awaitTrue(() -> streamRegistry.getSubscriberCount() >= before + clients);
+
+		bookingService.createBooking("HttpStreamRoom", "employee@example.com", date, LocalTime.of(9, 0),
+				LocalTime.of(10, 0));
+		for (CompletableFuture<String> event : received) {
+			assertThat(event.get(10, TimeUnit.SECONDS)).isEqualTo("event:created");
+		}
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Simulated subscriber counting delivered events, optionally stalling on the
+	 * first one until released.
+	 */
+	private static final class CountingEmitter extends SseEmitter {
+
+		private final AtomicInteger sent = new AtomicInteger();
+
+		private final CountDownLatch stall;
+
+		CountingEmitter(CountDownLatch stall) {
+			this.stall = stall;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (stall != null) {
+				try {
+					stall.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(e);
+				}
+			}
+			sent.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.acme.meetingroom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares the platform-thread and the virtual-thread execution modes under
+ * the same mixed workload at increasing concurrency, reporting throughput and
+ * p99 latency per step and the highest throughput sustained within the p99
+ * target (250 ms unless set with {@code -Dload.p99-target-ms}) and the error
+ * rate limit (0.1% unless set with {@code -Dload.max-error-rate}). Needs Java
+ * 21 and {@code -Dload-tests=true}.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+class VirtualThreadsLoadTests {
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsLoadTests.class);
+
+	private static final int[] CONCURRENCY_STEPS = { 50, 200, 800 };
+
+	private static final Duration STEP_DURATION = Duration.ofSeconds(10);
+
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+
+	private static final double P99_TARGET_MILLIS = Double.parseDouble(System.getProperty("load.p99-target-ms", "250"));
+
+	private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.001"));
+
+	private final HttpClient client = HttpClient.newBuilder().executor(Runnable::run).build();
+
+	private final AtomicLong slots = new AtomicLong();
+
+	@Test
+	void comparePlatformAndVirtualThreads() throws Exception {
+		double platform = runMode("platform threads", "spring.threads.virtual.enabled=false");
+		double virtual = runMode("virtual threads", "spring.profiles.active=virtual-threads");
+		logger.info(
+				"Max sustained throughput with p99 <= {} ms and errors <= {}%: platform threads {}/s, virtual threads {}/s",
+				P99_TARGET_MILLIS, MAX_ERROR_RATE * 100, String.format("%.0f", platform),
+				String.format("%.0f", virtual));
+	}
+
+	/**
+	 * Starts the application in one mode, runs every concurrency step and
+	 * returns the highest throughput whose p99 and error rate met the targets.
+	 */
+	private double runMode(String mode, String... properties) throws Exception {
+		List<String> all = new ArrayList<>(List.of("server.port=0", "spring.jpa.show-sql=false",
+				"spring.datasource.url=jdbc:h2:mem:load-" + mode.replace(' ', '-') + ";DB_CLOSE_DELAY=-1",
+				"logging.level.com.acme.meetingroom.service=OFF", "logging.level.com.acme.meetingroom.utils=OFF",
+				"booking.room-catalog.auto-create=true"));
+		all.addAll(List.of(properties));
+		double sustained = 0;
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MeetingRoomApplication.class)
+				.properties(all.toArray(String[]::new)).run()) {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			// Let the JIT and the connection pool settle so that the first mode is not penalized
+			LoadDriver.run(CONCURRENCY_STEPS[0], WARMUP, () -> mixedRequest(port));
+			for (int concurrency : CONCURRENCY_STEPS) {
+				LoadDriver.LoadReport report = LoadDriver.run(concurrency, STEP_DURATION, () -> mixedRequest(port));
+				logger.info("{}: {}", mode, report);
+				assertThat(report.succeeded).isPositive();
+				if (report.percentileMillis(99) <= P99_TARGET_MILLIS && report.errorRate() <= MAX_ERROR_RATE) {
+					sustained = Math.max(sustained, report.throughput);
+				}
+			}
+		}
+		return sustained;
+	}
+
+	/**
+	 * Issues a schedule read four times out of five and a booking otherwise.
+	 */
+	private boolean mixedRequest(int port) throws Exception {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String base = "http://localhost:" + port + "/api/bookings";
+		LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(30));
+		HttpRequest request;
+		if (random.nextInt(5) > 0) {
+			request = HttpRequest.newBuilder(URI.create(base + "?room=LoadRoom" + random.nextInt(100) + "&date=" + date))
+					.build();
+		} else {
+			long slot = slots.getAndIncrement();
+			String body = String.format(
+					"{\"room\":\"LoadRoom%d\",\"employeeEmail\":\"load@example.com\",\"date\":\"%s\",\"timeFrom\":\"%02d:00\",\"timeTo\":\"%02d:00\"}",
+					slot % 1000, LocalDate.now().plusDays(31 + slot / 12000), slot / 1000 % 12 + 8,
+					slot / 1000 % 12 + 9);
+			request = HttpRequest.newBuilder(URI.create(base)).header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+		}
+		int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+		return status < 400;
+	}
+}